@@ -1,5 +1,39 @@
 package io.github.timemachinelab.thread.timer;
 
+import io.github.timemachinelab.util.time.MonotonicClock;
+
+/**
+ * Time source of the time wheel
+ */
+@FunctionalInterface
 public interface TimeTicker {
 
+    /**
+     * @return current epoch time in nanoseconds, must never go backwards
+     */
+    long currentTimeNanos();
+
+    /**
+     * @return current epoch time in milliseconds
+     */
+    default long currentTimeMillis() {
+        return currentTimeNanos() / 1_000_000L;
+    }
+
+    /**
+     * @return ticker backed by the global {@link MonotonicClock}
+     */
+    static TimeTicker monotonic() {
+        return monotonic(MonotonicClock.global());
+    }
+
+    /**
+     * @return ticker backed by the given {@link MonotonicClock}
+     */
+    static TimeTicker monotonic(MonotonicClock clock) {
+        if(clock == null){
+            throw new IllegalArgumentException("Illegal clock: null");
+        }
+        return clock::currentTimeNanos;
+    }
 }
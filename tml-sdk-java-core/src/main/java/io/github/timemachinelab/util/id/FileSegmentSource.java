@@ -0,0 +1,74 @@
+package io.github.timemachinelab.util.id;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * File backed {@link SegmentSource}
+ * Keeps the next free id of each tag as an 8 byte counter in {@code <dir>/<bizTag>.seg}.
+ * Every allocation takes an exclusive file lock and forces the new value to disk, so ranges
+ * survive restarts and stay disjoint between processes sharing the directory on one host.
+ * A single-node stand-in for a database allocator.
+ */
+public class FileSegmentSource implements SegmentSource {
+
+    private final Path dir;
+
+    private final long initialId;
+
+    public FileSegmentSource(Path dir) {
+        this(dir, 1L);
+    }
+
+    /**
+     * @param dir directory holding the counter files, created if absent
+     * @param initialId first id handed out for a new tag
+     */
+    public FileSegmentSource(Path dir, long initialId) {
+        if(dir == null){
+            throw new IllegalArgumentException("Illegal dir: null");
+        }
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.dir = dir;
+        this.initialId = initialId;
+    }
+
+    @Override
+    public synchronized long allocate(String bizTag, int step) {
+        if(bizTag == null || bizTag.isEmpty() || !bizTag.matches("[A-Za-z0-9._-]+")){
+            throw new IllegalArgumentException(String.format("Illegal bizTag: %s", bizTag));
+        }
+        Path file = dir.resolve(bizTag + ".seg");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            ByteBuffer buf = ByteBuffer.allocate(Long.BYTES);
+            long start = initialId;
+            if(channel.size() >= Long.BYTES){
+                while (buf.hasRemaining() && channel.read(buf, buf.position()) >= 0) {
+                    // read the whole counter
+                }
+                buf.flip();
+                start = buf.getLong();
+            }
+            buf.clear();
+            buf.putLong(start + step).flip();
+            while (buf.hasRemaining()) {
+                channel.write(buf, buf.position());
+            }
+            channel.force(false);
+            return start;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package io.github.timemachinelab.util.id;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Random id utilities
+ * UUID v4, time-ordered UUID v7 (RFC 9562) and ULID drawn from {@link ThreadLocalRandom} and written
+ * as ASCII straight into a byte array, so threads never contend on a shared {@code SecureRandom}.
+ * UUIDs are rendered as 32 lowercase hex digits without dashes, ULIDs as 26 Crockford base32 characters.
+ * <p>
+ * The entropy is not cryptographically strong: use these for trace and correlation ids,
+ * never for tokens or anything that must be unguessable.
+ */
+public final class IdUtil {
+
+    public final static int UUID_LENGTH = 32;
+
+    public final static int ULID_LENGTH = 26;
+
+    private final static byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final static byte[] CROCKFORD = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".getBytes(StandardCharsets.US_ASCII);
+
+    private IdUtil() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * @return random UUID v4 as 32 hex digits
+     */
+    public static String uuidV4() {
+        final byte[] buf = new byte[UUID_LENGTH];
+        uuidV4(buf, 0);
+        return new String(buf, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * write a random UUID v4 as 32 hex digits
+     * @return number of bytes written
+     */
+    public static int uuidV4(byte[] dst, int off) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final long msb = (random.nextLong() & ~0xF000L) | 0x4000L;
+        return writeUuid(msb, variant(random.nextLong()), dst, off);
+    }
+
+    /**
+     * @return time-ordered UUID v7 as 32 hex digits, ordered by millisecond, random within the same millisecond
+     */
+    public static String uuidV7() {
+        final byte[] buf = new byte[UUID_LENGTH];
+        uuidV7(buf, 0);
+        return new String(buf, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * write a UUID v7 for the current time as 32 hex digits
+     * @return number of bytes written
+     */
+    public static int uuidV7(byte[] dst, int off) {
+        return uuidV7(System.currentTimeMillis(), dst, off);
+    }
+
+    /**
+     * write a UUID v7 for the given unix millis as 32 hex digits
+     * @return number of bytes written
+     */
+    public static int uuidV7(long epochMillis, byte[] dst, int off) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final long msb = (epochMillis << 16) | 0x7000L | (random.nextInt() & 0xFFFL);
+        return writeUuid(msb, variant(random.nextLong()), dst, off);
+    }
+
+    /**
+     * @return ULID for the current time, 26 Crockford base32 characters
+     */
+    public static String ulid() {
+        final byte[] buf = new byte[ULID_LENGTH];
+        ulid(System.currentTimeMillis(), buf, 0);
+        return new String(buf, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * write a ULID (48 bit unix millis + 80 random bits) as 26 Crockford base32 characters
+     * @return number of bytes written
+     */
+    public static int ulid(long epochMillis, byte[] dst, int off) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        long time = epochMillis & 0xFFFFFFFFFFFFL;
+        for (int i = off + 9; i >= off; i--) {
+            dst[i] = CROCKFORD[(int) (time & 31)];
+            time >>>= 5;
+        }
+        // 80 random bits: 16 high bits + 64 low bits, 5 bits per character from the end
+        long lo = random.nextLong();
+        final long hi = ((random.nextInt() & 0xFFFFL) << 4) | (lo >>> 60);
+        for (int i = off + 25; i >= off + 14; i--) {
+            dst[i] = CROCKFORD[(int) (lo & 31)];
+            lo >>>= 5;
+        }
+        long rest = hi;
+        for (int i = off + 13; i >= off + 10; i--) {
+            dst[i] = CROCKFORD[(int) (rest & 31)];
+            rest >>>= 5;
+        }
+        return ULID_LENGTH;
+    }
+
+    /**
+     * @param uuid 32 hex digits as written by this class
+     * @return the parsed UUID
+     */
+    public static UUID parseUuid(CharSequence uuid) {
+        if (uuid == null || uuid.length() != UUID_LENGTH) {
+            throw new IllegalArgumentException(String.format("Illegal uuid: %s", uuid));
+        }
+        return new UUID(parseHex(uuid, 0), parseHex(uuid, 16));
+    }
+
+    private static long variant(long bits) {
+        return (bits & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+    }
+
+    private static int writeUuid(long msb, long lsb, byte[] dst, int off) {
+        for (int i = off + 15; i >= off; i--) {
+            dst[i] = HEX[(int) (msb & 15)];
+            msb >>>= 4;
+        }
+        for (int i = off + 31; i >= off + 16; i--) {
+            dst[i] = HEX[(int) (lsb & 15)];
+            lsb >>>= 4;
+        }
+        return UUID_LENGTH;
+    }
+
+    private static long parseHex(CharSequence s, int from) {
+        long value = 0;
+        for (int i = from; i < from + 16; i++) {
+            final int d = Character.digit(s.charAt(i), 16);
+            if (d < 0) {
+                throw new IllegalArgumentException(String.format("Illegal uuid: %s", s));
+            }
+            value = (value << 4) | d;
+        }
+        return value;
+    }
+}
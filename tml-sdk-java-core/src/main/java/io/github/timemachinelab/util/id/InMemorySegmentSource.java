@@ -0,0 +1,32 @@
+package io.github.timemachinelab.util.id;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory {@link SegmentSource}
+ * Ids restart after the process restarts and are only unique within this process,
+ * use it for tests or as a stand-in for a real allocator.
+ */
+public class InMemorySegmentSource implements SegmentSource {
+
+    private final ConcurrentHashMap<String, AtomicLong> maxIds = new ConcurrentHashMap<>();
+
+    private final long initialId;
+
+    public InMemorySegmentSource() {
+        this(1L);
+    }
+
+    /**
+     * @param initialId first id handed out for every tag
+     */
+    public InMemorySegmentSource(long initialId) {
+        this.initialId = initialId;
+    }
+
+    @Override
+    public long allocate(String bizTag, int step) {
+        return maxIds.computeIfAbsent(bizTag, k -> new AtomicLong(initialId)).getAndAdd(step);
+    }
+}
@@ -0,0 +1,219 @@
+package io.github.timemachinelab.util.id;
+
+import io.github.timemachinelab.thread.timer.AbstractTimeWheel;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Segment (Leaf-style) id generator
+ * Leases ranges of {@code step} ids from a {@link SegmentSource} and hands them out with a single
+ * {@code getAndIncrement} per id, so the central allocator is hit once per {@code step} ids.
+ * <p>
+ * Double buffering: once the usage of the current segment crosses {@code prefetchThreshold},
+ * the next segment is leased asynchronously, and the switch at exhaustion normally finds it ready.
+ * Only the switch itself is synchronized; if the prefetch failed or has not finished the switching
+ * thread leases (or waits for) the next segment itself.
+ * <p>
+ * Ids are increasing as long as the source hands out increasing ranges, which both bundled sources do.
+ * Ranges are not contiguous after a restart: unused ids of a leased segment are skipped.
+ */
+public class SegmentIdGenerator implements AbstractTimeWheel.TaskIdGenerator {
+
+    private final static int DEFAULT_STEP = 1000;
+
+    private final static double DEFAULT_PREFETCH_THRESHOLD = 0.1;
+
+    private final SegmentSource source;
+
+    private final String bizTag;
+
+    private final int step;
+
+    // offset inside a segment from which the next segment is prefetched
+    private final long prefetchOffset;
+
+    private final Executor executor;
+
+    private volatile Segment current;
+
+    private volatile CompletableFuture<Segment> next;
+
+    private SegmentIdGenerator(Builder builder) {
+        this.source = builder.source;
+        this.bizTag = builder.bizTag;
+        this.step = builder.step;
+        this.prefetchOffset = Math.min(step - 1, (long) Math.ceil(step * builder.prefetchThreshold));
+        this.executor = builder.executor != null ? builder.executor : PrefetchExecutorHolder.EXECUTOR;
+        this.current = lease();
+    }
+
+    public static Builder builder(SegmentSource source, String bizTag) {
+        return new Builder(source, bizTag);
+    }
+
+    /**
+     * @return next id
+     * @throws IllegalStateException if the source failed to lease a new segment
+     */
+    public long nextId() {
+        for (;;) {
+            final Segment segment = current;
+            final long id = segment.cursor.getAndIncrement();
+            if (id < segment.end) {
+                if (id - segment.start == prefetchOffset) {
+                    prefetch();
+                }
+                return id;
+            }
+            switchFrom(segment);
+        }
+    }
+
+    /**
+     * {@link AbstractTimeWheel.TaskIdGenerator} adapter
+     */
+    @Override
+    public String generateId() {
+        return Long.toString(nextId());
+    }
+
+    public String getBizTag() {
+        return bizTag;
+    }
+
+    public int getStep() {
+        return step;
+    }
+
+    /**
+     * @return ids left in the current segment, 0 when a switch is due
+     */
+    public long remaining() {
+        final Segment segment = current;
+        return Math.max(0, segment.end - segment.cursor.get());
+    }
+
+    private void prefetch() {
+        synchronized (this) {
+            if (next == null) {
+                next = CompletableFuture.supplyAsync(this::lease, executor);
+            }
+        }
+    }
+
+    private synchronized void switchFrom(Segment exhausted) {
+        if (current != exhausted) {
+            return;
+        }
+        final CompletableFuture<Segment> prefetched = next;
+        next = null;
+        Segment segment = null;
+        if (prefetched != null) {
+            try {
+                segment = prefetched.join();
+            } catch (CompletionException ignored) {
+                // prefetch failed, lease synchronously below
+            }
+        }
+        current = segment != null ? segment : lease();
+    }
+
+    private Segment lease() {
+        final long start;
+        try {
+            start = source.allocate(bizTag, step);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException(String.format("Failed to lease segment: bizTag %s, step %s", bizTag, step), e);
+        }
+        return new Segment(start, start + step);
+    }
+
+    private static final class Segment {
+
+        private final long start;
+
+        private final long end;
+
+        private final AtomicLong cursor;
+
+        private Segment(long start, long end) {
+            this.start = start;
+            this.end = end;
+            this.cursor = new AtomicLong(start);
+        }
+    }
+
+    private static final class PrefetchExecutorHolder {
+        private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "tml-segment-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static class Builder {
+
+        private final SegmentSource source;
+
+        private final String bizTag;
+
+        private int step = DEFAULT_STEP;
+
+        private double prefetchThreshold = DEFAULT_PREFETCH_THRESHOLD;
+
+        private Executor executor;
+
+        private Builder(SegmentSource source, String bizTag) {
+            this.source = source;
+            this.bizTag = bizTag;
+        }
+
+        /**
+         * @param step ids leased from the source at a time
+         */
+        public Builder step(int step) {
+            this.step = step;
+            return this;
+        }
+
+        /**
+         * @param prefetchThreshold usage ratio of the current segment, in (0, 1], that triggers the prefetch
+         */
+        public Builder prefetchThreshold(double prefetchThreshold) {
+            this.prefetchThreshold = prefetchThreshold;
+            return this;
+        }
+
+        /**
+         * @param executor runs the prefetch, a shared daemon pool by default
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * leases the first segment synchronously
+         */
+        public SegmentIdGenerator build() {
+            if (source == null) {
+                throw new IllegalArgumentException("Illegal source: null");
+            }
+            if (bizTag == null || bizTag.isEmpty()) {
+                throw new IllegalArgumentException(String.format("Illegal bizTag: %s", bizTag));
+            }
+            if (step <= 0) {
+                throw new IllegalArgumentException(String.format("Illegal step: %s <= 0", step));
+            }
+            if (!(prefetchThreshold > 0 && prefetchThreshold <= 1)) {
+                throw new IllegalArgumentException(String.format("Illegal prefetchThreshold: %s not in (0, 1]", prefetchThreshold));
+            }
+            return new SegmentIdGenerator(this);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package io.github.timemachinelab.util.id;
+
+/**
+ * Central allocator behind {@link SegmentIdGenerator}
+ * Typically backed by a database row per business tag
+ * ({@code UPDATE ... SET max_id = max_id + step WHERE biz_tag = ?}), it must hand out
+ * disjoint, increasing ranges for the same tag across all callers and processes.
+ */
+@FunctionalInterface
+public interface SegmentSource {
+
+    /**
+     * lease a range of ids
+     * @param bizTag business tag, each tag is an independent id sequence
+     * @param step range size, always positive
+     * @return first id of the leased range {@code [start, start + step)}
+     */
+    long allocate(String bizTag, int step);
+}
@@ -0,0 +1,267 @@
+package io.github.timemachinelab.util.id;
+
+import io.github.timemachinelab.thread.timer.AbstractTimeWheel;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake id generator
+ * id layout (high to low): sign(0) | timestamp | datacenterId | workerId | sequence,
+ * 41/5/5/12 bits by default, the timestamp counts milliseconds since a configurable epoch.
+ * <p>
+ * The last timestamp and sequence are packed into one long and advanced by CAS, so
+ * {@link #nextId()} never takes a lock. A sequence overflow simply carries into the timestamp,
+ * i.e. the generator borrows the next millisecond instead of spinning on the clock. The same
+ * mechanism absorbs a clock rollback: ids keep increasing from the last timestamp. Once the
+ * generator runs more than {@code maxAheadMillis} ahead of the clock the caller is parked until
+ * the clock catches up, and a rollback larger than {@code maxAheadMillis + maxWaitMillis} fails fast
+ * with an {@link IllegalStateException}.
+ * <p>
+ * Ids are unique per (datacenterId, workerId) and strictly increasing per generator instance.
+ */
+public class SnowflakeIdGenerator implements AbstractTimeWheel.TaskIdGenerator {
+
+    /** 2024-01-01T00:00:00Z */
+    public final static long DEFAULT_EPOCH = 1704067200000L;
+
+    private final static int DEFAULT_DATACENTER_BITS = 5;
+
+    private final static int DEFAULT_WORKER_BITS = 5;
+
+    private final static int DEFAULT_SEQUENCE_BITS = 12;
+
+    private final static long DEFAULT_MAX_AHEAD_MILLIS = 1000L;
+
+    private final static long DEFAULT_MAX_WAIT_MILLIS = 5000L;
+
+    private final long epoch;
+
+    private final int sequenceBits;
+
+    private final int workerBits;
+
+    private final int datacenterBits;
+
+    private final long datacenterId;
+
+    private final long workerId;
+
+    private final long maxAheadMillis;
+
+    private final long maxWaitMillis;
+
+    private final LongSupplier clock;
+
+    // (timestamp - epoch) << sequenceBits | sequence
+    private final AtomicLong state = new AtomicLong();
+
+    private final long node;
+
+    private final long sequenceMask;
+
+    private final int timestampShift;
+
+    private SnowflakeIdGenerator(Builder builder) {
+        this.epoch = builder.epoch;
+        this.sequenceBits = builder.sequenceBits;
+        this.workerBits = builder.workerBits;
+        this.datacenterBits = builder.datacenterBits;
+        this.datacenterId = builder.datacenterId;
+        this.workerId = builder.workerId;
+        this.maxAheadMillis = builder.maxAheadMillis;
+        this.maxWaitMillis = builder.maxWaitMillis;
+        this.clock = builder.clock;
+        this.sequenceMask = (1L << sequenceBits) - 1;
+        this.timestampShift = sequenceBits + workerBits + datacenterBits;
+        this.node = ((datacenterId << workerBits) | workerId) << sequenceBits;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return next id, strictly greater than every id returned before by this generator
+     * @throws IllegalStateException if the clock moved backwards further than the generator can absorb
+     */
+    public long nextId() {
+        for (;;) {
+            final long current = state.get();
+            final long now = clock.getAsLong() - epoch;
+            final long next;
+            if (now > (current >>> sequenceBits)) {
+                next = now << sequenceBits;
+            } else {
+                final long ahead = (current >>> sequenceBits) - now;
+                if (ahead >= maxAheadMillis) {
+                    awaitClock(ahead);
+                    continue;
+                }
+                // same millisecond or clock rollback, sequence overflow carries into the next millisecond
+                next = current + 1;
+            }
+            if (state.compareAndSet(current, next)) {
+                return ((next >>> sequenceBits) << timestampShift) | node | (next & sequenceMask);
+            }
+        }
+    }
+
+    /**
+     * {@link AbstractTimeWheel.TaskIdGenerator} adapter
+     */
+    @Override
+    public String generateId() {
+        return Long.toString(nextId());
+    }
+
+    private void awaitClock(long ahead) {
+        if (ahead > maxAheadMillis + maxWaitMillis) {
+            throw new IllegalStateException(String.format(
+                    "Clock moved backwards: generator is %s ms ahead of the clock, max ahead %s ms, max wait %s ms",
+                    ahead, maxAheadMillis, maxWaitMillis));
+        }
+        LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(ahead - maxAheadMillis + 1));
+    }
+
+    /**
+     * @return epoch millis encoded in the id
+     */
+    public long timestampOf(long id) {
+        return (id >>> timestampShift) + epoch;
+    }
+
+    public long datacenterIdOf(long id) {
+        return (id >>> (sequenceBits + workerBits)) & ((1L << datacenterBits) - 1);
+    }
+
+    public long workerIdOf(long id) {
+        return (id >>> sequenceBits) & ((1L << workerBits) - 1);
+    }
+
+    public long sequenceOf(long id) {
+        return id & sequenceMask;
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public long getDatacenterId() {
+        return datacenterId;
+    }
+
+    public long getWorkerId() {
+        return workerId;
+    }
+
+    public static class Builder {
+
+        private long epoch = DEFAULT_EPOCH;
+
+        private int datacenterBits = DEFAULT_DATACENTER_BITS;
+
+        private int workerBits = DEFAULT_WORKER_BITS;
+
+        private int sequenceBits = DEFAULT_SEQUENCE_BITS;
+
+        private long datacenterId;
+
+        private long workerId;
+
+        private long maxAheadMillis = DEFAULT_MAX_AHEAD_MILLIS;
+
+        private long maxWaitMillis = DEFAULT_MAX_WAIT_MILLIS;
+
+        private LongSupplier clock = System::currentTimeMillis;
+
+        private Builder() {
+        }
+
+        /**
+         * @param epoch custom epoch in millis, must not be in the future
+         */
+        public Builder epoch(long epoch) {
+            this.epoch = epoch;
+            return this;
+        }
+
+        public Builder datacenterBits(int datacenterBits) {
+            this.datacenterBits = datacenterBits;
+            return this;
+        }
+
+        public Builder workerBits(int workerBits) {
+            this.workerBits = workerBits;
+            return this;
+        }
+
+        public Builder sequenceBits(int sequenceBits) {
+            this.sequenceBits = sequenceBits;
+            return this;
+        }
+
+        public Builder datacenterId(long datacenterId) {
+            this.datacenterId = datacenterId;
+            return this;
+        }
+
+        public Builder workerId(long workerId) {
+            this.workerId = workerId;
+            return this;
+        }
+
+        /**
+         * @param maxAheadMillis how far the generator may borrow future milliseconds before callers are parked
+         */
+        public Builder maxAheadMillis(long maxAheadMillis) {
+            this.maxAheadMillis = maxAheadMillis;
+            return this;
+        }
+
+        /**
+         * @param maxWaitMillis how long a caller may be parked waiting for the clock after a rollback
+         */
+        public Builder maxWaitMillis(long maxWaitMillis) {
+            this.maxWaitMillis = maxWaitMillis;
+            return this;
+        }
+
+        /**
+         * @param clock millisecond clock, {@code System::currentTimeMillis} by default
+         */
+        public Builder clock(LongSupplier clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public SnowflakeIdGenerator build() {
+            if (datacenterBits < 0 || workerBits < 0 || sequenceBits < 1) {
+                throw new IllegalArgumentException(String.format("Illegal bits: datacenter %s, worker %s, sequence %s",
+                        datacenterBits, workerBits, sequenceBits));
+            }
+            if (datacenterBits + workerBits + sequenceBits > 22) {
+                throw new IllegalArgumentException(String.format("Illegal bits: datacenter + worker + sequence = %s > 22, "
+                        + "less than 41 bits left for the timestamp", datacenterBits + workerBits + sequenceBits));
+            }
+            if (datacenterId < 0 || datacenterId >= (1L << datacenterBits)) {
+                throw new IllegalArgumentException(String.format("Illegal datacenterId: %s not in [0, %s)", datacenterId, 1L << datacenterBits));
+            }
+            if (workerId < 0 || workerId >= (1L << workerBits)) {
+                throw new IllegalArgumentException(String.format("Illegal workerId: %s not in [0, %s)", workerId, 1L << workerBits));
+            }
+            if (maxAheadMillis < 1 || maxWaitMillis < 0) {
+                throw new IllegalArgumentException(String.format("Illegal maxAheadMillis: %s, maxWaitMillis: %s", maxAheadMillis, maxWaitMillis));
+            }
+            if (clock == null) {
+                throw new IllegalArgumentException("Illegal clock: null");
+            }
+            if (epoch > clock.getAsLong()) {
+                throw new IllegalArgumentException(String.format("Illegal epoch: %s is in the future", epoch));
+            }
+            return new SnowflakeIdGenerator(this);
+        }
+    }
+}
@@ -14,4 +14,15 @@ public class MathUtil {
     public static int mid(int l, int r){
         return l + ((r - l)>>1);
     }
+
+    /**
+     * Find the mid-value between the l and r boundaries,
+     * safe for the whole long domain (r - l may overflow, this never does)
+     * @param l left
+     * @param r right
+     * @return mid-value, rounded towards negative infinity
+     */
+    public static long mid(long l, long r){
+        return (l & r) + ((l ^ r) >> 1);
+    }
 }
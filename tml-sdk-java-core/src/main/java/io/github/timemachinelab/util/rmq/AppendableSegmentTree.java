@@ -0,0 +1,290 @@
+package io.github.timemachinelab.util.rmq;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * appendable segment tree
+ * A bottom-up max/min segment tree for append-mostly series (metrics, time series).
+ * {@link #append(long)} is amortized o(logN): the leaf is written and its ancestors are
+ * refreshed, when the capacity is exhausted it doubles and rebuilds once in o(N).
+ * <p>
+ * In ring mode ({@link #ring(int)}) the capacity is a fixed retention, once full every append
+ * overwrites the oldest entry. Indexes are always logical: 0 is the oldest retained value,
+ * {@code size() - 1} the latest, and {@link #firstSequence()} maps them back to the append sequence.
+ * <p>
+ * Unused leaves hold the identities ({@link Long#MIN_VALUE} for max, {@link Long#MAX_VALUE} for min).
+ * Not thread safe.
+ */
+public class AppendableSegmentTree implements RMQ<Long> {
+
+    private final static int DEFAULT_CAPACITY = 16;
+
+    private final boolean ring;
+
+    private final int retention;
+
+    // leaf count of the tree, always a power of two
+    private int cap;
+
+    private long[] max;
+
+    private long[] min;
+
+    private int size;
+
+    // physical slot of the oldest value, only moves in ring mode
+    private int head;
+
+    private long appended;
+
+    public AppendableSegmentTree() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public AppendableSegmentTree(int initialCapacity) {
+        this(initialCapacity, false);
+    }
+
+    private AppendableSegmentTree(int capacity, boolean ring) {
+        if(capacity <= 0){
+            throw new IllegalArgumentException(String.format("Illegal capacity: %s <= 0", capacity));
+        }
+        if(capacity > (1 << 30)){
+            throw new IllegalArgumentException(String.format("Illegal capacity: %s > 2^30", capacity));
+        }
+        this.ring = ring;
+        this.retention = ring ? capacity : Integer.MAX_VALUE;
+        this.cap = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.max = new long[cap << 1];
+        this.min = new long[cap << 1];
+        Arrays.fill(max, Long.MIN_VALUE);
+        Arrays.fill(min, Long.MAX_VALUE);
+    }
+
+    private AppendableSegmentTree(boolean ring, int retention, int size, int head, long appended, long[] max, long[] min) {
+        this.ring = ring;
+        this.retention = retention;
+        this.cap = max.length >> 1;
+        this.size = size;
+        this.head = head;
+        this.appended = appended;
+        this.max = max;
+        this.min = min;
+    }
+
+    /**
+     * a ring tree retaining the latest {@code retention} values
+     */
+    public static AppendableSegmentTree ring(int retention){
+        return new AppendableSegmentTree(retention, true);
+    }
+
+    public void append(long value){
+        int slot;
+        if(size < retention){
+            if(size == cap){
+                grow();
+            }
+            slot = size++;
+        }else{
+            slot = head;
+            head = head + 1 == retention ? 0 : head + 1;
+        }
+        appended++;
+        set(slot, value);
+    }
+
+    /**
+     * overwrite the value at a logical index
+     */
+    public boolean update(int index, long value){
+        if(index < 0 || index >= size){
+            return false;
+        }
+        set(physical(index), value);
+        return true;
+    }
+
+    public long get(int index){
+        if(index < 0 || index >= size){
+            throw new IndexOutOfBoundsException(String.format("Illegal index: %s, size: %s", index, size));
+        }
+        return max[cap + physical(index)];
+    }
+
+    /**
+     * @return max of the logical range [l, r], {@link Long#MIN_VALUE} if the range is invalid
+     */
+    public long maxOf(int l, int r){
+        if(l > r || l < 0 || r >= size){
+            return Long.MIN_VALUE;
+        }
+        int pl = physical(l), pr = physical(r);
+        if(pl <= pr){
+            return queryMax(pl, pr);
+        }
+        return Math.max(queryMax(pl, retention - 1), queryMax(0, pr));
+    }
+
+    /**
+     * @return min of the logical range [l, r], {@link Long#MAX_VALUE} if the range is invalid
+     */
+    public long minOf(int l, int r){
+        if(l > r || l < 0 || r >= size){
+            return Long.MAX_VALUE;
+        }
+        int pl = physical(l), pr = physical(r);
+        if(pl <= pr){
+            return queryMin(pl, pr);
+        }
+        return Math.min(queryMin(pl, retention - 1), queryMin(0, pr));
+    }
+
+    @Override
+    public Long max(int l, int r) {
+        if(l > r || l < 0 || r >= size){
+            return null;
+        }
+        return maxOf(l, r);
+    }
+
+    @Override
+    public Long min(int l, int r) {
+        if(l > r || l < 0 || r >= size){
+            return null;
+        }
+        return minOf(l, r);
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public int capacity(){
+        return ring ? retention : cap;
+    }
+
+    public boolean isRing(){
+        return ring;
+    }
+
+    /**
+     * @return append sequence (0-based) of the value at logical index 0
+     */
+    public long firstSequence(){
+        return appended - size;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        writeTo(Channels.newChannel(out));
+    }
+
+    /**
+     * write a binary snapshot, see {@link RmqSnapshot}
+     * @param ch target channel, e.g. a {@link java.nio.channels.FileChannel}, it is not closed
+     */
+    public void writeTo(WritableByteChannel ch) throws IOException {
+        new RmqSnapshot.Writer(ch, RmqSnapshot.APPENDABLE_SEGMENT_TREE)
+                .writeInt(ring ? 1 : 0)
+                .writeInt(retention)
+                .writeInt(size)
+                .writeInt(head)
+                .writeLong(appended)
+                .writeLongs(max, cap << 1)
+                .writeLongs(min, cap << 1)
+                .finish();
+    }
+
+    public static AppendableSegmentTree readFrom(InputStream in) throws IOException {
+        return readFrom(Channels.newChannel(in));
+    }
+
+    /**
+     * restore a tree written by {@link #writeTo(WritableByteChannel)}
+     * @throws IOException if the snapshot is truncated, corrupted or of another structure
+     */
+    public static AppendableSegmentTree readFrom(ReadableByteChannel ch) throws IOException {
+        RmqSnapshot.Reader reader = new RmqSnapshot.Reader(ch, RmqSnapshot.APPENDABLE_SEGMENT_TREE);
+        boolean ring = reader.readInt() == 1;
+        int retention = reader.readInt();
+        int size = reader.readInt();
+        int head = reader.readInt();
+        long appended = reader.readLong();
+        long[] max = reader.readLongs();
+        long[] min = reader.readLongs(max.length);
+        reader.finish();
+        int cap = max.length >> 1;
+        if(cap == 0 || Integer.bitCount(cap) != 1 || max.length != cap << 1 || min.length != max.length
+                || size < 0 || size > cap || size > retention || head < 0 || (head > 0 && head >= size)
+                || appended < size){
+            throw new IOException("Illegal rmq snapshot: inconsistent appendable segment tree");
+        }
+        return new AppendableSegmentTree(ring, retention, size, head, appended, max, min);
+    }
+
+    private int physical(int index){
+        int p = head + index;
+        return p >= retention ? p - retention : p;
+    }
+
+    private void set(int slot, long value){
+        int idx = cap + slot;
+        max[idx] = min[idx] = value;
+        for (idx >>= 1; idx > 0; idx >>= 1) {
+            max[idx] = Math.max(max[idx << 1], max[idx << 1 | 1]);
+            min[idx] = Math.min(min[idx << 1], min[idx << 1 | 1]);
+        }
+    }
+
+    private long queryMax(int l, int r){
+        long res = Long.MIN_VALUE;
+        for (l += cap, r += cap + 1; l < r; l >>= 1, r >>= 1) {
+            if((l & 1) == 1){
+                res = Math.max(res, max[l++]);
+            }
+            if((r & 1) == 1){
+                res = Math.max(res, max[--r]);
+            }
+        }
+        return res;
+    }
+
+    private long queryMin(int l, int r){
+        long res = Long.MAX_VALUE;
+        for (l += cap, r += cap + 1; l < r; l >>= 1, r >>= 1) {
+            if((l & 1) == 1){
+                res = Math.min(res, min[l++]);
+            }
+            if((r & 1) == 1){
+                res = Math.min(res, min[--r]);
+            }
+        }
+        return res;
+    }
+
+    private void grow(){
+        if(cap == (1 << 30)){
+            throw new IllegalStateException("AppendableSegmentTree capacity overflow");
+        }
+        int newCap = cap << 1;
+        long[] newMax = new long[newCap << 1];
+        long[] newMin = new long[newCap << 1];
+        Arrays.fill(newMax, Long.MIN_VALUE);
+        Arrays.fill(newMin, Long.MAX_VALUE);
+        System.arraycopy(max, cap, newMax, newCap, size);
+        System.arraycopy(min, cap, newMin, newCap, size);
+        for (int idx = newCap - 1; idx > 0; idx--) {
+            newMax[idx] = Math.max(newMax[idx << 1], newMax[idx << 1 | 1]);
+            newMin[idx] = Math.min(newMin[idx << 1], newMin[idx << 1 | 1]);
+        }
+        cap = newCap;
+        max = newMax;
+        min = newMin;
+    }
+}
@@ -0,0 +1,165 @@
+package io.github.timemachinelab.util.rmq;
+
+/**
+ * block-decomposition RMQ
+ * A read-only max/min structure for large long arrays with near-linear memory and constant-time queries.
+ * The array is cut into blocks of {@code blockSize} values, a sparse table is built over the per-block
+ * max and min, so a query is at most two partial-block scans plus two sparse table lookups.
+ * <p>
+ * Memory: the values themselves plus {@code 2 * (N / blockSize) * log(N / blockSize)} longs,
+ * e.g. about 0.66N extra longs for N = 100M with the default block size 64, against O(NlogN) for
+ * a plain sparse table. Query cost: at most {@code 2 * blockSize} sequential reads, written as
+ * plain counted loops over a primitive array so the JIT can unroll and vectorize them.
+ * <p>
+ * The values array is not copied, it must not be modified after construction.
+ * Queries are thread safe.
+ */
+public class BlockRMQ implements RMQ<Long> {
+
+    private final static int DEFAULT_BLOCK_SIZE = 64;
+
+    private final long[] values;
+
+    private final int shift;
+
+    private final int blockSize;
+
+    // table[k][i]: max (min) of the blocks [i, i + 2^k)
+    private final long[][] maxTable;
+
+    private final long[][] minTable;
+
+    public BlockRMQ(long[] values) {
+        this(values, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * @param blockSize a power of two, larger blocks trade query scans for a smaller sparse table
+     */
+    public BlockRMQ(long[] values, int blockSize) {
+        if(values == null || values.length == 0){
+            throw new IllegalArgumentException("values is empty");
+        }
+        if(blockSize < 2 || Integer.bitCount(blockSize) != 1){
+            throw new IllegalArgumentException(String.format("Illegal blockSize: %s is not a power of two >= 2", blockSize));
+        }
+        this.values = values;
+        this.blockSize = blockSize;
+        this.shift = Integer.numberOfTrailingZeros(blockSize);
+
+        int blocks = ((values.length - 1) >> shift) + 1;
+        int levels = log2(blocks) + 1;
+        this.maxTable = new long[levels][];
+        this.minTable = new long[levels][];
+        long[] blockMax = new long[blocks];
+        long[] blockMin = new long[blocks];
+        for (int b = 0; b < blocks; b++) {
+            int from = b << shift;
+            int to = Math.min(values.length, from + blockSize) - 1;
+            blockMax[b] = scanMax(from, to);
+            blockMin[b] = scanMin(from, to);
+        }
+        maxTable[0] = blockMax;
+        minTable[0] = blockMin;
+        for (int k = 1; k < levels; k++) {
+            int half = 1 << (k - 1);
+            int len = blocks - (1 << k) + 1;
+            long[] prevMax = maxTable[k - 1], prevMin = minTable[k - 1];
+            long[] curMax = new long[len], curMin = new long[len];
+            for (int i = 0; i < len; i++) {
+                curMax[i] = Math.max(prevMax[i], prevMax[i + half]);
+                curMin[i] = Math.min(prevMin[i], prevMin[i + half]);
+            }
+            maxTable[k] = curMax;
+            minTable[k] = curMin;
+        }
+    }
+
+    /**
+     * @return max of [l, r], {@link Long#MIN_VALUE} if the range is invalid
+     */
+    public long maxOf(int l, int r){
+        if(l > r || l < 0 || r >= values.length){
+            return Long.MIN_VALUE;
+        }
+        int bl = l >> shift, br = r >> shift;
+        if(bl == br){
+            return scanMax(l, r);
+        }
+        long res = Math.max(scanMax(l, ((bl + 1) << shift) - 1), scanMax(br << shift, r));
+        if(br - bl > 1){
+            int from = bl + 1, to = br - 1;
+            int k = log2(to - from + 1);
+            long[] row = maxTable[k];
+            res = Math.max(res, Math.max(row[from], row[to - (1 << k) + 1]));
+        }
+        return res;
+    }
+
+    /**
+     * @return min of [l, r], {@link Long#MAX_VALUE} if the range is invalid
+     */
+    public long minOf(int l, int r){
+        if(l > r || l < 0 || r >= values.length){
+            return Long.MAX_VALUE;
+        }
+        int bl = l >> shift, br = r >> shift;
+        if(bl == br){
+            return scanMin(l, r);
+        }
+        long res = Math.min(scanMin(l, ((bl + 1) << shift) - 1), scanMin(br << shift, r));
+        if(br - bl > 1){
+            int from = bl + 1, to = br - 1;
+            int k = log2(to - from + 1);
+            long[] row = minTable[k];
+            res = Math.min(res, Math.min(row[from], row[to - (1 << k) + 1]));
+        }
+        return res;
+    }
+
+    @Override
+    public Long max(int l, int r) {
+        if(l > r || l < 0 || r >= values.length){
+            return null;
+        }
+        return maxOf(l, r);
+    }
+
+    @Override
+    public Long min(int l, int r) {
+        if(l > r || l < 0 || r >= values.length){
+            return null;
+        }
+        return minOf(l, r);
+    }
+
+    public int size(){
+        return values.length;
+    }
+
+    public int blockSize(){
+        return blockSize;
+    }
+
+    private long scanMax(int from, int to){
+        final long[] a = values;
+        long res = Long.MIN_VALUE;
+        for (int i = from; i <= to; i++) {
+            res = Math.max(res, a[i]);
+        }
+        return res;
+    }
+
+    private long scanMin(int from, int to){
+        final long[] a = values;
+        long res = Long.MAX_VALUE;
+        for (int i = from; i <= to; i++) {
+            res = Math.min(res, a[i]);
+        }
+        return res;
+    }
+
+    private static int log2(int x){
+        return 31 - Integer.numberOfLeadingZeros(x);
+    }
+}
@@ -0,0 +1,334 @@
+package io.github.timemachinelab.util.rmq;
+
+import io.github.timemachinelab.util.math.MathUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * dynamic segment tree
+ * A segment tree over a huge, sparse long coordinate domain (epoch millis, 64-bit ids...),
+ * nodes are created on first touch, so memory scales with the populated keys (O(K·logU))
+ * instead of the domain size. Supports point assign/add and range sum, max and min with o(logU).
+ * <p>
+ * All nodes live in pooled primitive arrays that grow by doubling; {@link #clear()} keeps the pool.
+ * Node 0 is a sentinel holding the identity of every aggregation (sum 0, max {@link Long#MIN_VALUE},
+ * min {@link Long#MAX_VALUE}), so a range without any populated key yields these identities.
+ * <p>
+ * Snapshots ({@link #writeTo(WritableByteChannel)} / {@link #readFrom(ReadableByteChannel)}) dump the used part of the pool as is.
+ * Not thread safe.
+ */
+public class DynamicSegmentTree implements RMQ<Long> {
+
+    private final static int NIL = 0;
+
+    private final static int DEFAULT_CAPACITY = 1 << 10;
+
+    private final long lower;
+
+    private final long upper;
+
+    private int root = NIL;
+
+    private int size;
+
+    private int[] lc;
+
+    private int[] rc;
+
+    private long[] sum;
+
+    private long[] max;
+
+    private long[] min;
+
+    public DynamicSegmentTree(long lower, long upper) {
+        this(lower, upper, DEFAULT_CAPACITY);
+    }
+
+    public DynamicSegmentTree(long lower, long upper, int initialCapacity) {
+        if(lower > upper){
+            throw new IllegalArgumentException(String.format("Illegal domain: [%s, %s]", lower, upper));
+        }
+        if(initialCapacity <= 0){
+            throw new IllegalArgumentException(String.format("Illegal initialCapacity: %s <= 0", initialCapacity));
+        }
+        this.lower = lower;
+        this.upper = upper;
+        allocate(initialCapacity + 1);
+        clear();
+    }
+
+    private DynamicSegmentTree(long lower, long upper, int root, int[] lc, int[] rc, long[] sum, long[] max, long[] min) {
+        this.lower = lower;
+        this.upper = upper;
+        this.root = root;
+        this.size = lc.length;
+        this.lc = lc;
+        this.rc = rc;
+        this.sum = sum;
+        this.max = max;
+        this.min = min;
+    }
+
+    /**
+     * domain [Long.MIN_VALUE, Long.MAX_VALUE]
+     */
+    public static DynamicSegmentTree forLong(){
+        return new DynamicSegmentTree(Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * domain [0, Long.MAX_VALUE], e.g. epoch millis or positive ids
+     */
+    public static DynamicSegmentTree forNonNegative(){
+        return new DynamicSegmentTree(0, Long.MAX_VALUE);
+    }
+
+    public boolean set(long key, long value){
+        if(key < lower || key > upper){
+            return false;
+        }
+        root = update(root, lower, upper, key, value, false);
+        return true;
+    }
+
+    public boolean add(long key, long delta){
+        if(key < lower || key > upper){
+            return false;
+        }
+        root = update(root, lower, upper, key, delta, true);
+        return true;
+    }
+
+    public long sum(long l, long r){
+        if(l > r || l > upper || r < lower){
+            return 0L;
+        }
+        return querySum(root, lower, upper, l, r);
+    }
+
+    /**
+     * @return range max, {@link Long#MIN_VALUE} when no key in [l, r] is populated
+     */
+    public long max(long l, long r){
+        if(l > r || l > upper || r < lower){
+            return Long.MIN_VALUE;
+        }
+        return queryMax(root, lower, upper, l, r);
+    }
+
+    /**
+     * @return range min, {@link Long#MAX_VALUE} when no key in [l, r] is populated
+     */
+    public long min(long l, long r){
+        if(l > r || l > upper || r < lower){
+            return Long.MAX_VALUE;
+        }
+        return queryMin(root, lower, upper, l, r);
+    }
+
+    @Override
+    public Long max(int l, int r) {
+        if(l > r || l < lower || r > upper){
+            return null;
+        }
+        return max((long) l, (long) r);
+    }
+
+    @Override
+    public Long min(int l, int r) {
+        if(l > r || l < lower || r > upper){
+            return null;
+        }
+        return min((long) l, (long) r);
+    }
+
+    /**
+     * number of allocated nodes, excluding the sentinel
+     */
+    public int nodeCount(){
+        return size - 1;
+    }
+
+    /**
+     * drop all keys, the node pool is kept for reuse
+     */
+    public void clear(){
+        root = NIL;
+        size = 1;
+        lc[NIL] = rc[NIL] = NIL;
+        sum[NIL] = 0L;
+        max[NIL] = Long.MIN_VALUE;
+        min[NIL] = Long.MAX_VALUE;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        writeTo(Channels.newChannel(out));
+    }
+
+    /**
+     * write a binary snapshot, see {@link RmqSnapshot}
+     * @param ch target channel, e.g. a {@link java.nio.channels.FileChannel}, it is not closed
+     */
+    public void writeTo(WritableByteChannel ch) throws IOException {
+        new RmqSnapshot.Writer(ch, RmqSnapshot.DYNAMIC_SEGMENT_TREE)
+                .writeLong(lower)
+                .writeLong(upper)
+                .writeInt(root)
+                .writeInts(lc, size)
+                .writeInts(rc, size)
+                .writeLongs(sum, size)
+                .writeLongs(max, size)
+                .writeLongs(min, size)
+                .finish();
+    }
+
+    public static DynamicSegmentTree readFrom(InputStream in) throws IOException {
+        return readFrom(Channels.newChannel(in));
+    }
+
+    /**
+     * restore a tree written by {@link #writeTo(WritableByteChannel)}
+     * @throws IOException if the snapshot is truncated, corrupted or of another structure
+     */
+    public static DynamicSegmentTree readFrom(ReadableByteChannel ch) throws IOException {
+        RmqSnapshot.Reader reader = new RmqSnapshot.Reader(ch, RmqSnapshot.DYNAMIC_SEGMENT_TREE);
+        long lower = reader.readLong();
+        long upper = reader.readLong();
+        int root = reader.readInt();
+        int[] lc = reader.readInts();
+        int[] rc = reader.readInts(lc.length);
+        long[] sum = reader.readLongs(lc.length);
+        long[] max = reader.readLongs(lc.length);
+        long[] min = reader.readLongs(lc.length);
+        reader.finish();
+        int size = lc.length;
+        if(lower > upper || size == 0 || rc.length != size || sum.length != size
+                || max.length != size || min.length != size || root < 0 || root >= size){
+            throw new IOException("Illegal rmq snapshot: inconsistent dynamic segment tree");
+        }
+        return new DynamicSegmentTree(lower, upper, root, lc, rc, sum, max, min);
+    }
+
+    private int update(int idx, long l, long r, long key, long value, boolean accumulate){
+        if(idx == NIL){
+            idx = newNode();
+        }
+        if(l == r){
+            long v = accumulate ? sum[idx] + value : value;
+            sum[idx] = max[idx] = min[idx] = v;
+            return idx;
+        }
+        long mid = MathUtil.mid(l, r);
+        // the pool may be reallocated by the recursive call, so never write through a stale array reference
+        int child;
+        if(key <= mid){
+            child = update(lc[idx], l, mid, key, value, accumulate);
+            lc[idx] = child;
+        }else{
+            child = update(rc[idx], mid+1, r, key, value, accumulate);
+            rc[idx] = child;
+        }
+        upperNode(idx);
+        return idx;
+    }
+
+    private void upperNode(int idx){
+        int left = lc[idx];
+        int right = rc[idx];
+        sum[idx] = sum[left] + sum[right];
+        max[idx] = Math.max(max[left], max[right]);
+        min[idx] = Math.min(min[left], min[right]);
+    }
+
+    private long querySum(int idx, long x, long y, long l, long r){
+        if(idx == NIL){
+            return 0L;
+        }
+        if(x >= l && r >= y){
+            return sum[idx];
+        }
+        long mid = MathUtil.mid(x, y);
+        long res = 0L;
+        if(mid >= l){
+            res += querySum(lc[idx], x, mid, l, r);
+        }
+        if(r > mid){
+            res += querySum(rc[idx], mid+1, y, l, r);
+        }
+        return res;
+    }
+
+    private long queryMax(int idx, long x, long y, long l, long r){
+        if(idx == NIL){
+            return Long.MIN_VALUE;
+        }
+        if(x >= l && r >= y){
+            return max[idx];
+        }
+        long mid = MathUtil.mid(x, y);
+        long res = Long.MIN_VALUE;
+        if(mid >= l){
+            res = queryMax(lc[idx], x, mid, l, r);
+        }
+        if(r > mid){
+            res = Math.max(res, queryMax(rc[idx], mid+1, y, l, r));
+        }
+        return res;
+    }
+
+    private long queryMin(int idx, long x, long y, long l, long r){
+        if(idx == NIL){
+            return Long.MAX_VALUE;
+        }
+        if(x >= l && r >= y){
+            return min[idx];
+        }
+        long mid = MathUtil.mid(x, y);
+        long res = Long.MAX_VALUE;
+        if(mid >= l){
+            res = queryMin(lc[idx], x, mid, l, r);
+        }
+        if(r > mid){
+            res = Math.min(res, queryMin(rc[idx], mid+1, y, l, r));
+        }
+        return res;
+    }
+
+    private int newNode(){
+        if(size == lc.length){
+            allocate(lc.length << 1);
+        }
+        int idx = size++;
+        lc[idx] = rc[idx] = NIL;
+        sum[idx] = 0L;
+        max[idx] = Long.MIN_VALUE;
+        min[idx] = Long.MAX_VALUE;
+        return idx;
+    }
+
+    private void allocate(int capacity){
+        if(capacity < 0){
+            throw new IllegalStateException("DynamicSegmentTree node pool overflow");
+        }
+        if(lc == null){
+            lc = new int[capacity];
+            rc = new int[capacity];
+            sum = new long[capacity];
+            max = new long[capacity];
+            min = new long[capacity];
+            return;
+        }
+        lc = Arrays.copyOf(lc, capacity);
+        rc = Arrays.copyOf(rc, capacity);
+        sum = Arrays.copyOf(sum, capacity);
+        max = Arrays.copyOf(max, capacity);
+        min = Arrays.copyOf(min, capacity);
+    }
+}
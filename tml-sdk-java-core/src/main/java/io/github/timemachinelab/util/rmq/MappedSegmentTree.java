@@ -0,0 +1,390 @@
+package io.github.timemachinelab.util.rmq;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+
+/**
+ * memory-mapped segment tree
+ * A read-only, file-backed RMQ for long series larger than the heap. The file is a bottom-up
+ * segment tree with a configurable fanout: level 0 holds the raw values, level k holds the
+ * max and min of every {@code fanout} nodes of level k-1, up to a single root node.
+ * A query scans at most {@code 2 * (fanout - 1)} consecutive slots per level, so it stays
+ * within one or two pages per level and needs o(log_fanout N) page touches.
+ * <p>
+ * File layout (little endian):
+ * <pre>
+ * page 0    header: magic, format version, count, fanout, levels, {maxOffset, minOffset, size} per level
+ * page 1..  level 0 values, then for each level k &gt;= 1 a max section and a min section,
+ *           every section starts on a page boundary
+ * </pre>
+ * The tree is queryable right after {@link #open(Path)} maps the file, there is no deserialization.
+ * Queries only use absolute reads and are thread safe.
+ * Files are written by {@link Builder} sequentially from an iterator, the count need not be known up front.
+ */
+public class MappedSegmentTree implements RMQ<Long>, Closeable {
+
+    private final static int MAGIC = 0x544D5354;
+
+    private final static int FORMAT_VERSION = 1;
+
+    private final static int PAGE_SIZE = 4096;
+
+    private final static int MAX_LEVELS = 64;
+
+    private final static int LEVEL_TABLE_OFFSET = 32;
+
+    private final static int CHUNK_SHIFT = 30;
+
+    private final static long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+
+    private final static int DEFAULT_FANOUT = 16;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer[] chunks;
+
+    private final long count;
+
+    private final int fanout;
+
+    private final int levels;
+
+    private final long[] maxOffsets;
+
+    private final long[] minOffsets;
+
+    private MappedSegmentTree(FileChannel channel) throws IOException {
+        this.channel = channel;
+        long fileSize = channel.size();
+        if(fileSize < PAGE_SIZE){
+            throw new IOException("Illegal rmq file: missing header");
+        }
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, PAGE_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        if(header.getInt(0) != MAGIC){
+            throw new IOException("Illegal rmq file: bad magic");
+        }
+        if(header.getInt(4) != FORMAT_VERSION){
+            throw new IOException(String.format("Unsupported rmq file version: %s", header.getInt(4)));
+        }
+        this.count = header.getLong(8);
+        this.fanout = header.getInt(16);
+        this.levels = header.getInt(20);
+        if(count <= 0 || fanout < 2 || levels <= 0 || levels > MAX_LEVELS){
+            throw new IOException("Illegal rmq file: corrupted header");
+        }
+        this.maxOffsets = new long[levels];
+        this.minOffsets = new long[levels];
+        // validate the level table against count/fanout and the file size up front, so a truncated or
+        // corrupted file fails here instead of with an out-of-bounds chunk access at query time
+        long expectedSize = count;
+        for (int k = 0; k < levels; k++) {
+            int pos = LEVEL_TABLE_OFFSET + k * 24;
+            maxOffsets[k] = header.getLong(pos);
+            minOffsets[k] = header.getLong(pos + 8);
+            long size = header.getLong(pos + 16);
+            if(size != expectedSize){
+                throw new IOException(String.format("Illegal rmq file: level %s size %s, expected %s", k, size, expectedSize));
+            }
+            checkSection(maxOffsets[k], size, fileSize, k);
+            checkSection(minOffsets[k], size, fileSize, k);
+            expectedSize = (expectedSize + fanout - 1) / fanout;
+        }
+        if(header.getLong(LEVEL_TABLE_OFFSET + (levels - 1) * 24 + 16) != 1){
+            throw new IOException(String.format("Illegal rmq file: %s levels do not reach a single root", levels));
+        }
+        // 1GB chunks keep every 8-byte aligned slot inside a single buffer
+        int chunkNum = (int) ((fileSize + CHUNK_MASK) >>> CHUNK_SHIFT);
+        this.chunks = new MappedByteBuffer[chunkNum];
+        for (int i = 0; i < chunkNum; i++) {
+            long start = (long) i << CHUNK_SHIFT;
+            long len = Math.min(1L << CHUNK_SHIFT, fileSize - start);
+            chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, len);
+            chunks[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    private static void checkSection(long offset, long size, long fileSize, int level) throws IOException {
+        if(offset < PAGE_SIZE || offset > fileSize || size > (fileSize - offset) >>> 3){
+            throw new IOException(String.format("Illegal rmq file: level %s section [%s, +%s slots) exceeds file size %s",
+                    level, offset, size, fileSize));
+        }
+    }
+
+    public static MappedSegmentTree open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new MappedSegmentTree(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public static Builder builder(Path path){
+        return new Builder(path);
+    }
+
+    public long size(){
+        return count;
+    }
+
+    public int fanout(){
+        return fanout;
+    }
+
+    public long get(long index){
+        if(index < 0 || index >= count){
+            throw new IndexOutOfBoundsException(String.format("Illegal index: %s, size: %s", index, count));
+        }
+        return read(maxOffsets[0] + (index << 3));
+    }
+
+    /**
+     * @return max of [l, r], {@link Long#MIN_VALUE} if the range is invalid
+     */
+    public long max(long l, long r){
+        if(l > r || l < 0 || r >= count){
+            return Long.MIN_VALUE;
+        }
+        return query(maxOffsets, l, r, true);
+    }
+
+    /**
+     * @return min of [l, r], {@link Long#MAX_VALUE} if the range is invalid
+     */
+    public long min(long l, long r){
+        if(l > r || l < 0 || r >= count){
+            return Long.MAX_VALUE;
+        }
+        return query(minOffsets, l, r, false);
+    }
+
+    @Override
+    public Long max(int l, int r) {
+        if(l > r || l < 0 || r >= count){
+            return null;
+        }
+        return query(maxOffsets, l, r, true);
+    }
+
+    @Override
+    public Long min(int l, int r) {
+        if(l > r || l < 0 || r >= count){
+            return null;
+        }
+        return query(minOffsets, l, r, false);
+    }
+
+    private long query(long[] offsets, long l, long r, boolean isMax){
+        long res = isMax ? Long.MIN_VALUE : Long.MAX_VALUE;
+        int level = 0;
+        while (l <= r) {
+            long base = offsets[level];
+            // consume the partial blocks on both edges, then climb with the aligned middle part
+            while (l <= r && l % fanout != 0) {
+                long v = read(base + (l++ << 3));
+                res = isMax ? Math.max(res, v) : Math.min(res, v);
+            }
+            while (l <= r && (r + 1) % fanout != 0) {
+                long v = read(base + (r-- << 3));
+                res = isMax ? Math.max(res, v) : Math.min(res, v);
+            }
+            if(l > r){
+                break;
+            }
+            l /= fanout;
+            r = (r + 1) / fanout - 1;
+            level++;
+        }
+        return res;
+    }
+
+    private long read(long offset){
+        return chunks[(int) (offset >>> CHUNK_SHIFT)].getLong((int) (offset & CHUNK_MASK));
+    }
+
+    /**
+     * release the file channel, mapped pages are unmapped once the tree becomes unreachable
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static long alignPage(long offset){
+        return (offset + PAGE_SIZE - 1) & -PAGE_SIZE;
+    }
+
+    /**
+     * writes a mapped segment tree file sequentially from a value iterator
+     */
+    public static class Builder {
+
+        private final Path path;
+
+        private int fanout = DEFAULT_FANOUT;
+
+        private int bufferSize = 1 << 16;
+
+        private Builder(Path path) {
+            if(path == null){
+                throw new IllegalArgumentException("path is null");
+            }
+            this.path = path;
+        }
+
+        public Builder fanout(int fanout) {
+            if(fanout < 2){
+                throw new IllegalArgumentException(String.format("Illegal fanout: %s < 2", fanout));
+            }
+            this.fanout = fanout;
+            return this;
+        }
+
+        public Builder bufferSize(int bufferSize) {
+            if(bufferSize < 8){
+                throw new IllegalArgumentException(String.format("Illegal bufferSize: %s < 8", bufferSize));
+            }
+            this.bufferSize = bufferSize & -8;
+            return this;
+        }
+
+        public MappedSegmentTree build(Iterator<Long> values) throws IOException {
+            if(values == null){
+                throw new IllegalArgumentException("values is null");
+            }
+            if(values instanceof PrimitiveIterator.OfLong){
+                return build((PrimitiveIterator.OfLong) values);
+            }
+            return build(new PrimitiveIterator.OfLong() {
+                @Override
+                public long nextLong() {
+                    return values.next();
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return values.hasNext();
+                }
+            });
+        }
+
+        public MappedSegmentTree build(PrimitiveIterator.OfLong values) throws IOException {
+            if(values == null){
+                throw new IllegalArgumentException("values is null");
+            }
+            write(values);
+            return open(path);
+        }
+
+        private void write(PrimitiveIterator.OfLong values) throws IOException {
+            try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer in = ByteBuffer.allocateDirect(bufferSize).order(ByteOrder.LITTLE_ENDIAN);
+                ByteBuffer out = ByteBuffer.allocateDirect(bufferSize).order(ByteOrder.LITTLE_ENDIAN);
+                long[] maxOffsets = new long[MAX_LEVELS];
+                long[] minOffsets = new long[MAX_LEVELS];
+                long[] sizes = new long[MAX_LEVELS];
+
+                long pos = PAGE_SIZE;
+                long n = 0;
+                while (values.hasNext()) {
+                    if(!out.hasRemaining()){
+                        pos = flush(ch, out, pos);
+                    }
+                    out.putLong(values.nextLong());
+                    n++;
+                }
+                if(n == 0){
+                    throw new IllegalArgumentException("values is empty");
+                }
+                flush(ch, out, pos);
+                maxOffsets[0] = minOffsets[0] = PAGE_SIZE;
+                sizes[0] = n;
+                pos = alignPage(PAGE_SIZE + (n << 3));
+
+                int levels = 1;
+                while (sizes[levels - 1] > 1) {
+                    long size = (sizes[levels - 1] + fanout - 1) / fanout;
+                    maxOffsets[levels] = pos;
+                    pos = alignPage(reduce(ch, in, out, maxOffsets[levels - 1], sizes[levels - 1], pos, true));
+                    minOffsets[levels] = pos;
+                    pos = alignPage(reduce(ch, in, out, minOffsets[levels - 1], sizes[levels - 1], pos, false));
+                    sizes[levels++] = size;
+                }
+
+                ByteBuffer header = ByteBuffer.allocate(PAGE_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(0, MAGIC).putInt(4, FORMAT_VERSION).putLong(8, n).putInt(16, fanout).putInt(20, levels);
+                for (int k = 0; k < levels; k++) {
+                    int at = LEVEL_TABLE_OFFSET + k * 24;
+                    header.putLong(at, maxOffsets[k]).putLong(at + 8, minOffsets[k]).putLong(at + 16, sizes[k]);
+                }
+                while (header.hasRemaining()) {
+                    ch.write(header, header.position());
+                }
+                if(ch.size() < pos){
+                    // pad the last section so every mapped page is backed by the file
+                    ch.write(ByteBuffer.allocate(1), pos - 1);
+                }
+                ch.force(true);
+            }
+        }
+
+        /**
+         * stream the source section once and append its per-block max (or min) section
+         * @return end offset of the written section
+         */
+        private long reduce(FileChannel ch, ByteBuffer in, ByteBuffer out,
+                            long src, long srcSize, long dst, boolean isMax) throws IOException {
+            in.clear().flip();
+            out.clear();
+            long readPos = src;
+            long remaining = srcSize;
+            long acc = isMax ? Long.MIN_VALUE : Long.MAX_VALUE;
+            int inBlock = 0;
+            while (remaining > 0) {
+                if(!in.hasRemaining()){
+                    in.clear();
+                    in.limit((int) Math.min(in.capacity(), remaining << 3));
+                    while (in.hasRemaining()) {
+                        int read = ch.read(in, readPos + in.position());
+                        if(read < 0){
+                            throw new IOException("Unexpected end of rmq file");
+                        }
+                    }
+                    readPos += in.limit();
+                    in.flip();
+                }
+                long v = in.getLong();
+                remaining--;
+                acc = isMax ? Math.max(acc, v) : Math.min(acc, v);
+                if(++inBlock == fanout || remaining == 0){
+                    if(!out.hasRemaining()){
+                        dst = flush(ch, out, dst);
+                    }
+                    out.putLong(acc);
+                    acc = isMax ? Long.MIN_VALUE : Long.MAX_VALUE;
+                    inBlock = 0;
+                }
+            }
+            return flush(ch, out, dst);
+        }
+
+        private long flush(FileChannel ch, ByteBuffer out, long pos) throws IOException {
+            out.flip();
+            while (out.hasRemaining()) {
+                pos += ch.write(out, pos);
+            }
+            out.clear();
+            return pos;
+        }
+    }
+}
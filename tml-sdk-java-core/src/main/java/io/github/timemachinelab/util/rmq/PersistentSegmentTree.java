@@ -0,0 +1,384 @@
+package io.github.timemachinelab.util.rmq;
+
+import io.github.timemachinelab.util.math.MathUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * persistent segment tree
+ * Every {@link #update(int, long)} creates a new version with o(logN) new nodes (path copying),
+ * all other nodes are shared with the previous version. Range max/min of any retained version
+ * is answered with o(logN), old versions can be dropped in bulk with {@link #dropVersionsBefore(int)}.
+ * <p>
+ * Nodes live in pooled primitive arrays. A node is always allocated after its children,
+ * so children indexes are strictly smaller than their parent's, which lets retention
+ * compact the pool in a single forward pass.
+ * <p>
+ * Version numbers are stable: the initial build is version 0 and each update returns the next one.
+ * Snapshots keep every retained version, drop the unwanted ones before {@link #writeTo(WritableByteChannel)}.
+ * Not thread safe.
+ */
+public class PersistentSegmentTree implements RMQ<Long> {
+
+    private final static int NIL = 0;
+
+    private final static int DEFAULT_VERSION_CAPACITY = 16;
+
+    private final int len;
+
+    private int size;
+
+    private int[] lc;
+
+    private int[] rc;
+
+    private long[] max;
+
+    private long[] min;
+
+    private int[] roots;
+
+    private int baseVersion;
+
+    private int versionCount;
+
+    public PersistentSegmentTree(long[] values) {
+        if(values == null || values.length == 0){
+            throw new IllegalArgumentException("values is empty");
+        }
+        this.len = values.length;
+        // a full build needs 2N-1 nodes, plus the sentinel
+        allocate(len << 1);
+        this.size = 1;
+        this.roots = new int[DEFAULT_VERSION_CAPACITY];
+        this.roots[0] = buildTree(values, 0, len - 1);
+        this.versionCount = 1;
+    }
+
+    private PersistentSegmentTree(int len, int baseVersion, int[] roots, int[] lc, int[] rc, long[] max, long[] min) {
+        this.len = len;
+        this.size = lc.length;
+        this.lc = lc;
+        this.rc = rc;
+        this.max = max;
+        this.min = min;
+        this.baseVersion = baseVersion;
+        this.versionCount = roots.length;
+        this.roots = Arrays.copyOf(roots, Math.max(DEFAULT_VERSION_CAPACITY, roots.length));
+    }
+
+    public static PersistentSegmentTree forLong(List<Long> list){
+        if(list == null || list.isEmpty()){
+            throw new IllegalArgumentException("list is empty");
+        }
+        long[] values = new long[list.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = list.get(i);
+        }
+        return new PersistentSegmentTree(values);
+    }
+
+    private int buildTree(long[] values, int l, int r){
+        if(l >= r){
+            return newNode(NIL, NIL, values[l], values[l]);
+        }
+        int mid = MathUtil.mid(l, r);
+        int left = buildTree(values, l, mid);
+        int right = buildTree(values, mid+1, r);
+        return upperNode(left, right);
+    }
+
+    /**
+     * set value at index based on the latest version
+     * @return the new version, -1 if index is out of range
+     */
+    public int update(int index, long value){
+        return update(latestVersion(), index, value);
+    }
+
+    /**
+     * set value at index based on the given version, the result is always appended as the latest version
+     * @return the new version, -1 if index is out of range
+     */
+    public int update(int version, int index, long value){
+        int root = root(version);
+        if(index < 0 || index >= len){
+            return -1;
+        }
+        int newRoot = update(root, 0, len - 1, index, value);
+        if(versionCount == roots.length){
+            roots = Arrays.copyOf(roots, roots.length << 1);
+        }
+        roots[versionCount++] = newRoot;
+        return latestVersion();
+    }
+
+    private int update(int idx, int l, int r, int index, long value){
+        if(l == r){
+            return newNode(NIL, NIL, value, value);
+        }
+        int mid = MathUtil.mid(l, r);
+        if(index <= mid){
+            int left = update(lc[idx], l, mid, index, value);
+            return upperNode(left, rc[idx]);
+        }
+        int right = update(rc[idx], mid+1, r, index, value);
+        return upperNode(lc[idx], right);
+    }
+
+    /**
+     * @return max of [l, r] as of the given version, {@link Long#MIN_VALUE} if the range is invalid
+     */
+    public long max(int version, int l, int r){
+        int root = root(version);
+        if(l > r || l < 0 || r >= len){
+            return Long.MIN_VALUE;
+        }
+        return queryMax(root, 0, len - 1, l, r);
+    }
+
+    /**
+     * @return min of [l, r] as of the given version, {@link Long#MAX_VALUE} if the range is invalid
+     */
+    public long min(int version, int l, int r){
+        int root = root(version);
+        if(l > r || l < 0 || r >= len){
+            return Long.MAX_VALUE;
+        }
+        return queryMin(root, 0, len - 1, l, r);
+    }
+
+    public long get(int version, int index){
+        return max(version, index, index);
+    }
+
+    @Override
+    public Long max(int l, int r) {
+        if(l > r || l < 0 || r >= len){
+            return null;
+        }
+        return queryMax(root(latestVersion()), 0, len - 1, l, r);
+    }
+
+    @Override
+    public Long min(int l, int r) {
+        if(l > r || l < 0 || r >= len){
+            return null;
+        }
+        return queryMin(root(latestVersion()), 0, len - 1, l, r);
+    }
+
+    private long queryMax(int idx, int x, int y, int l, int r){
+        if(x >= l && r >= y){
+            return max[idx];
+        }
+        int mid = MathUtil.mid(x, y);
+        long res = Long.MIN_VALUE;
+        if(mid >= l){
+            res = queryMax(lc[idx], x, mid, l, r);
+        }
+        if(r > mid){
+            res = Math.max(res, queryMax(rc[idx], mid+1, y, l, r));
+        }
+        return res;
+    }
+
+    private long queryMin(int idx, int x, int y, int l, int r){
+        if(x >= l && r >= y){
+            return min[idx];
+        }
+        int mid = MathUtil.mid(x, y);
+        long res = Long.MAX_VALUE;
+        if(mid >= l){
+            res = queryMin(lc[idx], x, mid, l, r);
+        }
+        if(r > mid){
+            res = Math.min(res, queryMin(rc[idx], mid+1, y, l, r));
+        }
+        return res;
+    }
+
+    /**
+     * drop every version older than the given one and release the nodes only they referenced
+     * @param version the oldest version to retain
+     */
+    public void dropVersionsBefore(int version){
+        if(version <= baseVersion){
+            return;
+        }
+        if(version > latestVersion()){
+            throw new IllegalArgumentException(String.format("Illegal version: %s > latest %s", version, latestVersion()));
+        }
+        int dropped = version - baseVersion;
+        versionCount -= dropped;
+        System.arraycopy(roots, dropped, roots, 0, versionCount);
+        baseVersion = version;
+        compact();
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        writeTo(Channels.newChannel(out));
+    }
+
+    /**
+     * write a binary snapshot of all retained versions, see {@link RmqSnapshot}
+     * @param ch target channel, e.g. a {@link java.nio.channels.FileChannel}, it is not closed
+     */
+    public void writeTo(WritableByteChannel ch) throws IOException {
+        new RmqSnapshot.Writer(ch, RmqSnapshot.PERSISTENT_SEGMENT_TREE)
+                .writeInt(len)
+                .writeInt(baseVersion)
+                .writeInts(roots, versionCount)
+                .writeInts(lc, size)
+                .writeInts(rc, size)
+                .writeLongs(max, size)
+                .writeLongs(min, size)
+                .finish();
+    }
+
+    public static PersistentSegmentTree readFrom(InputStream in) throws IOException {
+        return readFrom(Channels.newChannel(in));
+    }
+
+    /**
+     * restore a tree written by {@link #writeTo(WritableByteChannel)}, version numbers are preserved
+     * @throws IOException if the snapshot is truncated, corrupted or of another structure
+     */
+    public static PersistentSegmentTree readFrom(ReadableByteChannel ch) throws IOException {
+        RmqSnapshot.Reader reader = new RmqSnapshot.Reader(ch, RmqSnapshot.PERSISTENT_SEGMENT_TREE);
+        int len = reader.readInt();
+        int baseVersion = reader.readInt();
+        int[] roots = reader.readInts();
+        int[] lc = reader.readInts();
+        int[] rc = reader.readInts(lc.length);
+        long[] max = reader.readLongs(lc.length);
+        long[] min = reader.readLongs(lc.length);
+        reader.finish();
+        int size = lc.length;
+        if(len <= 0 || baseVersion < 0 || roots.length == 0 || size < 2 || rc.length != size
+                || max.length != size || min.length != size){
+            throw new IOException("Illegal rmq snapshot: inconsistent persistent segment tree");
+        }
+        for (int root : roots) {
+            if(root <= NIL || root >= size){
+                throw new IOException("Illegal rmq snapshot: inconsistent persistent segment tree");
+            }
+        }
+        return new PersistentSegmentTree(len, baseVersion, roots, lc, rc, max, min);
+    }
+
+    public int latestVersion(){
+        return baseVersion + versionCount - 1;
+    }
+
+    public int oldestVersion(){
+        return baseVersion;
+    }
+
+    public int size(){
+        return len;
+    }
+
+    /**
+     * number of allocated nodes, excluding the sentinel
+     */
+    public int nodeCount(){
+        return size - 1;
+    }
+
+    private int root(int version){
+        if(version < baseVersion || version > latestVersion()){
+            throw new IllegalArgumentException(String.format("Illegal version: %s not in [%s, %s]",
+                    version, baseVersion, latestVersion()));
+        }
+        return roots[version - baseVersion];
+    }
+
+    private void compact(){
+        // mark nodes reachable from retained roots, remap[idx] != NIL means reachable
+        int[] remap = new int[size];
+        int[] stack = new int[64];
+        int top = 0;
+        for (int v = 0; v < versionCount; v++) {
+            if(remap[roots[v]] != NIL){
+                continue;
+            }
+            remap[roots[v]] = 1;
+            stack[top++] = roots[v];
+            while (top > 0){
+                int idx = stack[--top];
+                if(lc[idx] == NIL){
+                    continue;
+                }
+                if(top + 2 > stack.length){
+                    stack = Arrays.copyOf(stack, stack.length << 1);
+                }
+                if(remap[lc[idx]] == NIL){
+                    remap[lc[idx]] = 1;
+                    stack[top++] = lc[idx];
+                }
+                if(remap[rc[idx]] == NIL){
+                    remap[rc[idx]] = 1;
+                    stack[top++] = rc[idx];
+                }
+            }
+        }
+        // children always precede their parent, so they are remapped before being referenced
+        int next = 1;
+        for (int idx = 1; idx < size; idx++) {
+            if(remap[idx] == NIL){
+                continue;
+            }
+            remap[idx] = next;
+            lc[next] = remap[lc[idx]];
+            rc[next] = remap[rc[idx]];
+            max[next] = max[idx];
+            min[next] = min[idx];
+            next++;
+        }
+        for (int v = 0; v < versionCount; v++) {
+            roots[v] = remap[roots[v]];
+        }
+        size = next;
+    }
+
+    private int upperNode(int left, int right){
+        return newNode(left, right, Math.max(max[left], max[right]), Math.min(min[left], min[right]));
+    }
+
+    private int newNode(int left, int right, long maxValue, long minValue){
+        if(size == lc.length){
+            allocate(lc.length << 1);
+        }
+        int idx = size++;
+        lc[idx] = left;
+        rc[idx] = right;
+        max[idx] = maxValue;
+        min[idx] = minValue;
+        return idx;
+    }
+
+    private void allocate(int capacity){
+        if(capacity < 0){
+            throw new IllegalStateException("PersistentSegmentTree node pool overflow");
+        }
+        if(lc == null){
+            lc = new int[capacity];
+            rc = new int[capacity];
+            max = new long[capacity];
+            min = new long[capacity];
+            return;
+        }
+        lc = Arrays.copyOf(lc, capacity);
+        rc = Arrays.copyOf(rc, capacity);
+        max = Arrays.copyOf(max, capacity);
+        min = Arrays.copyOf(min, capacity);
+    }
+}
@@ -0,0 +1,249 @@
+package io.github.timemachinelab.util.rmq;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * binary snapshot format shared by the primitive-array RMQ structures
+ * <pre>
+ * int magic | int format version | int structure type | structure fields and arrays... | long crc32c
+ * </pre>
+ * Little endian. Arrays are written as {@code int length} followed by the raw elements, so restoring
+ * is a bulk copy into the target array, no rebuild and no comparison. The checksum covers every byte
+ * before it. The reader never consumes bytes past the trailer, so several snapshots can share one stream.
+ */
+final class RmqSnapshot {
+
+    final static int DYNAMIC_SEGMENT_TREE = 1;
+
+    final static int PERSISTENT_SEGMENT_TREE = 2;
+
+    final static int APPENDABLE_SEGMENT_TREE = 3;
+
+    private final static int MAGIC = 0x544D5253;
+
+    private final static int FORMAT_VERSION = 1;
+
+    private final static int BUFFER_SIZE = 1 << 16;
+
+    private RmqSnapshot() {
+    }
+
+    final static class Writer {
+
+        private final WritableByteChannel ch;
+
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        private final CRC32C crc = new CRC32C();
+
+        Writer(WritableByteChannel ch, int type) {
+            this.ch = ch;
+            buf.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(type);
+        }
+
+        Writer writeInt(int v) throws IOException {
+            ensure(Integer.BYTES);
+            buf.putInt(v);
+            return this;
+        }
+
+        Writer writeLong(long v) throws IOException {
+            ensure(Long.BYTES);
+            buf.putLong(v);
+            return this;
+        }
+
+        Writer writeInts(int[] a, int len) throws IOException {
+            writeInt(len);
+            for (int off = 0; off < len; ) {
+                ensure(Integer.BYTES);
+                int n = Math.min(len - off, buf.remaining() / Integer.BYTES);
+                buf.asIntBuffer().put(a, off, n);
+                buf.position(buf.position() + n * Integer.BYTES);
+                off += n;
+            }
+            return this;
+        }
+
+        Writer writeLongs(long[] a, int len) throws IOException {
+            writeInt(len);
+            for (int off = 0; off < len; ) {
+                ensure(Long.BYTES);
+                int n = Math.min(len - off, buf.remaining() / Long.BYTES);
+                buf.asLongBuffer().put(a, off, n);
+                buf.position(buf.position() + n * Long.BYTES);
+                off += n;
+            }
+            return this;
+        }
+
+        void finish() throws IOException {
+            flush();
+            buf.putLong(crc.getValue());
+            buf.flip();
+            while (buf.hasRemaining()) {
+                ch.write(buf);
+            }
+            buf.clear();
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if(buf.remaining() < bytes){
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buf.flip();
+            crc.update(buf.duplicate());
+            while (buf.hasRemaining()) {
+                ch.write(buf);
+            }
+            buf.clear();
+        }
+    }
+
+    final static class Reader {
+
+        private final ReadableByteChannel ch;
+
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        private final CRC32C crc = new CRC32C();
+
+        Reader(ReadableByteChannel ch, int expectedType) throws IOException {
+            this.ch = ch;
+            if(readInt() != MAGIC){
+                throw new IOException("Illegal rmq snapshot: bad magic");
+            }
+            int version = readInt();
+            if(version != FORMAT_VERSION){
+                throw new IOException(String.format("Unsupported rmq snapshot version: %s", version));
+            }
+            int type = readInt();
+            if(type != expectedType){
+                throw new IOException(String.format("Illegal rmq snapshot type: %s, expected: %s", type, expectedType));
+            }
+        }
+
+        int readInt() throws IOException {
+            return fill(Integer.BYTES).getInt();
+        }
+
+        long readLong() throws IOException {
+            return fill(Long.BYTES).getLong();
+        }
+
+        int[] readInts() throws IOException {
+            return readInts(-1);
+        }
+
+        /**
+         * @param expectedLen required length, e.g. the node count taken from an earlier array, -1 if unknown
+         */
+        int[] readInts(int expectedLen) throws IOException {
+            int len = readLength(Integer.BYTES, expectedLen);
+            int[] a = new int[initialCapacity(len, Integer.BYTES, expectedLen)];
+            for (int off = 0; off < len; ) {
+                if(off == a.length){
+                    a = Arrays.copyOf(a, (int) Math.min(len, (long) a.length << 1));
+                }
+                int n = Math.min(a.length - off, BUFFER_SIZE / Integer.BYTES);
+                fill(n * Integer.BYTES).asIntBuffer().get(a, off, n);
+                off += n;
+            }
+            return a;
+        }
+
+        long[] readLongs() throws IOException {
+            return readLongs(-1);
+        }
+
+        /**
+         * @param expectedLen required length, e.g. the node count taken from an earlier array, -1 if unknown
+         */
+        long[] readLongs(int expectedLen) throws IOException {
+            int len = readLength(Long.BYTES, expectedLen);
+            long[] a = new long[initialCapacity(len, Long.BYTES, expectedLen)];
+            for (int off = 0; off < len; ) {
+                if(off == a.length){
+                    a = Arrays.copyOf(a, (int) Math.min(len, (long) a.length << 1));
+                }
+                int n = Math.min(a.length - off, BUFFER_SIZE / Long.BYTES);
+                fill(n * Long.BYTES).asLongBuffer().get(a, off, n);
+                off += n;
+            }
+            return a;
+        }
+
+        void finish() throws IOException {
+            long expected = crc.getValue();
+            buf.clear().limit(Long.BYTES);
+            readFully();
+            if(buf.getLong(0) != expected){
+                throw new IOException("Illegal rmq snapshot: checksum mismatch");
+            }
+        }
+
+        /**
+         * A corrupted length word must surface as IOException, not as a multi-gigabyte allocation before
+         * the checksum is reached: the length is checked against the expected node count when known,
+         * and against the bytes left in the channel when it is seekable.
+         */
+        private int readLength(int elementBytes, int expectedLen) throws IOException {
+            int len = readInt();
+            if(len < 0){
+                throw new IOException(String.format("Illegal rmq snapshot: array length %s", len));
+            }
+            if(expectedLen >= 0 && len != expectedLen){
+                throw new IOException(String.format("Illegal rmq snapshot: array length %s, expected: %s", len, expectedLen));
+            }
+            if(ch instanceof SeekableByteChannel){
+                SeekableByteChannel seekable = (SeekableByteChannel) ch;
+                long remaining = seekable.size() - seekable.position();
+                if((long) len * elementBytes + Long.BYTES > remaining){
+                    throw new IOException(String.format("Illegal rmq snapshot: array length %s exceeds the %s remaining bytes",
+                            len, remaining));
+                }
+            }
+            return len;
+        }
+
+        /**
+         * without a verified length the array grows as data actually arrives, so a bogus length on a
+         * non-seekable stream fails at end of stream after allocating at most twice the bytes read
+         */
+        private int initialCapacity(int len, int elementBytes, int expectedLen) {
+            if(expectedLen >= 0 || ch instanceof SeekableByteChannel){
+                return len;
+            }
+            return Math.min(len, BUFFER_SIZE / elementBytes);
+        }
+
+        /**
+         * read exactly the requested bytes, never ahead of them
+         */
+        private ByteBuffer fill(int bytes) throws IOException {
+            buf.clear().limit(bytes);
+            readFully();
+            buf.flip();
+            crc.update(buf.duplicate());
+            return buf;
+        }
+
+        private void readFully() throws IOException {
+            while (buf.hasRemaining()) {
+                if(ch.read(buf) < 0){
+                    throw new IOException("Illegal rmq snapshot: unexpected end of stream");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package io.github.timemachinelab.util.time;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 缓存粗粒度时钟
+ * 由一个守护线程按固定分辨率刷新volatile字段，读取方只做一次volatile读，
+ * 适用于日志、Result时间戳、缓存TTL判断、限流等毫秒（甚至10毫秒）精度即可的场景
+ *
+ * 全局实例需显式开启（{@link #startGlobal(long)}），未开启时{@link TimeUtil#coarseMillis()}退化为直接读系统时钟
+ *
+ * @author TimeMachineLab
+ * @version 1.0
+ */
+public final class CachedClock implements AutoCloseable {
+
+    private static final Object GLOBAL_LOCK = new Object();
+
+    private static volatile CachedClock global;
+
+    /** 前后填充，避免被频繁读取的now与其他对象的写热点共享缓存行 */
+    @SuppressWarnings("unused")
+    private long p1, p2, p3, p4, p5, p6, p7;
+
+    private volatile long now;
+
+    @SuppressWarnings("unused")
+    private long q1, q2, q3, q4, q5, q6, q7;
+
+    private final long resolutionMillis;
+
+    private final Thread ticker;
+
+    private volatile boolean running = true;
+
+    private CachedClock(long resolutionMillis) {
+        if (resolutionMillis <= 0) {
+            throw new IllegalArgumentException(String.format("Illegal resolutionMillis: %s <= 0", resolutionMillis));
+        }
+        this.resolutionMillis = resolutionMillis;
+        this.now = System.currentTimeMillis();
+        final long parkNanos = TimeUnit.MILLISECONDS.toNanos(resolutionMillis);
+        this.ticker = new Thread(() -> {
+            while (running) {
+                now = System.currentTimeMillis();
+                LockSupport.parkNanos(this, parkNanos);
+            }
+        }, "tml-cached-clock-" + resolutionMillis + "ms");
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    /**
+     * 启动一个独立的缓存时钟
+     *
+     * @param resolutionMillis 刷新分辨率（毫秒）
+     * @return 缓存时钟，不再使用时需调用{@link #close()}
+     */
+    public static CachedClock start(long resolutionMillis) {
+        return new CachedClock(resolutionMillis);
+    }
+
+    /**
+     * 启动全局缓存时钟，分辨率不同时替换已有实例
+     *
+     * @param resolutionMillis 刷新分辨率（毫秒）
+     * @return 全局缓存时钟
+     */
+    public static CachedClock startGlobal(long resolutionMillis) {
+        synchronized (GLOBAL_LOCK) {
+            CachedClock current = global;
+            if (current != null && current.resolutionMillis == resolutionMillis) {
+                return current;
+            }
+            global = new CachedClock(resolutionMillis);
+            if (current != null) {
+                current.close();
+            }
+            return global;
+        }
+    }
+
+    /**
+     * 停止全局缓存时钟
+     */
+    public static void stopGlobal() {
+        synchronized (GLOBAL_LOCK) {
+            CachedClock current = global;
+            global = null;
+            if (current != null) {
+                current.close();
+            }
+        }
+    }
+
+    /**
+     * 获取全局缓存时钟
+     *
+     * @return 全局缓存时钟，未开启时为null
+     */
+    public static CachedClock global() {
+        return global;
+    }
+
+    /**
+     * 获取缓存的毫秒级时间戳，误差不超过一个分辨率周期
+     *
+     * @return 毫秒级时间戳
+     */
+    public long currentTimeMillis() {
+        return now;
+    }
+
+    /**
+     * 获取缓存的秒级时间戳
+     *
+     * @return 秒级时间戳
+     */
+    public long currentTimeSeconds() {
+        return now / 1000L;
+    }
+
+    public long getResolutionMillis() {
+        return resolutionMillis;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(ticker);
+    }
+}
@@ -0,0 +1,133 @@
+package io.github.timemachinelab.util.time;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 混合逻辑时钟（Hybrid Logical Clock）
+ * 时间戳打包为一个long：高48位为物理毫秒，低16位为逻辑计数，数值大小即因果顺序，
+ * 物理部分始终贴近墙上时间，可直接当作毫秒时间戳阅读（{@link #physicalMillis(long)}）
+ * <ul>
+ *     <li>{@link #now()}：本地事件/发送消息，物理时钟前进则取物理时钟，否则逻辑计数+1</li>
+ *     <li>{@link #update(long)}：接收消息，结果大于本地与远端时间戳</li>
+ * </ul>
+ * 逻辑计数溢出时自然进位到物理毫秒，状态为单个AtomicLong，无锁CAS更新
+ *
+ * @author TimeMachineLab
+ * @version 1.0
+ */
+public final class HybridLogicalClock {
+
+    /** 逻辑计数位数 */
+    public static final int LOGICAL_BITS = 16;
+
+    private static final long LOGICAL_MASK = (1L << LOGICAL_BITS) - 1;
+
+    private static final long DEFAULT_MAX_DRIFT_MILLIS = 60_000L;
+
+    private static final HybridLogicalClock GLOBAL = new HybridLogicalClock(System::currentTimeMillis, DEFAULT_MAX_DRIFT_MILLIS);
+
+    private final AtomicLong state = new AtomicLong();
+
+    private final LongSupplier physicalClock;
+
+    private final long maxDriftMillis;
+
+    /**
+     * @param physicalClock 物理时钟（毫秒），如 System::currentTimeMillis 或 TimeUtil::coarseMillis
+     * @param maxDriftMillis 允许远端时间戳领先本地物理时钟的最大毫秒数，超出时忽略远端时间戳，防止错误节点把时钟拖到未来
+     */
+    public HybridLogicalClock(LongSupplier physicalClock, long maxDriftMillis) {
+        if (physicalClock == null) {
+            throw new IllegalArgumentException("Illegal physicalClock: null");
+        }
+        if (maxDriftMillis < 0) {
+            throw new IllegalArgumentException(String.format("Illegal maxDriftMillis: %s < 0", maxDriftMillis));
+        }
+        this.physicalClock = physicalClock;
+        this.maxDriftMillis = maxDriftMillis;
+    }
+
+    /**
+     * 获取全局时钟（物理时钟为System.currentTimeMillis()，最大漂移60秒）
+     *
+     * @return 全局混合逻辑时钟
+     */
+    public static HybridLogicalClock global() {
+        return GLOBAL;
+    }
+
+    /**
+     * 生成本地事件时间戳
+     *
+     * @return 严格大于此前本时钟产生的所有时间戳
+     */
+    public long now() {
+        final long physical = pack(physicalClock.getAsLong(), 0);
+        for (;;) {
+            final long current = state.get();
+            final long next = physical > current ? physical : current + 1;
+            if (state.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * 合并远端时间戳并生成接收事件时间戳
+     *
+     * @param remote 远端时间戳
+     * @return 严格大于本地此前时间戳与远端时间戳；远端领先超过最大漂移时忽略远端，等同{@link #now()}
+     */
+    public long update(long remote) {
+        final long wall = physicalClock.getAsLong();
+        if (physicalMillis(remote) - wall > maxDriftMillis) {
+            return now();
+        }
+        final long physical = pack(wall, 0);
+        for (;;) {
+            final long current = state.get();
+            final long latest = Math.max(current, remote);
+            final long next = physical > latest ? physical : latest + 1;
+            if (state.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * 读取最近一次产生的时间戳，不推进时钟
+     *
+     * @return 最近的时间戳，尚未产生过时为0
+     */
+    public long last() {
+        return state.get();
+    }
+
+    /**
+     * 打包时间戳
+     *
+     * @param physicalMillis 物理毫秒
+     * @param logical 逻辑计数，取低16位
+     * @return 时间戳
+     */
+    public static long pack(long physicalMillis, long logical) {
+        return (physicalMillis << LOGICAL_BITS) | (logical & LOGICAL_MASK);
+    }
+
+    /**
+     * @param timestamp 时间戳
+     * @return 物理毫秒部分
+     */
+    public static long physicalMillis(long timestamp) {
+        return timestamp >>> LOGICAL_BITS;
+    }
+
+    /**
+     * @param timestamp 时间戳
+     * @return 逻辑计数部分
+     */
+    public static int logical(long timestamp) {
+        return (int) (timestamp & LOGICAL_MASK);
+    }
+}
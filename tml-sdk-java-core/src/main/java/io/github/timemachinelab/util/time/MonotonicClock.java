@@ -0,0 +1,191 @@
+package io.github.timemachinelab.util.time;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 单调高精度纪元时钟
+ * 以System.nanoTime()为时基、锚定到纪元时间，由守护线程周期性地与墙上时间比对校准：
+ * <ul>
+ *     <li>墙上时间偏慢或小幅偏快时，以不超过maxSlewPpm的速率渐进追平（slew），时钟不会回退</li>
+ *     <li>墙上时间大幅向前跳变（超过stepThresholdNanos）时直接向前跳到墙上时间</li>
+ * </ul>
+ * 时钟由若干首尾相接、斜率恒为正的线段组成，读取只有一次nanoTime和一次volatile读，不分配对象
+ *
+ * @author TimeMachineLab
+ * @version 1.0
+ */
+public final class MonotonicClock implements AutoCloseable {
+
+    private static final long DEFAULT_CALIBRATION_MILLIS = 1000L;
+
+    private static final long DEFAULT_MAX_SLEW_PPM = 500L;
+
+    private static final long DEFAULT_STEP_THRESHOLD_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /** 单次校准最多回收的偏差，保证slew计算不溢出，剩余偏差由后续校准继续回收 */
+    private static final long MAX_SLEW_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private static final long PPM = 1_000_000L;
+
+    private final long maxSlewPpm;
+
+    private final long stepThresholdNanos;
+
+    private final Thread calibrator;
+
+    private volatile Segment segment;
+
+    private volatile boolean running = true;
+
+    private MonotonicClock(long calibrationMillis, long maxSlewPpm, long stepThresholdNanos) {
+        if (calibrationMillis <= 0) {
+            throw new IllegalArgumentException(String.format("Illegal calibrationMillis: %s <= 0", calibrationMillis));
+        }
+        if (maxSlewPpm <= 0 || maxSlewPpm >= PPM) {
+            throw new IllegalArgumentException(String.format("Illegal maxSlewPpm: %s not in (0, %s)", maxSlewPpm, PPM));
+        }
+        if (stepThresholdNanos < 0) {
+            throw new IllegalArgumentException(String.format("Illegal stepThresholdNanos: %s < 0", stepThresholdNanos));
+        }
+        this.maxSlewPpm = maxSlewPpm;
+        this.stepThresholdNanos = stepThresholdNanos;
+        final long nanoTime = System.nanoTime();
+        this.segment = new Segment(nanoTime, wallNanos(), 0L, 0L);
+        final long parkNanos = TimeUnit.MILLISECONDS.toNanos(calibrationMillis);
+        this.calibrator = new Thread(() -> {
+            while (running) {
+                LockSupport.parkNanos(this, parkNanos);
+                if (running) {
+                    calibrate();
+                }
+            }
+        }, "tml-monotonic-clock");
+        this.calibrator.setDaemon(true);
+        this.calibrator.start();
+    }
+
+    /**
+     * 以默认参数启动（每秒校准，最大slew 500ppm，向前跳变阈值1秒）
+     *
+     * @return 单调时钟，不再使用时需调用{@link #close()}
+     */
+    public static MonotonicClock start() {
+        return new MonotonicClock(DEFAULT_CALIBRATION_MILLIS, DEFAULT_MAX_SLEW_PPM, DEFAULT_STEP_THRESHOLD_NANOS);
+    }
+
+    /**
+     * @param calibrationMillis 校准周期（毫秒）
+     * @param maxSlewPpm 最大slew速率（百万分之一），即每秒最多修正 maxSlewPpm 微秒
+     * @param stepThresholdNanos 墙上时间领先超过该值时直接向前跳变
+     * @return 单调时钟，不再使用时需调用{@link #close()}
+     */
+    public static MonotonicClock start(long calibrationMillis, long maxSlewPpm, long stepThresholdNanos) {
+        return new MonotonicClock(calibrationMillis, maxSlewPpm, stepThresholdNanos);
+    }
+
+    /**
+     * 获取全局单调时钟，首次调用时以默认参数启动
+     *
+     * @return 全局单调时钟
+     */
+    public static MonotonicClock global() {
+        return GlobalHolder.INSTANCE;
+    }
+
+    /**
+     * 获取纪元纳秒时间戳，单调不减
+     *
+     * @return 纳秒级时间戳
+     */
+    public long currentTimeNanos() {
+        // 先取nanoTime再读线段：能读到的新线段其起点不晚于该nanoTime之后的发布时刻
+        final long nanoTime = System.nanoTime();
+        return segment.valueAt(nanoTime);
+    }
+
+    /**
+     * 获取纪元毫秒时间戳，单调不减
+     *
+     * @return 毫秒级时间戳
+     */
+    public long currentTimeMillis() {
+        return currentTimeNanos() / 1_000_000L;
+    }
+
+    /**
+     * 当前时钟相对墙上时间的偏差（墙上时间 - 时钟），仅用于观测
+     *
+     * @return 偏差纳秒数
+     */
+    public long offsetNanos() {
+        return wallNanos() - currentTimeNanos();
+    }
+
+    /**
+     * 立即与墙上时间校准一次，通常由守护线程周期调用
+     */
+    public synchronized void calibrate() {
+        final long nanoTime = System.nanoTime();
+        final long current = segment.valueAt(nanoTime);
+        final long error = wallNanos() - current;
+        if (error > stepThresholdNanos) {
+            segment = new Segment(nanoTime, current + error, 0L, 0L);
+            return;
+        }
+        final long magnitude = Math.min(Math.abs(error), MAX_SLEW_NANOS);
+        final long slewDuration = magnitude * PPM / maxSlewPpm;
+        segment = new Segment(nanoTime, current, slewDuration, error >= 0 ? maxSlewPpm : -maxSlewPpm);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(calibrator);
+    }
+
+    private static long wallNanos() {
+        final Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+
+    /**
+     * 时钟线段：value(t) = baseValue + e + min(e, slewDuration) * ppm / 10^6，e = max(0, t - baseNanoTime)
+     * |ppm| &lt; 10^6，因此斜率恒为正
+     */
+    private static final class Segment {
+
+        private final long baseNanoTime;
+
+        private final long baseValue;
+
+        private final long slewDuration;
+
+        private final long ppm;
+
+        private Segment(long baseNanoTime, long baseValue, long slewDuration, long ppm) {
+            this.baseNanoTime = baseNanoTime;
+            this.baseValue = baseValue;
+            this.slewDuration = slewDuration;
+            this.ppm = ppm;
+        }
+
+        private long valueAt(long nanoTime) {
+            long elapsed = nanoTime - baseNanoTime;
+            if (elapsed <= 0) {
+                return baseValue;
+            }
+            final long slewed = elapsed < slewDuration ? elapsed : slewDuration;
+            return baseValue + elapsed + slewed * ppm / PPM;
+        }
+    }
+
+    private static final class GlobalHolder {
+        private static final MonotonicClock INSTANCE = start();
+    }
+}
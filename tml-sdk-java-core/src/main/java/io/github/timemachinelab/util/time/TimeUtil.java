@@ -1,7 +1,5 @@
 package io.github.timemachinelab.util.time;
 
-import java.time.Instant;
-
 /**
  * 高性能时间工具类
  * 提供多精度的时间戳获取功能
@@ -23,7 +21,6 @@ public final class TimeUtil {
         NANOSECONDS
     }
 
-    
     // 私有构造函数，防止实例化
     private TimeUtil() {
         throw new UnsupportedOperationException("Utility class cannot be instantiated");
@@ -31,30 +28,19 @@ public final class TimeUtil {
     
     /**
      * 获取当前时间戳
-     * 支持多精度配置
+     * 支持多精度配置，各精度均走无对象分配的专用路径
      * 
      * @param precision 时间精度，为null时默认使用毫秒精度
      * @return 指定精度的时间戳
      */
     public static long getCurrentTimestamp(TimePrecision precision) {
-        // 参数默认值处理
-        final TimePrecision targetPrecision = precision != null ? precision : TimePrecision.MILLISECONDS;
-        
-        // 获取当前时间
-        final Instant instant = Instant.now();
-        
-        // 根据精度返回相应的时间戳
-        switch (targetPrecision) {
-            case SECONDS:
-                return instant.getEpochSecond();
-            case MILLISECONDS:
-                return instant.toEpochMilli();
-            case NANOSECONDS:
-                // 纳秒 = 秒 * 10^9 + 纳秒部分
-                return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
-            default:
-                throw new IllegalArgumentException("Unsupported precision: " + targetPrecision);
+        if (precision == null || precision == TimePrecision.MILLISECONDS) {
+            return currentTimeMillis();
         }
+        if (precision == TimePrecision.SECONDS) {
+            return currentTimeSeconds();
+        }
+        return currentTimeNanos();
     }
     
     /**
@@ -63,6 +49,63 @@ public final class TimeUtil {
      * @return 毫秒级时间戳
      */
     public static long getCurrentTimestamp() {
-        return getCurrentTimestamp(null);
+        return currentTimeMillis();
+    }
+
+    /**
+     * 获取秒级时间戳
+     *
+     * @return 秒级时间戳
+     */
+    public static long currentTimeSeconds() {
+        return System.currentTimeMillis() / 1000L;
+    }
+
+    /**
+     * 获取毫秒级时间戳
+     *
+     * @return 毫秒级时间戳
+     */
+    public static long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * 获取纳秒级时间戳
+     * 由全局单调时钟（{@link MonotonicClock#global()}）提供：System.nanoTime() 锚定到纪元时间，
+     * 周期性地以有界速率向墙上时间校准，分辨率为纳秒、单调不减且不分配对象
+     *
+     * @return 纳秒级时间戳
+     */
+    public static long currentTimeNanos() {
+        return MonotonicClock.global().currentTimeNanos();
+    }
+
+    /**
+     * 获取粗粒度毫秒级时间戳
+     * 全局缓存时钟（{@link CachedClock#startGlobal(long)}）开启时只做一次volatile读，否则直接读系统时钟
+     *
+     * @return 毫秒级时间戳，误差不超过缓存时钟的分辨率
+     */
+    public static long coarseMillis() {
+        final CachedClock clock = CachedClock.global();
+        return clock != null ? clock.currentTimeMillis() : System.currentTimeMillis();
+    }
+
+    /**
+     * 获取粗粒度时间戳
+     * 秒、毫秒精度读取缓存时钟，纳秒精度无法由粗粒度时钟提供，仍走{@link #currentTimeNanos()}
+     *
+     * @param precision 时间精度，为null时默认使用毫秒精度
+     * @return 指定精度的时间戳
+     */
+    public static long getCoarseTimestamp(TimePrecision precision) {
+        if (precision == null || precision == TimePrecision.MILLISECONDS) {
+            return coarseMillis();
+        }
+        if (precision == TimePrecision.SECONDS) {
+            return coarseMillis() / 1000L;
+        }
+        return currentTimeNanos();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,483 @@
+package io.github.timemachinelab.util.time;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+/**
+ * 高速时间戳格式化/解析器
+ * 缓存当前秒的完整输出模板（日期、时分秒与时区偏移），同一秒内格式化只需拷贝模板并改写3位毫秒，
+ * 可写入调用方复用的StringBuilder或byte[]，不分配对象；跨秒时重新渲染一次模板
+ * <p>
+ * 解析按固定位置读取数字，固定偏移时区与缓存命中的时区偏移区间内不分配对象，
+ * 非法输入抛出IllegalArgumentException
+ * <p>
+ * 仅支持 0000 ~ 9999 年，实例线程安全
+ *
+ * @author TimeMachineLab
+ * @version 1.0
+ */
+public final class TimestampFormatter {
+
+    /**
+     * 支持的格式
+     */
+    public enum Pattern {
+        /** yyyy-MM-dd'T'HH:mm:ss.SSS'Z'，始终为UTC */
+        ISO_INSTANT(true, 'T', true, OffsetStyle.UTC),
+        /** yyyy-MM-dd'T'HH:mm:ss.SSSXXX，偏移为0时输出Z，偏移含秒（如LMT）时输出±HH:MM:SS */
+        ISO_OFFSET(true, 'T', true, OffsetStyle.OFFSET),
+        /** yyyy-MM-dd HH:mm:ss.SSS */
+        DATE_TIME(true, ' ', true, OffsetStyle.NONE),
+        /** yyyy-MM-dd HH:mm:ss */
+        DATE_TIME_SECONDS(true, ' ', false, OffsetStyle.NONE),
+        /** yyyyMMddHHmmssSSS */
+        COMPACT(false, (char) 0, true, OffsetStyle.NONE);
+
+        private final boolean separators;
+
+        private final char dateTimeSeparator;
+
+        private final boolean millis;
+
+        private final OffsetStyle offsetStyle;
+
+        Pattern(boolean separators, char dateTimeSeparator, boolean millis, OffsetStyle offsetStyle) {
+            this.separators = separators;
+            this.dateTimeSeparator = dateTimeSeparator;
+            this.millis = millis;
+            this.offsetStyle = offsetStyle;
+        }
+    }
+
+    private enum OffsetStyle {
+        NONE, UTC, OFFSET
+    }
+
+    /** UTC的ISO-8601格式，如 2024-01-02T03:04:05.678Z */
+    public static final TimestampFormatter ISO_INSTANT = new TimestampFormatter(Pattern.ISO_INSTANT, ZoneOffset.UTC);
+
+    private static final int MAX_LENGTH = 32;
+
+    /** format(long)的拼接缓冲区，结果立即拷贝进String，不会被外部持有 */
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[MAX_LENGTH]);
+
+    private final Pattern pattern;
+
+    private final ZoneId zone;
+
+    private final ZoneRules rules;
+
+    /** 固定偏移时区的偏移秒数，非固定偏移时为Integer.MIN_VALUE */
+    private final int fixedOffsetSeconds;
+
+    /** 毫秒数字在输出中的位置，无毫秒时为-1 */
+    private final int millisPos;
+
+    private volatile Template template;
+
+    private volatile OffsetRange offsetRange;
+
+    private TimestampFormatter(Pattern pattern, ZoneId zone) {
+        this.pattern = pattern;
+        this.zone = pattern.offsetStyle == OffsetStyle.UTC ? ZoneOffset.UTC : zone;
+        this.rules = this.zone.getRules();
+        this.fixedOffsetSeconds = rules.isFixedOffset()
+                ? rules.getOffset(Instant.EPOCH).getTotalSeconds() : Integer.MIN_VALUE;
+        this.millisPos = pattern.millis ? (pattern.separators ? 20 : 14) : -1;
+        this.template = render(0L);
+        this.offsetRange = new OffsetRange(0L, 0L, 0);
+    }
+
+    /**
+     * @param pattern 格式
+     * @param zone 时区，ISO_INSTANT格式忽略该参数
+     * @return 格式化器，建议作为常量复用以共享模板缓存
+     */
+    public static TimestampFormatter of(Pattern pattern, ZoneId zone) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Illegal pattern: null");
+        }
+        if (zone == null) {
+            throw new IllegalArgumentException("Illegal zone: null");
+        }
+        return new TimestampFormatter(pattern, zone);
+    }
+
+    /**
+     * 格式化为字符串，同一秒内仅分配结果字符串本身（拼接使用线程本地缓冲区），跨秒时另外渲染一次模板
+     *
+     * @param epochMillis 毫秒时间戳
+     * @return 格式化结果
+     */
+    public String format(long epochMillis) {
+        final byte[] buf = SCRATCH.get();
+        final int len = formatTo(epochMillis, buf, 0);
+        return new String(buf, 0, len, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * 格式化并追加到StringBuilder
+     *
+     * @param epochMillis 毫秒时间戳
+     * @param sb 目标，可复用
+     * @return sb
+     */
+    public StringBuilder formatTo(long epochMillis, StringBuilder sb) {
+        final Template t = templateOf(epochMillis);
+        if (millisPos < 0) {
+            return sb.append(t.chars, 0, t.length);
+        }
+        final int ms = (int) Math.floorMod(epochMillis, 1000L);
+        sb.append(t.chars, 0, millisPos)
+                .append((char) ('0' + ms / 100))
+                .append((char) ('0' + ms / 10 % 10))
+                .append((char) ('0' + ms % 10));
+        return sb.append(t.chars, millisPos + 3, t.length - millisPos - 3);
+    }
+
+    /**
+     * 格式化为ASCII字节写入dst
+     *
+     * @param epochMillis 毫秒时间戳
+     * @param dst 目标数组，剩余空间需不小于{@link #maxLength()}
+     * @param offset 写入位置
+     * @return 写入的字节数
+     */
+    public int formatTo(long epochMillis, byte[] dst, int offset) {
+        final Template t = templateOf(epochMillis);
+        System.arraycopy(t.bytes, 0, dst, offset, t.length);
+        if (millisPos >= 0) {
+            final int ms = (int) Math.floorMod(epochMillis, 1000L);
+            dst[offset + millisPos] = (byte) ('0' + ms / 100);
+            dst[offset + millisPos + 1] = (byte) ('0' + ms / 10 % 10);
+            dst[offset + millisPos + 2] = (byte) ('0' + ms % 10);
+        }
+        return t.length;
+    }
+
+    /**
+     * 解析为毫秒时间戳
+     *
+     * @param text 文本，需与格式完全匹配
+     * @return 毫秒时间戳
+     */
+    public long parse(CharSequence text) {
+        if (text == null) {
+            throw new IllegalArgumentException("Illegal text: null");
+        }
+        return parse(text, null, 0, text.length());
+    }
+
+    /**
+     * 解析ASCII字节为毫秒时间戳
+     *
+     * @param src 源数组
+     * @param offset 起始位置
+     * @param length 长度
+     * @return 毫秒时间戳
+     */
+    public long parse(byte[] src, int offset, int length) {
+        if (src == null || offset < 0 || length < 0 || offset + length > src.length) {
+            throw new IllegalArgumentException(String.format("Illegal range: offset %s, length %s", offset, length));
+        }
+        return parse(null, src, offset, length);
+    }
+
+    /**
+     * @return 单次格式化输出的最大长度
+     */
+    public int maxLength() {
+        return MAX_LENGTH;
+    }
+
+    public Pattern getPattern() {
+        return pattern;
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    private Template templateOf(long epochMillis) {
+        final long second = Math.floorDiv(epochMillis, 1000L);
+        Template t = template;
+        if (t.epochSecond != second) {
+            t = render(second);
+            template = t;
+        }
+        return t;
+    }
+
+    private Template render(long epochSecond) {
+        final int offsetSeconds = fixedOffsetSeconds != Integer.MIN_VALUE
+                ? fixedOffsetSeconds : rules.getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+        final LocalDateTime t = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.ofTotalSeconds(offsetSeconds));
+        if (t.getYear() < 0 || t.getYear() > 9999) {
+            throw new IllegalArgumentException(String.format("Illegal epochSecond: %s, year %s not in [0, 9999]", epochSecond, t.getYear()));
+        }
+        final byte[] buf = new byte[MAX_LENGTH];
+        final boolean sep = pattern.separators;
+        int p = putDigits(buf, 0, t.getYear(), 4);
+        if (sep) {
+            buf[p++] = '-';
+        }
+        p = putDigits(buf, p, t.getMonthValue(), 2);
+        if (sep) {
+            buf[p++] = '-';
+        }
+        p = putDigits(buf, p, t.getDayOfMonth(), 2);
+        if (pattern.dateTimeSeparator != 0) {
+            buf[p++] = (byte) pattern.dateTimeSeparator;
+        }
+        p = putDigits(buf, p, t.getHour(), 2);
+        if (sep) {
+            buf[p++] = ':';
+        }
+        p = putDigits(buf, p, t.getMinute(), 2);
+        if (sep) {
+            buf[p++] = ':';
+        }
+        p = putDigits(buf, p, t.getSecond(), 2);
+        if (pattern.millis) {
+            if (sep) {
+                buf[p++] = '.';
+            }
+            p = putDigits(buf, p, 0, 3);
+        }
+        if (pattern.offsetStyle == OffsetStyle.UTC || (pattern.offsetStyle == OffsetStyle.OFFSET && offsetSeconds == 0)) {
+            buf[p++] = 'Z';
+        } else if (pattern.offsetStyle == OffsetStyle.OFFSET) {
+            final int abs = Math.abs(offsetSeconds);
+            buf[p++] = (byte) (offsetSeconds < 0 ? '-' : '+');
+            p = putDigits(buf, p, abs / 3600, 2);
+            buf[p++] = ':';
+            p = putDigits(buf, p, abs / 60 % 60, 2);
+            if (abs % 60 != 0) {
+                buf[p++] = ':';
+                p = putDigits(buf, p, abs % 60, 2);
+            }
+        }
+        final char[] chars = new char[p];
+        for (int i = 0; i < p; i++) {
+            chars[i] = (char) buf[i];
+        }
+        return new Template(epochSecond, buf, chars, p);
+    }
+
+    private long parse(CharSequence cs, byte[] bytes, int off, int len) {
+        final boolean sep = pattern.separators;
+        final Cursor c = new Cursor();
+        // Cursor不逃逸出本方法，JIT编译后通常被标量替换，不产生堆分配
+        c.cs = cs;
+        c.bytes = bytes;
+        c.off = off;
+        c.len = len;
+        final int year = c.digits(4);
+        if (sep) {
+            c.expect('-');
+        }
+        final int month = c.digits(2);
+        if (sep) {
+            c.expect('-');
+        }
+        final int day = c.digits(2);
+        if (pattern.dateTimeSeparator != 0) {
+            c.expect(pattern.dateTimeSeparator);
+        }
+        final int hour = c.digits(2);
+        if (sep) {
+            c.expect(':');
+        }
+        final int minute = c.digits(2);
+        if (sep) {
+            c.expect(':');
+        }
+        final int second = c.digits(2);
+        int millis = 0;
+        if (pattern.millis) {
+            if (sep) {
+                c.expect('.');
+            }
+            millis = c.digits(3);
+        }
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour > 23 || minute > 59 || second > 59) {
+            throw c.illegal();
+        }
+        final long localSecond = daysFromCivil(year, month, day) * 86400L + hour * 3600L + minute * 60L + second;
+        final long epochSecond;
+        if (pattern.offsetStyle == OffsetStyle.NONE) {
+            epochSecond = toEpochSecond(localSecond);
+        } else {
+            epochSecond = localSecond - c.offset();
+        }
+        if (c.pos != len) {
+            throw c.illegal();
+        }
+        return epochSecond * 1000L + millis;
+    }
+
+    private long toEpochSecond(long localSecond) {
+        if (fixedOffsetSeconds != Integer.MIN_VALUE) {
+            return localSecond - fixedOffsetSeconds;
+        }
+        final OffsetRange range = offsetRange;
+        if (localSecond >= range.from && localSecond < range.to) {
+            return localSecond - range.offsetSeconds;
+        }
+        // 未命中时按java.time规则解析（间隙后移、重叠取较早偏移），并缓存偏移唯一的本地时间区间
+        final LocalDateTime local = LocalDateTime.ofEpochSecond(localSecond, 0, ZoneOffset.UTC);
+        final long epochSecond = ZonedDateTime.ofLocal(local, zone, null).toEpochSecond();
+        final Instant instant = Instant.ofEpochSecond(epochSecond);
+        final int offset = rules.getOffset(instant).getTotalSeconds();
+        final ZoneOffsetTransition prev = rules.previousTransition(instant.plusSeconds(1));
+        final ZoneOffsetTransition next = rules.nextTransition(instant);
+        offsetRange = new OffsetRange(
+                prev == null ? Long.MIN_VALUE : prev.toEpochSecond() + Math.max(offset, prev.getOffsetBefore().getTotalSeconds()),
+                next == null ? Long.MAX_VALUE : next.toEpochSecond() + Math.min(offset, next.getOffsetAfter().getTotalSeconds()),
+                offset);
+        return epochSecond;
+    }
+
+    private static int putDigits(byte[] buf, int p, int value, int width) {
+        for (int i = p + width - 1; i >= p; i--) {
+            buf[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return p + width;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        if (month == 2) {
+            return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+        }
+        return (month == 4 || month == 6 || month == 9 || month == 11) ? 30 : 31;
+    }
+
+    /**
+     * 公历日期转纪元日（1970-01-01为0）
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        final int y = month <= 2 ? year - 1 : year;
+        final int era = Math.floorDiv(y, 400);
+        final int yoe = y - era * 400;
+        final int doy = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        final int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097L + doe - 719468L;
+    }
+
+    /**
+     * 某一秒的完整输出模板，毫秒位为000
+     */
+    private static final class Template {
+
+        private final long epochSecond;
+
+        private final byte[] bytes;
+
+        private final char[] chars;
+
+        private final int length;
+
+        private Template(long epochSecond, byte[] bytes, char[] chars, int length) {
+            this.epochSecond = epochSecond;
+            this.bytes = bytes;
+            this.chars = chars;
+            this.length = length;
+        }
+    }
+
+    /**
+     * 本地时间（按UTC折算的秒数）在[from, to)内时，偏移唯一且为offsetSeconds，不含夏令时的间隙与重叠
+     */
+    private static final class OffsetRange {
+
+        private final long from;
+
+        private final long to;
+
+        private final int offsetSeconds;
+
+        private OffsetRange(long from, long to, int offsetSeconds) {
+            this.from = from;
+            this.to = to;
+            this.offsetSeconds = offsetSeconds;
+        }
+    }
+
+    private static final class Cursor {
+
+        private CharSequence cs;
+
+        private byte[] bytes;
+
+        private int off;
+
+        private int len;
+
+        private int pos;
+
+        private char next() {
+            if (pos >= len) {
+                throw illegal();
+            }
+            final int i = pos++;
+            return cs != null ? cs.charAt(i) : (char) (bytes[off + i] & 0xff);
+        }
+
+        private void expect(char ch) {
+            if (next() != ch) {
+                throw illegal();
+            }
+        }
+
+        private int digits(int width) {
+            int value = 0;
+            for (int i = 0; i < width; i++) {
+                final int d = next() - '0';
+                if (d < 0 || d > 9) {
+                    throw illegal();
+                }
+                value = value * 10 + d;
+            }
+            return value;
+        }
+
+        /**
+         * 读取 Z 或 ±HH:MM[:SS]
+         */
+        private int offset() {
+            final char sign = next();
+            if (sign == 'Z') {
+                return 0;
+            }
+            if (sign != '+' && sign != '-') {
+                throw illegal();
+            }
+            final int hours = digits(2);
+            expect(':');
+            final int minutes = digits(2);
+            int seconds = 0;
+            if (pos < len) {
+                expect(':');
+                seconds = digits(2);
+            }
+            if (hours > 18 || minutes > 59 || seconds > 59) {
+                throw illegal();
+            }
+            final int total = hours * 3600 + minutes * 60 + seconds;
+            return sign == '-' ? -total : total;
+        }
+
+        private IllegalArgumentException illegal() {
+            final CharSequence text = cs != null ? cs : new String(bytes, off, len, StandardCharsets.ISO_8859_1);
+            return new IllegalArgumentException(String.format("Illegal timestamp: %s at index %s", text, pos));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package test.util.id;
+
+import io.github.timemachinelab.util.id.IdUtil;
+import io.github.timemachinelab.util.id.InMemorySegmentSource;
+import io.github.timemachinelab.util.id.SegmentIdGenerator;
+import io.github.timemachinelab.util.id.SnowflakeIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ID生成吞吐对比，4线程并发（雪花算法、号段模式竞争同一个生成器）
+ * 运行: 在IDE中执行main方法
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class IdGeneratorBenchmark {
+
+    private final SnowflakeIdGenerator snowflake = SnowflakeIdGenerator.builder().build();
+
+    private final SegmentIdGenerator segment = SegmentIdGenerator.builder(new InMemorySegmentSource(), "bench").build();
+
+    /**
+     * 默认12位序列号，理论上限为每毫秒4096个
+     */
+    @Benchmark
+    public long snowflake() {
+        return snowflake.nextId();
+    }
+
+    @Benchmark
+    public long segment() {
+        return segment.nextId();
+    }
+
+    /**
+     * 优化前SNOWFLAKE策略的实现，作为基线（存在碰撞）
+     */
+    @Benchmark
+    public long legacyTimestampRandom() {
+        return System.currentTimeMillis() << 12 | ThreadLocalRandom.current().nextInt(4096);
+    }
+
+    /**
+     * 默认UUID策略，所有线程共享SecureRandom
+     */
+    @Benchmark
+    public String uuidRandom() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+
+    @Benchmark
+    public String uuidV4() {
+        return IdUtil.uuidV4();
+    }
+
+    @Benchmark
+    public String uuidV7() {
+        return IdUtil.uuidV7();
+    }
+
+    @Benchmark
+    public String ulid() {
+        return IdUtil.ulid();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(IdGeneratorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,75 @@
+package test.util.id;
+
+import io.github.timemachinelab.util.id.IdUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("随机ID工具测试")
+public class IdUtilTest {
+
+    private static final String CROCKFORD = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+
+    @Test
+    @DisplayName("测试UUID v4/v7格式")
+    void testUuid() {
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            String v4 = IdUtil.uuidV4();
+            assertTrue(v4.matches("[0-9a-f]{32}"));
+            UUID uuid = IdUtil.parseUuid(v4);
+            assertEquals(4, uuid.version());
+            assertEquals(2, uuid.variant());
+            assertEquals(v4, uuid.toString().replace("-", ""), "应与JDK的UUID文本表示一致");
+            assertTrue(seen.add(v4));
+        }
+
+        long millis = System.currentTimeMillis();
+        byte[] buf = new byte[40];
+        assertEquals(IdUtil.UUID_LENGTH, IdUtil.uuidV7(millis, buf, 4));
+        UUID v7 = IdUtil.parseUuid(new String(buf, 4, IdUtil.UUID_LENGTH, StandardCharsets.ISO_8859_1));
+        assertEquals(7, v7.version());
+        assertEquals(2, v7.variant());
+        assertEquals(millis, v7.getMostSignificantBits() >>> 16);
+
+        IdUtil.uuidV7(millis + 1, buf, 4);
+        String later = new String(buf, 4, IdUtil.UUID_LENGTH, StandardCharsets.ISO_8859_1);
+        IdUtil.uuidV7(millis, buf, 4);
+        String earlier = new String(buf, 4, IdUtil.UUID_LENGTH, StandardCharsets.ISO_8859_1);
+        assertTrue(later.compareTo(earlier) > 0, "v7按毫秒有序");
+        assertThrows(IllegalArgumentException.class, () -> IdUtil.parseUuid("xyz"));
+    }
+
+    @Test
+    @DisplayName("测试ULID格式与时间有序")
+    void testUlid() {
+        long millis = 1_700_000_000_123L;
+        byte[] buf = new byte[IdUtil.ULID_LENGTH];
+        Set<String> seen = new HashSet<>();
+        String prev = null;
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(IdUtil.ULID_LENGTH, IdUtil.ulid(millis + i, buf, 0));
+            String ulid = new String(buf, StandardCharsets.ISO_8859_1);
+            long time = 0;
+            for (int c = 0; c < 10; c++) {
+                time = time * 32 + CROCKFORD.indexOf(ulid.charAt(c));
+            }
+            assertEquals(millis + i, time, "前10位为毫秒时间戳");
+            for (int c = 0; c < ulid.length(); c++) {
+                assertTrue(CROCKFORD.indexOf(ulid.charAt(c)) >= 0);
+            }
+            if (prev != null) {
+                assertTrue(ulid.compareTo(prev) > 0, "不同毫秒的ULID按字典序有序");
+            }
+            assertTrue(seen.add(ulid));
+            prev = ulid;
+        }
+        assertEquals(IdUtil.ULID_LENGTH, IdUtil.ulid().length());
+    }
+}
@@ -0,0 +1,115 @@
+package test.util.id;
+
+import io.github.timemachinelab.util.id.FileSegmentSource;
+import io.github.timemachinelab.util.id.InMemorySegmentSource;
+import io.github.timemachinelab.util.id.SegmentIdGenerator;
+import io.github.timemachinelab.util.id.SegmentSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("号段ID生成器测试")
+public class SegmentIdGeneratorTest {
+
+    @Test
+    @DisplayName("测试单线程ID连续递增且按阈值预取")
+    void testDenseAndPrefetch() {
+        AtomicInteger leases = new AtomicInteger();
+        InMemorySegmentSource memory = new InMemorySegmentSource();
+        SegmentSource source = (tag, step) -> {
+            leases.incrementAndGet();
+            return memory.allocate(tag, step);
+        };
+        // 同步执行预取，便于断言
+        SegmentIdGenerator generator = SegmentIdGenerator.builder(source, "order")
+                .step(10).prefetchThreshold(0.5).executor(Runnable::run).build();
+        assertEquals(1, leases.get(), "构建时申请第一个号段");
+
+        for (long expected = 1; expected <= 5; expected++) {
+            assertEquals(expected, generator.nextId());
+        }
+        assertEquals(1, leases.get());
+        assertEquals(6, generator.nextId());
+        assertEquals(2, leases.get(), "使用量达到阈值时预取下一个号段");
+
+        for (long expected = 7; expected <= 35; expected++) {
+            assertEquals(expected, generator.nextId(), "号段切换后ID仍连续");
+        }
+        assertEquals(4, leases.get(), "每个号段只预取一次");
+        assertEquals(5, generator.remaining());
+    }
+
+    @Test
+    @DisplayName("测试预取失败时同步申请")
+    void testPrefetchFailure() {
+        AtomicInteger calls = new AtomicInteger();
+        InMemorySegmentSource memory = new InMemorySegmentSource();
+        SegmentSource flaky = (tag, step) -> {
+            if (calls.incrementAndGet() == 2) {
+                throw new IllegalStateException("source unavailable");
+            }
+            return memory.allocate(tag, step);
+        };
+        SegmentIdGenerator generator = SegmentIdGenerator.builder(flaky, "flaky")
+                .step(4).executor(Runnable::run).build();
+        for (long expected = 1; expected <= 8; expected++) {
+            assertEquals(expected, generator.nextId());
+        }
+
+        SegmentIdGenerator.Builder failing = SegmentIdGenerator.builder((tag, step) -> {
+            throw new IllegalStateException("down");
+        }, "down");
+        assertThrows(IllegalStateException.class, failing::build, "来源不可用时构建失败");
+    }
+
+    @Test
+    @DisplayName("测试多线程唯一性")
+    void testConcurrentUnique() throws InterruptedException {
+        SegmentIdGenerator generator = SegmentIdGenerator.builder(new InMemorySegmentSource(), "trace").step(100).build();
+        ConcurrentHashMap<Long, Boolean> seen = new ConcurrentHashMap<>();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    seen.put(generator.nextId(), Boolean.TRUE);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(threads.length * 50_000, seen.size(), "ID不应重复");
+        assertTrue(generator.generateId().matches("\\d+"));
+    }
+
+    @Test
+    @DisplayName("测试文件号段来源跨实例不重叠")
+    void testFileSource(@TempDir Path dir) {
+        SegmentIdGenerator first = SegmentIdGenerator.builder(new FileSegmentSource(dir), "order").step(50).build();
+        long a = first.nextId();
+        // 模拟重启：新的来源实例读取持久化的计数
+        SegmentIdGenerator second = SegmentIdGenerator.builder(new FileSegmentSource(dir), "order").step(50).build();
+        long b = second.nextId();
+        assertEquals(1, a);
+        assertEquals(51, b, "重启后从下一个号段开始");
+        assertThrows(IllegalArgumentException.class, () -> new FileSegmentSource(dir).allocate("../x", 1));
+    }
+
+    @Test
+    @DisplayName("测试非法参数")
+    void testIllegalArguments() {
+        InMemorySegmentSource source = new InMemorySegmentSource();
+        assertThrows(IllegalArgumentException.class, () -> SegmentIdGenerator.builder(null, "a").build());
+        assertThrows(IllegalArgumentException.class, () -> SegmentIdGenerator.builder(source, "").build());
+        assertThrows(IllegalArgumentException.class, () -> SegmentIdGenerator.builder(source, "a").step(0).build());
+        assertThrows(IllegalArgumentException.class, () -> SegmentIdGenerator.builder(source, "a").prefetchThreshold(0).build());
+        assertThrows(IllegalArgumentException.class, () -> SegmentIdGenerator.builder(source, "a").prefetchThreshold(1.5).build());
+    }
+}
@@ -0,0 +1,96 @@
+package test.util.id;
+
+import io.github.timemachinelab.thread.timer.CircleTimeWheel;
+import io.github.timemachinelab.thread.timer.TimeTicker;
+import io.github.timemachinelab.util.id.SnowflakeIdGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("雪花算法ID生成器测试")
+public class SnowflakeIdGeneratorTest {
+
+    @Test
+    @DisplayName("测试ID结构与单调递增")
+    void testLayoutAndMonotonic() {
+        AtomicLong clock = new AtomicLong(SnowflakeIdGenerator.DEFAULT_EPOCH + 1000);
+        SnowflakeIdGenerator generator = SnowflakeIdGenerator.builder()
+                .datacenterId(3).workerId(17).clock(clock::get).build();
+
+        long first = generator.nextId();
+        assertEquals(clock.get(), generator.timestampOf(first));
+        assertEquals(3, generator.datacenterIdOf(first));
+        assertEquals(17, generator.workerIdOf(first));
+        assertEquals(0, generator.sequenceOf(first));
+
+        long second = generator.nextId();
+        assertEquals(1, generator.sequenceOf(second), "同一毫秒内序列号递增");
+        assertTrue(second > first);
+
+        clock.addAndGet(5);
+        long third = generator.nextId();
+        assertEquals(clock.get(), generator.timestampOf(third));
+        assertEquals(0, generator.sequenceOf(third), "进入新毫秒后序列号归零");
+    }
+
+    @Test
+    @DisplayName("测试序列号耗尽与时钟回拨时借用未来毫秒")
+    void testBorrowFutureMillis() {
+        AtomicLong clock = new AtomicLong(SnowflakeIdGenerator.DEFAULT_EPOCH + 1000);
+        SnowflakeIdGenerator generator = SnowflakeIdGenerator.builder()
+                .sequenceBits(2).clock(clock::get).maxAheadMillis(100).maxWaitMillis(0).build();
+
+        long prev = -1;
+        for (int i = 0; i < 40; i++) {
+            long id = generator.nextId();
+            assertTrue(id > prev, "ID应严格递增");
+            prev = id;
+        }
+        assertEquals(clock.get() + 9, generator.timestampOf(prev), "每毫秒4个序列号，40个ID应借用9个未来毫秒");
+
+        clock.addAndGet(-50);
+        long afterRollback = generator.nextId();
+        assertTrue(afterRollback > prev, "小幅时钟回拨时仍应递增");
+
+        clock.addAndGet(-1000);
+        assertThrows(IllegalStateException.class, generator::nextId, "超出可吸收范围的回拨应快速失败");
+    }
+
+    @Test
+    @DisplayName("测试多线程唯一性并可作为时间轮任务ID生成器")
+    void testConcurrentUnique() throws InterruptedException {
+        SnowflakeIdGenerator generator = SnowflakeIdGenerator.builder().workerId(1).build();
+        ConcurrentHashMap<Long, Boolean> seen = new ConcurrentHashMap<>();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    seen.put(generator.nextId(), Boolean.TRUE);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(threads.length * 50_000, seen.size(), "ID不应重复");
+
+        CircleTimeWheel wheel = new CircleTimeWheel(TimeTicker.monotonic(), generator);
+        assertTrue(wheel.genTaskId().matches("\\d+"));
+    }
+
+    @Test
+    @DisplayName("测试非法参数")
+    void testIllegalArguments() {
+        assertThrows(IllegalArgumentException.class, () -> SnowflakeIdGenerator.builder().workerId(32).build());
+        assertThrows(IllegalArgumentException.class, () -> SnowflakeIdGenerator.builder().datacenterId(-1).build());
+        assertThrows(IllegalArgumentException.class, () -> SnowflakeIdGenerator.builder().sequenceBits(13).build());
+        assertThrows(IllegalArgumentException.class, () -> SnowflakeIdGenerator.builder().sequenceBits(0).build());
+        assertThrows(IllegalArgumentException.class, () -> SnowflakeIdGenerator.builder().epoch(Long.MAX_VALUE).build());
+        assertThrows(IllegalArgumentException.class, () -> SnowflakeIdGenerator.builder().maxAheadMillis(0).build());
+    }
+}
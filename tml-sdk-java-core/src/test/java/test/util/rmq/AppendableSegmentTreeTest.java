@@ -0,0 +1,65 @@
+package test.util.rmq;
+
+import io.github.timemachinelab.util.rmq.AppendableSegmentTree;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("可追加线段树测试")
+public class AppendableSegmentTreeTest {
+
+    @Test
+    @DisplayName("测试追加与扩容")
+    void testAppendAndGrow() {
+        AppendableSegmentTree tree = new AppendableSegmentTree(1);
+        Random random = new Random(29);
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            long value = random.nextInt(100_000) - 50_000;
+            tree.append(value);
+            expected.add(value);
+            assertEquals(expected.size(), tree.size());
+            assertRandomRange(tree, expected, random);
+        }
+        assertEquals(4096, tree.capacity());
+        assertTrue(tree.update(10, 1_000_000));
+        assertEquals(1_000_000, tree.maxOf(0, tree.size() - 1));
+        assertNull(tree.max(0, tree.size()));
+    }
+
+    @Test
+    @DisplayName("测试环形覆盖最旧数据")
+    void testRingMode() {
+        AppendableSegmentTree tree = AppendableSegmentTree.ring(100);
+        Random random = new Random(290);
+        List<Long> all = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            long value = random.nextInt(100_000);
+            tree.append(value);
+            all.add(value);
+            List<Long> retained = all.subList(Math.max(0, all.size() - 100), all.size());
+            assertEquals(retained.size(), tree.size());
+            assertEquals(all.size() - retained.size(), tree.firstSequence());
+            assertEquals(retained.get(retained.size() - 1), tree.get(tree.size() - 1));
+            assertRandomRange(tree, retained, random);
+        }
+        assertEquals(100, tree.capacity());
+    }
+
+    private void assertRandomRange(AppendableSegmentTree tree, List<Long> expected, Random random) {
+        int a = random.nextInt(expected.size()), b = random.nextInt(expected.size());
+        int l = Math.min(a, b), r = Math.max(a, b);
+        long max = Long.MIN_VALUE, min = Long.MAX_VALUE;
+        for (int j = l; j <= r; j++) {
+            max = Math.max(max, expected.get(j));
+            min = Math.min(min, expected.get(j));
+        }
+        assertEquals(max, tree.maxOf(l, r));
+        assertEquals(min, tree.minOf(l, r));
+    }
+}
@@ -0,0 +1,47 @@
+package test.util.rmq;
+
+import io.github.timemachinelab.util.rmq.BlockRMQ;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("分块RMQ测试")
+public class BlockRMQTest {
+
+    @Test
+    @DisplayName("测试基本功能")
+    void testBasicFunctionality() {
+        BlockRMQ rmq = new BlockRMQ(new long[]{1, 3, 4, 2, 5, 10, 6}, 2);
+        assertEquals(Long.valueOf(10), rmq.max(0, 6));
+        assertEquals(Long.valueOf(1), rmq.min(0, 6));
+        assertEquals(Long.valueOf(4), rmq.max(1, 3));
+        assertEquals(Long.valueOf(2), rmq.min(3, 3));
+        assertNull(rmq.max(2, 7));
+        assertThrows(IllegalArgumentException.class, () -> new BlockRMQ(new long[]{1}, 3));
+    }
+
+    @Test
+    @DisplayName("测试不同块大小随机对拍")
+    void testRandomAgainstArray() {
+        Random random = new Random(31);
+        for (int blockSize : new int[]{2, 8, 64, 1024}) {
+            int n = 1 + random.nextInt(50_000);
+            long[] values = random.longs(n).toArray();
+            BlockRMQ rmq = new BlockRMQ(values, blockSize);
+            for (int i = 0; i < 1000; i++) {
+                int a = random.nextInt(n), b = random.nextInt(n);
+                int l = Math.min(a, b), r = Math.max(a, b);
+                long max = Long.MIN_VALUE, min = Long.MAX_VALUE;
+                for (int j = l; j <= r; j++) {
+                    max = Math.max(max, values[j]);
+                    min = Math.min(min, values[j]);
+                }
+                assertEquals(max, rmq.maxOf(l, r));
+                assertEquals(min, rmq.minOf(l, r));
+            }
+        }
+    }
+}
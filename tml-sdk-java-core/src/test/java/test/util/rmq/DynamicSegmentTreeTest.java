@@ -0,0 +1,78 @@
+package test.util.rmq;
+
+import io.github.timemachinelab.util.rmq.DynamicSegmentTree;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("动态开点线段树测试")
+public class DynamicSegmentTreeTest {
+
+    @Test
+    @DisplayName("测试基本功能")
+    void testBasicFunctionality() {
+        DynamicSegmentTree tree = DynamicSegmentTree.forNonNegative();
+        long now = 1_700_000_000_000L;
+        tree.set(now, 5);
+        tree.set(now + 1000, 9);
+        tree.add(now + 1000, 1);
+        tree.set(now + 60_000, -3);
+
+        assertEquals(10, tree.max(now, now + 60_000));
+        assertEquals(-3, tree.min(now, now + 60_000));
+        assertEquals(12, tree.sum(now, now + 60_000));
+        assertEquals(5, tree.max(now, now + 999));
+        assertEquals(Long.MIN_VALUE, tree.max(0, now - 1));
+        assertEquals(Long.MAX_VALUE, tree.min(now + 1, now + 999));
+        assertFalse(tree.set(-1, 1));
+
+        tree.clear();
+        assertEquals(0, tree.nodeCount());
+        assertEquals(0, tree.sum(0, Long.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("测试全long值域随机对拍")
+    void testRandomAgainstTreeMap() {
+        DynamicSegmentTree tree = new DynamicSegmentTree(Long.MIN_VALUE, Long.MAX_VALUE, 1);
+        TreeMap<Long, Long> expected = new TreeMap<>();
+        Random random = new Random(26);
+        long[] keys = new long[512];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+        keys[0] = Long.MIN_VALUE;
+        keys[1] = Long.MAX_VALUE;
+        for (int i = 0; i < 5000; i++) {
+            long key = keys[random.nextInt(keys.length)];
+            long value = random.nextInt(2_000_000) - 1_000_000;
+            if (random.nextBoolean()) {
+                tree.set(key, value);
+                expected.put(key, value);
+            } else {
+                tree.add(key, value);
+                expected.merge(key, value, Long::sum);
+            }
+
+            long a = keys[random.nextInt(keys.length)];
+            long b = keys[random.nextInt(keys.length)];
+            long l = Math.min(a, b), r = Math.max(a, b);
+            long max = Long.MIN_VALUE, min = Long.MAX_VALUE, sum = 0;
+            for (Map.Entry<Long, Long> e : expected.subMap(l, true, r, true).entrySet()) {
+                max = Math.max(max, e.getValue());
+                min = Math.min(min, e.getValue());
+                sum += e.getValue();
+            }
+            assertEquals(max, tree.max(l, r));
+            assertEquals(min, tree.min(l, r));
+            assertEquals(sum, tree.sum(l, r));
+        }
+        // memory must follow populated keys, not the 2^64 domain
+        assertTrue(tree.nodeCount() <= keys.length * 64);
+    }
+}
@@ -0,0 +1,91 @@
+package test.util.rmq;
+
+import io.github.timemachinelab.util.rmq.MappedSegmentTree;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("内存映射线段树测试")
+public class MappedSegmentTreeTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("测试基本功能")
+    void testBasicFunctionality() throws Exception {
+        Path file = dir.resolve("basic.rmq");
+        try (MappedSegmentTree tree = MappedSegmentTree.builder(file).fanout(2)
+                .build(List.of(1L, 3L, 4L, 2L, 5L, 10L, 6L).iterator())) {
+            assertEquals(7, tree.size());
+            assertEquals(10, tree.max(0, 6));
+            assertEquals(1, tree.min(0, 6));
+            assertEquals(Long.valueOf(4), tree.max(1, 3));
+            assertNull(tree.min(3, 7));
+            assertEquals(Long.MIN_VALUE, tree.max(5L, 4L));
+        }
+        assertEquals(0, Files.size(file) % 4096);
+
+        // reopen without rebuilding
+        try (MappedSegmentTree tree = MappedSegmentTree.open(file)) {
+            assertEquals(2, tree.min(3, 3));
+            assertEquals(6, tree.get(6));
+        }
+    }
+
+    @Test
+    @DisplayName("测试不同扇出随机对拍")
+    void testRandomAgainstArray() throws Exception {
+        Random random = new Random(28);
+        for (int fanout : new int[]{2, 3, 16, 64}) {
+            int n = 1 + random.nextInt(20_000);
+            long[] values = random.longs(n).toArray();
+            try (MappedSegmentTree tree = MappedSegmentTree.builder(dir.resolve("random-" + fanout + ".rmq"))
+                    .fanout(fanout).bufferSize(1024).build(LongStream.of(values).iterator())) {
+                for (int i = 0; i < 2000; i++) {
+                    int a = random.nextInt(n), b = random.nextInt(n);
+                    int l = Math.min(a, b), r = Math.max(a, b);
+                    long max = Long.MIN_VALUE, min = Long.MAX_VALUE;
+                    for (int j = l; j <= r; j++) {
+                        max = Math.max(max, values[j]);
+                        min = Math.min(min, values[j]);
+                    }
+                    assertEquals(max, tree.max((long) l, r));
+                    assertEquals(min, tree.min((long) l, r));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("测试截断或损坏的文件在打开时报错")
+    void testCorruptedFile() throws Exception {
+        Path file = dir.resolve("corrupted.rmq");
+        MappedSegmentTree.builder(file).fanout(4).build(LongStream.range(0, 10_000).iterator()).close();
+        byte[] bytes = Files.readAllBytes(file);
+
+        // header intact, last sections cut off
+        Path truncated = dir.resolve("truncated.rmq");
+        Files.write(truncated, Arrays.copyOf(bytes, 3 * 4096));
+        IOException e = assertThrows(IOException.class, () -> MappedSegmentTree.open(truncated));
+        assertTrue(e.getMessage().startsWith("Illegal rmq file"), e.getMessage());
+
+        // level 0 size no longer matches count
+        Path badSize = dir.resolve("bad-size.rmq");
+        byte[] copy = bytes.clone();
+        copy[32 + 16] ^= 1;
+        Files.write(badSize, copy);
+        e = assertThrows(IOException.class, () -> MappedSegmentTree.open(badSize));
+        assertTrue(e.getMessage().startsWith("Illegal rmq file"), e.getMessage());
+    }
+}
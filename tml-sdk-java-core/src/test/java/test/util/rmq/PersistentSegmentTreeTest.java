@@ -0,0 +1,76 @@
+package test.util.rmq;
+
+import io.github.timemachinelab.util.rmq.PersistentSegmentTree;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("可持久化线段树测试")
+public class PersistentSegmentTreeTest {
+
+    @Test
+    @DisplayName("测试基本功能")
+    void testBasicFunctionality() {
+        PersistentSegmentTree tree = PersistentSegmentTree.forLong(List.of(1L, 3L, 4L, 2L, 5L, 10L, 6L));
+        int v1 = tree.update(0, 20);
+        int v2 = tree.update(5, -1);
+
+        assertEquals(10, tree.max(0, 0, 6));
+        assertEquals(20, tree.max(v1, 0, 6));
+        assertEquals(20, tree.max(v2, 0, 6));
+        assertEquals(-1, tree.min(v2, 0, 6));
+        assertEquals(1, tree.min(0, 0, 6));
+        assertEquals(Long.valueOf(6), tree.max(5, 6));
+        assertNull(tree.max(3, 7));
+        assertEquals(-1, tree.update(7, 1));
+
+        tree.dropVersionsBefore(v2);
+        assertEquals(v2, tree.oldestVersion());
+        assertThrows(IllegalArgumentException.class, () -> tree.max(v1, 0, 6));
+        assertEquals(20, tree.get(v2, 0));
+    }
+
+    @Test
+    @DisplayName("测试历史版本随机对拍与批量回收")
+    void testRandomVersions() {
+        Random random = new Random(27);
+        int n = 300;
+        long[] values = new long[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = random.nextInt(1000);
+        }
+        PersistentSegmentTree tree = new PersistentSegmentTree(values);
+        List<long[]> snapshots = new ArrayList<>();
+        snapshots.add(values.clone());
+        for (int i = 0; i < 2000; i++) {
+            int index = random.nextInt(n);
+            values[index] = random.nextInt(1000) - 500;
+            assertEquals(snapshots.size(), tree.update(index, values[index]));
+            snapshots.add(values.clone());
+        }
+
+        int keepFrom = 1500;
+        int before = tree.nodeCount();
+        tree.dropVersionsBefore(keepFrom);
+        assertTrue(tree.nodeCount() < before);
+
+        for (int i = 0; i < 2000; i++) {
+            int version = keepFrom + random.nextInt(snapshots.size() - keepFrom);
+            int a = random.nextInt(n), b = random.nextInt(n);
+            int l = Math.min(a, b), r = Math.max(a, b);
+            long[] snapshot = snapshots.get(version);
+            long max = Long.MIN_VALUE, min = Long.MAX_VALUE;
+            for (int j = l; j <= r; j++) {
+                max = Math.max(max, snapshot[j]);
+                min = Math.min(min, snapshot[j]);
+            }
+            assertEquals(max, tree.max(version, l, r));
+            assertEquals(min, tree.min(version, l, r));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package test.util.rmq;
+
+import io.github.timemachinelab.util.rmq.AppendableSegmentTree;
+import io.github.timemachinelab.util.rmq.BlockRMQ;
+import io.github.timemachinelab.util.rmq.RMQ;
+import io.github.timemachinelab.util.rmq.SegmentTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * RMQ查询延迟与内存占用对比
+ * 运行: 在IDE中执行main方法，或 java -cp test-classes:... test.util.rmq.RmqBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RmqBenchmark {
+
+    @Param({"1000000"})
+    int size;
+
+    private long[] values;
+
+    private SegmentTree<Long, Long> segmentTree;
+
+    private AppendableSegmentTree appendableTree;
+
+    private BlockRMQ blockRMQ;
+
+    private int[] ls;
+
+    private int[] rs;
+
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(31);
+        values = random.longs(size).toArray();
+        List<Long> list = new ArrayList<>(size);
+        for (long v : values) {
+            list.add(v);
+        }
+        segmentTree = SegmentTree.forLong(list);
+        appendableTree = new AppendableSegmentTree(size);
+        for (long v : values) {
+            appendableTree.append(v);
+        }
+        blockRMQ = new BlockRMQ(values);
+        ls = new int[1 << 16];
+        rs = new int[1 << 16];
+        for (int i = 0; i < ls.length; i++) {
+            int a = random.nextInt(size), b = random.nextInt(size);
+            ls[i] = Math.min(a, b);
+            rs[i] = Math.max(a, b);
+        }
+    }
+
+    private int next() {
+        return cursor = (cursor + 1) & (ls.length - 1);
+    }
+
+    @Benchmark
+    public Long segmentTreeMax() {
+        int i = next();
+        return segmentTree.max(ls[i], rs[i]);
+    }
+
+    @Benchmark
+    public long appendableTreeMax() {
+        int i = next();
+        return appendableTree.maxOf(ls[i], rs[i]);
+    }
+
+    @Benchmark
+    public long blockRMQMax() {
+        int i = next();
+        return blockRMQ.maxOf(ls[i], rs[i]);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int size = 1_000_000;
+        long[] values = new Random(31).longs(size).toArray();
+        printFootprint("SegmentTree", () -> {
+            List<Long> list = new ArrayList<>(size);
+            for (long v : values) {
+                list.add(v);
+            }
+            return SegmentTree.forLong(list);
+        });
+        printFootprint("AppendableSegmentTree", () -> {
+            AppendableSegmentTree tree = new AppendableSegmentTree(size);
+            for (long v : values) {
+                tree.append(v);
+            }
+            return tree;
+        });
+        printFootprint("BlockRMQ (excluding the shared values array)", () -> new BlockRMQ(values));
+
+        new Runner(new OptionsBuilder().include(RmqBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static void printFootprint(String name, Supplier<RMQ<Long>> factory) {
+        long before = usedHeap();
+        RMQ<Long> rmq = factory.get();
+        long after = usedHeap();
+        System.out.printf("%s: ~%.1f MB retained (probe %d)%n", name, (after - before) / 1048576.0, rmq.max(0, 0));
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,134 @@
+package test.util.rmq;
+
+import io.github.timemachinelab.util.rmq.AppendableSegmentTree;
+import io.github.timemachinelab.util.rmq.DynamicSegmentTree;
+import io.github.timemachinelab.util.rmq.PersistentSegmentTree;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RMQ二进制快照测试")
+public class RmqSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("测试多个结构写入同一流并恢复")
+    void testRoundTripInOneStream() throws Exception {
+        Random random = new Random(30);
+        DynamicSegmentTree dynamic = DynamicSegmentTree.forNonNegative();
+        for (int i = 0; i < 1000; i++) {
+            dynamic.add(random.nextLong() & Long.MAX_VALUE, random.nextInt(1000));
+        }
+        PersistentSegmentTree persistent = new PersistentSegmentTree(random.longs(500).toArray());
+        for (int i = 0; i < 300; i++) {
+            persistent.update(random.nextInt(500), random.nextLong());
+        }
+        persistent.dropVersionsBefore(100);
+        AppendableSegmentTree ring = AppendableSegmentTree.ring(77);
+        for (int i = 0; i < 500; i++) {
+            ring.append(random.nextLong());
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        dynamic.writeTo(out);
+        persistent.writeTo(out);
+        ring.writeTo(out);
+
+        InputStream in = new ByteArrayInputStream(out.toByteArray());
+        DynamicSegmentTree dynamicCopy = DynamicSegmentTree.readFrom(in);
+        PersistentSegmentTree persistentCopy = PersistentSegmentTree.readFrom(in);
+        AppendableSegmentTree ringCopy = AppendableSegmentTree.readFrom(in);
+        assertEquals(-1, in.read());
+
+        assertEquals(dynamic.sum(0, Long.MAX_VALUE), dynamicCopy.sum(0, Long.MAX_VALUE));
+        assertEquals(dynamic.max(0, Long.MAX_VALUE >> 1), dynamicCopy.max(0, Long.MAX_VALUE >> 1));
+        assertEquals(dynamic.nodeCount(), dynamicCopy.nodeCount());
+        dynamicCopy.set(42, 1_000_000);
+        assertEquals(1_000_000, dynamicCopy.max(0, 100));
+
+        assertEquals(persistent.oldestVersion(), persistentCopy.oldestVersion());
+        assertEquals(persistent.latestVersion(), persistentCopy.latestVersion());
+        for (int v = persistent.oldestVersion(); v <= persistent.latestVersion(); v += 7) {
+            assertEquals(persistent.max(v, 10, 400), persistentCopy.max(v, 10, 400));
+            assertEquals(persistent.min(v, 0, 499), persistentCopy.min(v, 0, 499));
+        }
+
+        assertEquals(ring.size(), ringCopy.size());
+        assertEquals(ring.firstSequence(), ringCopy.firstSequence());
+        assertEquals(ring.maxOf(3, 70), ringCopy.maxOf(3, 70));
+        ring.append(1);
+        ringCopy.append(1);
+        assertEquals(ring.minOf(0, 76), ringCopy.minOf(0, 76));
+    }
+
+    @Test
+    @DisplayName("测试文件通道与损坏检测")
+    void testFileChannelAndCorruption() throws Exception {
+        AppendableSegmentTree tree = new AppendableSegmentTree();
+        for (int i = 0; i < 10_000; i++) {
+            tree.append(i * 31L % 997);
+        }
+        Path file = dir.resolve("tree.snapshot");
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            tree.writeTo(ch);
+        }
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            AppendableSegmentTree copy = AppendableSegmentTree.readFrom(ch);
+            assertEquals(tree.maxOf(0, 9999), copy.maxOf(0, 9999));
+            assertEquals(tree.minOf(100, 200), copy.minOf(100, 200));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        tree.writeTo(out);
+        byte[] bytes = out.toByteArray();
+        bytes[bytes.length / 2] ^= 1;
+        assertThrows(IOException.class, () -> AppendableSegmentTree.readFrom(new ByteArrayInputStream(bytes)));
+        assertThrows(IOException.class, () -> DynamicSegmentTree.readFrom(new ByteArrayInputStream(out.toByteArray())));
+        byte[] truncated = Arrays.copyOf(out.toByteArray(), 100);
+        assertThrows(IOException.class, () -> AppendableSegmentTree.readFrom(new ByteArrayInputStream(truncated)));
+    }
+
+    @Test
+    @DisplayName("测试损坏的数组长度不会触发大数组分配")
+    void testCorruptedLength() throws Exception {
+        DynamicSegmentTree tree = DynamicSegmentTree.forNonNegative();
+        for (int i = 0; i < 100; i++) {
+            tree.add(i * 7919L, i);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        tree.writeTo(out);
+        byte[] bytes = out.toByteArray();
+        // magic | version | type | lower | upper | root | lc length
+        int lengthOffset = 3 * Integer.BYTES + 2 * Long.BYTES + Integer.BYTES;
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(lengthOffset, Integer.MAX_VALUE - 8);
+        assertThrows(IOException.class, () -> DynamicSegmentTree.readFrom(new ByteArrayInputStream(bytes)));
+
+        Path file = dir.resolve("corrupted.snapshot");
+        Files.write(file, bytes);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            assertThrows(IOException.class, () -> DynamicSegmentTree.readFrom(ch));
+        }
+
+        byte[] second = out.toByteArray();
+        int rcOffset = lengthOffset + Integer.BYTES + (tree.nodeCount() + 1) * Integer.BYTES;
+        ByteBuffer.wrap(second).order(ByteOrder.LITTLE_ENDIAN).putInt(rcOffset, Integer.MAX_VALUE - 8);
+        assertThrows(IOException.class, () -> DynamicSegmentTree.readFrom(new ByteArrayInputStream(second)));
+    }
+}
@@ -0,0 +1,64 @@
+package test.util.time;
+
+import io.github.timemachinelab.util.time.CachedClock;
+import io.github.timemachinelab.util.time.TimeUtil;
+import io.github.timemachinelab.util.time.TimeUtil.TimePrecision;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CachedClock缓存时钟的单元测试
+ *
+ * @author TimeMachineLab
+ * @version 1.0
+ */
+@DisplayName("CachedClock缓存时钟测试")
+public class CachedClockTest {
+
+    @AfterEach
+    void tearDown() {
+        CachedClock.stopGlobal();
+    }
+
+    @Test
+    @DisplayName("测试缓存时钟随时间推进")
+    public void testClockAdvances() throws InterruptedException {
+        try (CachedClock clock = CachedClock.start(1)) {
+            long first = clock.currentTimeMillis();
+            assertTrue(Math.abs(first - System.currentTimeMillis()) < 1000, "缓存时间应接近系统时间");
+            Thread.sleep(50);
+            assertTrue(clock.currentTimeMillis() > first, "缓存时间应随守护线程刷新而推进");
+            assertEquals(clock.currentTimeMillis() / 1000, clock.currentTimeSeconds(), 1);
+        }
+    }
+
+    @Test
+    @DisplayName("测试全局缓存时钟开启与关闭")
+    public void testGlobalClock() {
+        assertNull(CachedClock.global());
+        assertTrue(Math.abs(TimeUtil.coarseMillis() - System.currentTimeMillis()) < 1000, "未开启时应退化为系统时钟");
+
+        CachedClock clock = CachedClock.startGlobal(10);
+        assertSame(clock, CachedClock.startGlobal(10), "相同分辨率应复用全局实例");
+        assertEquals(10, CachedClock.global().getResolutionMillis());
+        assertTrue(Math.abs(TimeUtil.coarseMillis() - System.currentTimeMillis()) < 1000);
+        assertTrue(Math.abs(TimeUtil.getCoarseTimestamp(TimePrecision.SECONDS) - System.currentTimeMillis() / 1000) <= 2);
+
+        CachedClock replaced = CachedClock.startGlobal(5);
+        assertNotSame(clock, replaced);
+        assertFalse(clock.isRunning(), "被替换的实例应停止");
+
+        CachedClock.stopGlobal();
+        assertNull(CachedClock.global());
+        assertFalse(replaced.isRunning());
+    }
+
+    @Test
+    @DisplayName("测试非法分辨率")
+    public void testIllegalResolution() {
+        assertThrows(IllegalArgumentException.class, () -> CachedClock.start(0));
+    }
+}
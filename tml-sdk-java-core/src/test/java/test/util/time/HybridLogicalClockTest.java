@@ -0,0 +1,98 @@
+package test.util.time;
+
+import io.github.timemachinelab.util.time.HybridLogicalClock;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * HybridLogicalClock混合逻辑时钟的单元测试
+ *
+ * @author TimeMachineLab
+ * @version 1.0
+ */
+@DisplayName("HybridLogicalClock混合逻辑时钟测试")
+public class HybridLogicalClockTest {
+
+    @Test
+    @DisplayName("测试物理时钟停滞时逻辑计数递增")
+    public void testLogicalCounter() {
+        AtomicLong wall = new AtomicLong(1_000L);
+        HybridLogicalClock clock = new HybridLogicalClock(wall::get, 60_000L);
+
+        long t1 = clock.now();
+        assertEquals(1_000L, HybridLogicalClock.physicalMillis(t1));
+        assertEquals(0, HybridLogicalClock.logical(t1));
+        long t2 = clock.now();
+        assertEquals(1_000L, HybridLogicalClock.physicalMillis(t2));
+        assertEquals(1, HybridLogicalClock.logical(t2));
+
+        wall.set(999L);
+        long t3 = clock.now();
+        assertTrue(t3 > t2, "物理时钟回拨时仍应递增");
+
+        wall.set(1_001L);
+        long t4 = clock.now();
+        assertEquals(HybridLogicalClock.pack(1_001L, 0), t4, "物理时钟前进时逻辑计数归零");
+        assertEquals(t4, clock.last());
+    }
+
+    @Test
+    @DisplayName("测试合并远端时间戳")
+    public void testUpdate() {
+        AtomicLong wall = new AtomicLong(1_000L);
+        HybridLogicalClock clock = new HybridLogicalClock(wall::get, 100L);
+
+        long remote = HybridLogicalClock.pack(1_050L, 7);
+        long received = clock.update(remote);
+        assertEquals(HybridLogicalClock.pack(1_050L, 8), received, "接收时间戳应大于远端时间戳");
+        assertTrue(clock.now() > received);
+
+        long older = HybridLogicalClock.pack(900L, 3);
+        assertTrue(clock.update(older) > received, "旧的远端时间戳不应拉低本地时钟");
+
+        long farFuture = HybridLogicalClock.pack(5_000L, 0);
+        long ignored = clock.update(farFuture);
+        assertTrue(ignored < farFuture, "超过最大漂移的远端时间戳应被忽略");
+        assertTrue(clock.update(-1L) > ignored, "非法时间戳应被忽略");
+    }
+
+    @Test
+    @DisplayName("测试逻辑计数溢出进位到物理毫秒")
+    public void testLogicalOverflow() {
+        HybridLogicalClock clock = new HybridLogicalClock(() -> 1_000L, 60_000L);
+        long last = 0;
+        for (int i = 0; i <= 1 << HybridLogicalClock.LOGICAL_BITS; i++) {
+            long ts = clock.now();
+            assertTrue(ts > last);
+            last = ts;
+        }
+        assertEquals(1_001L, HybridLogicalClock.physicalMillis(last));
+    }
+
+    @Test
+    @DisplayName("测试多线程生成时间戳唯一")
+    public void testConcurrentUnique() throws InterruptedException {
+        HybridLogicalClock clock = HybridLogicalClock.global();
+        ConcurrentHashMap<Long, Boolean> seen = new ConcurrentHashMap<>();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    seen.put(clock.now(), Boolean.TRUE);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(threads.length * 50_000, seen.size(), "时间戳不应重复");
+        assertThrows(IllegalArgumentException.class, () -> new HybridLogicalClock(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> new HybridLogicalClock(System::currentTimeMillis, -1));
+    }
+}
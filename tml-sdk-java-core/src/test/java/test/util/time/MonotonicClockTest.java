@@ -0,0 +1,103 @@
+package test.util.time;
+
+import io.github.timemachinelab.thread.timer.TimeTicker;
+import io.github.timemachinelab.util.time.MonotonicClock;
+import io.github.timemachinelab.util.time.TimeUtil;
+import io.github.timemachinelab.util.time.TimeUtil.TimePrecision;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MonotonicClock单调时钟的单元测试
+ *
+ * @author TimeMachineLab
+ * @version 1.0
+ */
+@DisplayName("MonotonicClock单调时钟测试")
+public class MonotonicClockTest {
+
+    private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("测试时钟接近墙上时间且不回退")
+    public void testMonotonicAndNearWallClock() {
+        try (MonotonicClock clock = MonotonicClock.start(1, 500, SECOND_NANOS)) {
+            assertTrue(Math.abs(clock.currentTimeMillis() - System.currentTimeMillis()) < 1000, "时钟应接近系统时间");
+            long prev = clock.currentTimeNanos();
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50);
+            while (System.nanoTime() < deadline) {
+                long now = clock.currentTimeNanos();
+                assertTrue(now >= prev, "校准期间时钟不应回退");
+                prev = now;
+            }
+            assertTrue(Math.abs(clock.offsetNanos()) < SECOND_NANOS);
+        }
+    }
+
+    @Test
+    @DisplayName("测试多线程读取与频繁校准下单调")
+    public void testConcurrentReadsWithCalibration() throws InterruptedException {
+        try (MonotonicClock clock = MonotonicClock.start()) {
+            Thread[] readers = new Thread[4];
+            boolean[] failed = new boolean[readers.length];
+            for (int t = 0; t < readers.length; t++) {
+                final int idx = t;
+                readers[t] = new Thread(() -> {
+                    long prev = clock.currentTimeNanos();
+                    for (int i = 0; i < 200_000; i++) {
+                        long now = clock.currentTimeNanos();
+                        if (now < prev) {
+                            failed[idx] = true;
+                            return;
+                        }
+                        prev = now;
+                    }
+                });
+                readers[t].start();
+            }
+            for (int i = 0; i < 1000; i++) {
+                clock.calibrate();
+            }
+            for (Thread reader : readers) {
+                reader.join();
+            }
+            for (boolean f : failed) {
+                assertFalse(f, "并发读取不应观察到时钟回退");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("测试TimeUtil与TimeTicker接入")
+    public void testTimeUtilAndTicker() {
+        long nanos = TimeUtil.getCurrentTimestamp(TimePrecision.NANOSECONDS);
+        assertTrue(Math.abs(nanos / 1_000_000L - System.currentTimeMillis()) < 1000);
+        assertTrue(TimeUtil.currentTimeNanos() >= nanos);
+
+        TimeTicker ticker = TimeTicker.monotonic();
+        long first = ticker.currentTimeNanos();
+        assertTrue(first >= nanos);
+        assertTrue(ticker.currentTimeMillis() >= first / 1_000_000L);
+        assertThrows(IllegalArgumentException.class, () -> TimeTicker.monotonic(null));
+    }
+
+    @Test
+    @DisplayName("测试非法参数与关闭")
+    public void testIllegalArgumentsAndClose() {
+        assertThrows(IllegalArgumentException.class, () -> MonotonicClock.start(0, 500, SECOND_NANOS));
+        assertThrows(IllegalArgumentException.class, () -> MonotonicClock.start(1000, 0, SECOND_NANOS));
+        assertThrows(IllegalArgumentException.class, () -> MonotonicClock.start(1000, 1_000_000, SECOND_NANOS));
+        assertThrows(IllegalArgumentException.class, () -> MonotonicClock.start(1000, 500, -1));
+
+        MonotonicClock clock = MonotonicClock.start();
+        assertTrue(clock.isRunning());
+        clock.close();
+        assertFalse(clock.isRunning());
+        long before = clock.currentTimeNanos();
+        assertTrue(clock.currentTimeNanos() >= before, "关闭后仍可读取");
+    }
+}
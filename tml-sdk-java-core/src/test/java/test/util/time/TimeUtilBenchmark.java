@@ -0,0 +1,68 @@
+package test.util.time;
+
+import io.github.timemachinelab.util.time.TimeUtil;
+import io.github.timemachinelab.util.time.TimeUtil.TimePrecision;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TimeUtil时间戳获取性能对比（基于Instant的旧实现 vs 专用路径）
+ * 运行: 在IDE中执行main方法，追加 -prof gc 可查看每次调用的分配字节数
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeUtilBenchmark {
+
+    @Param({"SECONDS", "MILLISECONDS", "NANOSECONDS"})
+    TimePrecision precision;
+
+    @Benchmark
+    public long instantBased() {
+        return legacyTimestamp(precision);
+    }
+
+    @Benchmark
+    public long getCurrentTimestamp() {
+        return TimeUtil.getCurrentTimestamp(precision);
+    }
+
+    /**
+     * 优化前的实现，作为基线
+     */
+    private static long legacyTimestamp(TimePrecision precision) {
+        final TimePrecision targetPrecision = precision != null ? precision : TimePrecision.MILLISECONDS;
+        final Instant instant = Instant.now();
+        switch (targetPrecision) {
+            case SECONDS:
+                return instant.getEpochSecond();
+            case MILLISECONDS:
+                return instant.toEpochMilli();
+            default:
+                return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(TimeUtilBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -66,6 +66,23 @@ public class TimeUtilTest {
     
 
     
+    @Test
+    @DisplayName("测试各精度专用方法")
+    public void testPrecisionSpecializedMethods() {
+        long millis = System.currentTimeMillis();
+        assertTrue(Math.abs(TimeUtil.currentTimeMillis() - millis) < 1000);
+        assertTrue(Math.abs(TimeUtil.currentTimeSeconds() - millis / 1000) <= 2);
+        assertTrue(Math.abs(TimeUtil.currentTimeNanos() / 1_000_000 - millis) < 1000);
+
+        // 纳秒时间戳基于nanoTime增量，连续调用不回退
+        long last = TimeUtil.currentTimeNanos();
+        for (int i = 0; i < 10000; i++) {
+            long now = TimeUtil.currentTimeNanos();
+            assertTrue(now >= last, "纳秒时间戳不应回退");
+            last = now;
+        }
+    }
+
     @Test
     @DisplayName("测试null参数处理")
     public void testNullParameters() {
@@ -0,0 +1,93 @@
+package test.util.time;
+
+import io.github.timemachinelab.util.time.TimestampFormatter;
+import io.github.timemachinelab.util.time.TimestampFormatter.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 时间戳格式化/解析性能对比（DateTimeFormatter vs TimestampFormatter）
+ * 运行: 在IDE中执行main方法，-prof gc 输出每次调用的分配字节数
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimestampFormatterBenchmark {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Shanghai");
+
+    private static final DateTimeFormatter JDK = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZONE);
+
+    private static final TimestampFormatter FAST = TimestampFormatter.of(Pattern.DATE_TIME, ZONE);
+
+    private static final String TEXT = "2024-06-01 12:34:56.789";
+
+    private final StringBuilder sb = new StringBuilder(64);
+
+    private final byte[] buf = new byte[64];
+
+    private long millis = 1_717_216_496_000L;
+
+    /**
+     * 同一秒内递增，模拟日志等高频、时间单调的调用
+     */
+    private long next() {
+        return millis += 3;
+    }
+
+    @Benchmark
+    public String jdkFormat() {
+        return JDK.format(Instant.ofEpochMilli(next()));
+    }
+
+    @Benchmark
+    public String fastFormat() {
+        return FAST.format(next());
+    }
+
+    @Benchmark
+    public int fastFormatToStringBuilder() {
+        sb.setLength(0);
+        return FAST.formatTo(next(), sb).length();
+    }
+
+    @Benchmark
+    public int fastFormatToBytes() {
+        return FAST.formatTo(next(), buf, 0);
+    }
+
+    @Benchmark
+    public long jdkParse() {
+        return LocalDateTime.parse(TEXT, JDK).atZone(ZONE).toInstant().toEpochMilli();
+    }
+
+    @Benchmark
+    public long fastParse() {
+        return FAST.parse(TEXT);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(TimestampFormatterBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,103 @@
+package test.util.time;
+
+import io.github.timemachinelab.util.time.TimestampFormatter;
+import io.github.timemachinelab.util.time.TimestampFormatter.Pattern;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TimestampFormatter高速格式化/解析的单元测试
+ *
+ * @author TimeMachineLab
+ * @version 1.0
+ */
+@DisplayName("TimestampFormatter时间戳格式化测试")
+public class TimestampFormatterTest {
+
+    private static final ZoneId[] ZONES = {
+            ZoneOffset.UTC, ZoneId.of("Asia/Shanghai"), ZoneId.of("America/New_York"), ZoneOffset.ofHoursMinutes(-9, -30)
+    };
+
+    private static DateTimeFormatter reference(Pattern pattern, ZoneId zone) {
+        switch (pattern) {
+            case ISO_INSTANT:
+                return DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
+            case ISO_OFFSET:
+                return DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSXXX").withZone(zone);
+            case DATE_TIME:
+                return DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(zone);
+            case DATE_TIME_SECONDS:
+                return DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(zone);
+            default:
+                return DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS").withZone(zone);
+        }
+    }
+
+    @Test
+    @DisplayName("测试与DateTimeFormatter输出一致并可往返解析")
+    public void testAgainstDateTimeFormatter() {
+        Random random = new Random(31);
+        byte[] buf = new byte[64];
+        StringBuilder sb = new StringBuilder();
+        for (Pattern pattern : Pattern.values()) {
+            for (ZoneId zone : ZONES) {
+                TimestampFormatter formatter = TimestampFormatter.of(pattern, zone);
+                DateTimeFormatter expected = reference(pattern, zone);
+                long millis = 1_700_000_000_000L;
+                for (int i = 0; i < 2000; i++) {
+                    // 交替测试同一秒内命中缓存与跨度较大的随机时间
+                    millis = i % 4 == 0 ? Math.floorMod(random.nextLong(), 4_000_000_000_000L) : millis + random.nextInt(700);
+                    String text = expected.format(Instant.ofEpochMilli(millis));
+                    assertEquals(text, formatter.format(millis), pattern + " " + zone);
+
+                    sb.setLength(0);
+                    assertEquals(text, formatter.formatTo(millis, sb).toString());
+                    int len = formatter.formatTo(millis, buf, 3);
+                    assertEquals(text, new String(buf, 3, len, StandardCharsets.ISO_8859_1));
+
+                    // 无偏移格式在夏令时重叠时段存在歧义，与java.time一样取较早的偏移
+                    long parsed = ZonedDateTime.parse(text, expected).toInstant().toEpochMilli();
+                    assertEquals(parsed, formatter.parse(text), pattern + " " + zone + " " + text);
+                    assertEquals(parsed, formatter.parse(buf, 3, len));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("测试解析带任意偏移的ISO时间")
+    public void testParseOffset() {
+        TimestampFormatter formatter = TimestampFormatter.of(Pattern.ISO_OFFSET, ZoneOffset.UTC);
+        long expected = Instant.parse("2024-02-29T12:34:56.789Z").toEpochMilli();
+        assertEquals(expected, formatter.parse("2024-02-29T20:34:56.789+08:00"));
+        assertEquals(expected, formatter.parse("2024-02-29T12:34:56.789Z"));
+        assertEquals(expected, TimestampFormatter.ISO_INSTANT.parse("2024-02-29T12:34:56.789Z"));
+    }
+
+    @Test
+    @DisplayName("测试非法输入")
+    public void testIllegalInput() {
+        TimestampFormatter formatter = TimestampFormatter.of(Pattern.DATE_TIME, ZoneOffset.UTC);
+        assertThrows(IllegalArgumentException.class, () -> formatter.parse("2023-02-29 00:00:00.000"));
+        assertThrows(IllegalArgumentException.class, () -> formatter.parse("2023-13-01 00:00:00.000"));
+        assertThrows(IllegalArgumentException.class, () -> formatter.parse("2023-01-01 24:00:00.000"));
+        assertThrows(IllegalArgumentException.class, () -> formatter.parse("2023-01-01 00:00:00.00"));
+        assertThrows(IllegalArgumentException.class, () -> formatter.parse("2023-01-01 00:00:00.0000"));
+        assertThrows(IllegalArgumentException.class, () -> formatter.parse("2023-01-01T00:00:00.000"));
+        assertThrows(IllegalArgumentException.class, () -> formatter.parse("2023-0a-01 00:00:00.000"));
+        assertThrows(IllegalArgumentException.class, () -> formatter.parse((CharSequence) null));
+        assertThrows(IllegalArgumentException.class, () -> formatter.parse(new byte[4], 2, 4));
+        assertThrows(IllegalArgumentException.class, () -> TimestampFormatter.of(null, ZoneOffset.UTC));
+        assertThrows(IllegalArgumentException.class, () -> formatter.format(Long.MAX_VALUE / 2));
+    }
+}
@@ -0,0 +1,27 @@
+package io.github.timemachinelab.common.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 自动响应包装注解
+ * 标记在Controller类或方法上，表示返回结果需要自动包装成ResponseEntity
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AutoResp {
+
+    /**
+     * 默认只输出data中的这些字段，如{"id", "name", "records.id"}，点号表示下级对象的字段；
+     * 请求带fields参数时以请求为准，方法上的值优先于类上的值，为空时输出全部字段
+     */
+    String[] fields() default {};
+
+    /**
+     * GET、HEAD请求按data生成弱ETag，If-None-Match命中时返回304、不写响应体；
+     * 时间戳和traceId不参与计算，方法或类上任一处开启即生效
+     */
+    boolean etag() default false;
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package io.github.timemachinelab.common.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 异常对应的错误结果
+ * 标记在异常类上，&#64;AutoResp方法抛出该异常（或未单独标记的子类）时按这里的status、code写出错误结果；
+ * ExceptionMappings中注册的映射优先于注解
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ErrorResult {
+
+    int status();
+
+    String code();
+
+    /**
+     * 消息模板，{message}替换为异常消息；为空时直接使用异常消息
+     */
+    String message() default "";
+}
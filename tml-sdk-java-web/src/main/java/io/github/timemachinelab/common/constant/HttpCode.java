@@ -4,4 +4,12 @@ public class HttpCode {
     public static final String SUCCESS = "tml.success";
 
     public static final String ERROR = "tml.error";
+
+    public static final String BAD_REQUEST = "tml.bad-request";
+
+    public static final String UNAUTHORIZED = "tml.unauthorized";
+
+    public static final String FORBIDDEN = "tml.forbidden";
+
+    public static final String NOT_FOUND = "tml.not-found";
 }
@@ -0,0 +1,49 @@
+package io.github.timemachinelab.common.exception;
+
+/**
+ * 业务异常
+ * 参数校验、鉴权、资源不存在等可预期的失败，抛出位置没有排查价值，默认不采集堆栈：
+ * 省去fillInStackTrace遍历线程栈的开销，高频拒绝的请求（登录失败、限流、校验不通过）不再为堆栈付费
+ * <p>
+ * &#64;AutoResp方法抛出时按异常自带的status、code写出错误结果，
+ * 也可以通过ExceptionMappings或&#64;ErrorResult为具体子类指定
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+public class TmlBizException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    private final String code;
+
+    public TmlBizException(int status, String code, String message) {
+        this(status, code, message, null);
+    }
+
+    public TmlBizException(int status, String code, String message, Throwable cause) {
+        this(status, code, message, cause, false);
+    }
+
+    /**
+     * @param writableStackTrace 需要定位抛出位置的子类可以开启堆栈
+     */
+    protected TmlBizException(int status, String code, String message, Throwable cause, boolean writableStackTrace) {
+        super(message, cause, true, writableStackTrace);
+        if (code == null || code.isEmpty()) {
+            throw new IllegalArgumentException(String.format("Illegal code: %s, code must not be empty", code));
+        }
+        this.status = status;
+        this.code = code;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getCode() {
+        return code;
+    }
+}
@@ -0,0 +1,23 @@
+package io.github.timemachinelab.common.exception;
+
+import io.github.timemachinelab.common.constant.HttpCode;
+import io.github.timemachinelab.common.constant.HttpStatus;
+
+/**
+ * 无权访问，默认403、tml.forbidden
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+public class TmlForbiddenException extends TmlBizException {
+
+    private static final long serialVersionUID = 1L;
+
+    public TmlForbiddenException(String message) {
+        this(HttpCode.FORBIDDEN, message);
+    }
+
+    public TmlForbiddenException(String code, String message) {
+        super(HttpStatus.FORBIDDEN, code, message);
+    }
+}
@@ -0,0 +1,23 @@
+package io.github.timemachinelab.common.exception;
+
+import io.github.timemachinelab.common.constant.HttpCode;
+import io.github.timemachinelab.common.constant.HttpStatus;
+
+/**
+ * 资源不存在，默认404、tml.not-found
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+public class TmlNotFoundException extends TmlBizException {
+
+    private static final long serialVersionUID = 1L;
+
+    public TmlNotFoundException(String message) {
+        this(HttpCode.NOT_FOUND, message);
+    }
+
+    public TmlNotFoundException(String code, String message) {
+        super(HttpStatus.NOT_FOUND, code, message);
+    }
+}
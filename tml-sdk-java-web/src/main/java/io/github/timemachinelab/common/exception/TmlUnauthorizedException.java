@@ -0,0 +1,23 @@
+package io.github.timemachinelab.common.exception;
+
+import io.github.timemachinelab.common.constant.HttpCode;
+import io.github.timemachinelab.common.constant.HttpStatus;
+
+/**
+ * 未登录或凭证无效，默认401、tml.unauthorized
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+public class TmlUnauthorizedException extends TmlBizException {
+
+    private static final long serialVersionUID = 1L;
+
+    public TmlUnauthorizedException(String message) {
+        this(HttpCode.UNAUTHORIZED, message);
+    }
+
+    public TmlUnauthorizedException(String code, String message) {
+        super(HttpStatus.UNAUTHORIZED, code, message);
+    }
+}
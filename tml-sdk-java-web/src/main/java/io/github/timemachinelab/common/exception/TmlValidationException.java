@@ -0,0 +1,23 @@
+package io.github.timemachinelab.common.exception;
+
+import io.github.timemachinelab.common.constant.HttpCode;
+import io.github.timemachinelab.common.constant.HttpStatus;
+
+/**
+ * 参数校验失败，默认400、tml.bad-request
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+public class TmlValidationException extends TmlBizException {
+
+    private static final long serialVersionUID = 1L;
+
+    public TmlValidationException(String message) {
+        this(HttpCode.BAD_REQUEST, message);
+    }
+
+    public TmlValidationException(String code, String message) {
+        super(HttpStatus.BAD_REQUEST, code, message);
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.timemachinelab.common.resp.result;
+
+/**
+ * 异常类型到错误结果的映射
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+public final class ExceptionMapping {
+
+    private static final String MESSAGE_PLACEHOLDER = "{message}";
+
+    private final int status;
+
+    private final String code;
+
+    private final String messageTemplate;
+
+    private final boolean placeholder;
+
+    /**
+     * @param messageTemplate 消息模板，{message}替换为异常消息；为null或空时直接使用异常消息
+     */
+    public ExceptionMapping(int status, String code, String messageTemplate) {
+        if (code == null || code.isEmpty()) {
+            throw new IllegalArgumentException(String.format("Illegal code: %s, code must not be empty", code));
+        }
+        this.status = status;
+        this.code = code;
+        this.messageTemplate = messageTemplate == null || messageTemplate.isEmpty() ? null : messageTemplate;
+        this.placeholder = this.messageTemplate != null && this.messageTemplate.contains(MESSAGE_PLACEHOLDER);
+    }
+
+    public Result<?> toResult(Throwable ex) {
+        return Result.error(status, code, message(ex), null);
+    }
+
+    public String message(Throwable ex) {
+        if (messageTemplate == null) {
+            return ex.getMessage();
+        }
+        if (!placeholder) {
+            return messageTemplate;
+        }
+        return messageTemplate.replace(MESSAGE_PLACEHOLDER, String.valueOf(ex.getMessage()));
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getMessageTemplate() {
+        return messageTemplate;
+    }
+}
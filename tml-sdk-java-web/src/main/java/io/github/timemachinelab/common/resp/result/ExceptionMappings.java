@@ -0,0 +1,93 @@
+package io.github.timemachinelab.common.resp.result;
+
+import io.github.timemachinelab.common.annotation.ErrorResult;
+import io.github.timemachinelab.common.exception.TmlBizException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.github.timemachinelab.common.constant.HttpCode.ERROR;
+import static io.github.timemachinelab.common.constant.HttpStatus.INTERNAL_SERVER_ERROR;
+
+/**
+ * 异常到错误结果的映射表
+ * 按异常类型沿父类链查找，每一级先查注册的映射、再查类上的&#64;ErrorResult，取最近的一级：
+ * <ul>
+ *     <li>都没有找到时，TmlBizException使用异常自带的status、code</li>
+ *     <li>其余异常按500、tml.error写出</li>
+ * </ul>
+ * 每个异常类型的查找结果缓存起来，之后同类型的异常只做一次Map查找，不再反射读取注解；
+ * 映射应在启动时注册完成，注册会清空已缓存的查找结果
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+public class ExceptionMappings {
+
+    private static final ExceptionMapping NONE = new ExceptionMapping(INTERNAL_SERVER_ERROR, ERROR, null);
+
+    private final Map<Class<?>, ExceptionMapping> registered = new ConcurrentHashMap<>();
+
+    private final Map<Class<?>, ExceptionMapping> resolved = new ConcurrentHashMap<>();
+
+    /**
+     * 使用异常消息作为错误消息
+     */
+    public ExceptionMappings register(Class<? extends Throwable> type, int status, String code) {
+        return register(type, status, code, null);
+    }
+
+    /**
+     * @param messageTemplate 消息模板，{message}替换为异常消息；为null或空时直接使用异常消息
+     */
+    public ExceptionMappings register(Class<? extends Throwable> type, int status, String code, String messageTemplate) {
+        if (type == null) {
+            throw new IllegalArgumentException("Illegal exception type: null");
+        }
+        registered.put(type, new ExceptionMapping(status, code, messageTemplate));
+        resolved.clear();
+        return this;
+    }
+
+    /**
+     * @param ex 处理器方法抛出的异常
+     * @return 写回客户端的错误结果
+     */
+    public Result<?> resolve(Throwable ex) {
+        ExceptionMapping mapping = find(ex.getClass());
+        if (mapping != null) {
+            return mapping.toResult(ex);
+        }
+        if (ex instanceof TmlBizException) {
+            TmlBizException bizEx = (TmlBizException) ex;
+            return Result.error(bizEx.getStatus(), bizEx.getCode(), bizEx.getMessage(), null);
+        }
+        return NONE.toResult(ex);
+    }
+
+    /**
+     * @return 注册或注解指定的映射，没有时为null
+     */
+    public ExceptionMapping find(Class<? extends Throwable> type) {
+        ExceptionMapping mapping = resolved.get(type);
+        if (mapping == null) {
+            mapping = lookup(type);
+            resolved.put(type, mapping);
+        }
+        return mapping == NONE ? null : mapping;
+    }
+
+    private ExceptionMapping lookup(Class<?> type) {
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            ExceptionMapping mapping = registered.get(current);
+            if (mapping != null) {
+                return mapping;
+            }
+            ErrorResult errorResult = current.getDeclaredAnnotation(ErrorResult.class);
+            if (errorResult != null) {
+                return new ExceptionMapping(errorResult.status(), errorResult.code(), errorResult.message());
+            }
+        }
+        return NONE;
+    }
+}
@@ -0,0 +1,13 @@
+package io.github.timemachinelab.common.resp.result;
+
+/**
+ * 自动配置创建ExceptionMappings后回调，用于注册第三方异常等无法标注&#64;ErrorResult的类型
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+@FunctionalInterface
+public interface ExceptionMappingsCustomizer {
+
+    void customize(ExceptionMappings mappings);
+}
@@ -2,13 +2,15 @@ package io.github.timemachinelab.common.resp.result;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import io.github.timemachinelab.util.time.HybridLogicalClock;
 import io.github.timemachinelab.util.time.TimeUtil;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import static io.github.timemachinelab.common.constant.HttpCode.ERROR;
 import static io.github.timemachinelab.common.constant.HttpCode.SUCCESS;
@@ -19,22 +21,52 @@ public class Result<T> implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * 开启链路追踪且traceId尚未确定时traceId字段的占位值（按引用比较），首次读取（通常是序列化时）再生成，
+     * 被{@link #withTraceId(String)}覆盖的traceId不会白白生成
+     */
+    private static final String PENDING_TRACE_ID = new String("pending");
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Result, String> TRACE_ID =
+            AtomicReferenceFieldUpdater.newUpdater(Result.class, String.class, "traceId");
+
     private Integer status;
     private String code;
     private String message;
     private T data;
-    private Long timestamp;
+    private long timestamp;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile String traceId;
 
+    /**
+     * 混合逻辑时钟时间戳，开启hlcEnabled时生成，用于跨节点按因果顺序合并日志，0表示未生成
+     */
     @JsonInclude(JsonInclude.Include.NON_NULL)
-    private String traceId;
+    private long hlc;
 
+    /**
+     * 首次添加扩展属性时创建，大多数响应没有扩展属性
+     */
     @JsonInclude(JsonInclude.Include.NON_EMPTY)
     private Map<String, Object> extensions;
 
     private Result() {
-        this.traceId = generateTraceId();
-        this.timestamp = generateTimestamp();
-        this.extensions = new HashMap<>();
+        ResultConfig config = ResultConfigHolder.getConfig();
+        this.timestamp = generateTimestamp(config);
+        this.hlc = generateHlc(config);
+        if (config != null && config.isTraceEnabled()) {
+            this.traceId = PENDING_TRACE_ID;
+        }
+    }
+
+    private Result(Integer status, String code, String message, T data) {
+        this();
+        this.status = status;
+        this.code = code;
+        this.message = message;
+        this.data = data;
     }
 
     public Integer getStatus() {
@@ -57,39 +89,73 @@ public class Result<T> implements Serializable {
         return timestamp;
     }
 
+    /**
+     * 首次调用时确定traceId：优先使用{@link TraceContext}中当前请求的traceId，否则按配置的策略生成；
+     * 多个线程同时首次读取时只有一个生成结果被采用，所有线程读到同一个traceId
+     */
     public String getTraceId() {
-        return traceId;
+        String id = traceId;
+        if (id == PENDING_TRACE_ID) {
+            id = resolveTraceId();
+            if (!TRACE_ID.compareAndSet(this, PENDING_TRACE_ID, id)) {
+                id = traceId;
+            }
+        }
+        return id;
     }
 
+    public Long getHlc() {
+        return hlc != 0 ? hlc : null;
+    }
+
+    /**
+     * @return 扩展属性，可直接修改；Map在首次调用本方法或{@link #addExtension(String, Object)}时创建
+     */
     public Map<String, Object> getExtensions() {
+        if (extensions == null) {
+            extensions = new HashMap<>();
+        }
         return extensions;
     }
 
-    private String generateTraceId() {
-        ResultConfig config = ResultConfigHolder.getConfig();
-        if (config == null || !config.isTraceEnabled()) {
-            return null;
-        }
+    /**
+     * 判断是否有扩展属性，不会创建Map，序列化等只读场景应先调用本方法
+     */
+    public boolean hasExtensions() {
+        return extensions != null && !extensions.isEmpty();
+    }
 
-        TraceIdGenerateStrategy strategy = config.getTraceIdStrategy();
-        switch (strategy) {
-            case SNOWFLAKE:
-                return String.valueOf(System.currentTimeMillis() << 12 | ThreadLocalRandom.current().nextInt(4096));
-            case TIMESTAMP_RANDOM:
-                return System.currentTimeMillis() + "_" + ThreadLocalRandom.current().nextInt(100000);
-            default:
-                return UUID.randomUUID().toString().replace("-", "");
+    private static String resolveTraceId() {
+        String contextTraceId = TraceContext.getTraceId();
+        if (contextTraceId != null) {
+            return contextTraceId;
         }
+        ResultConfig config = ResultConfigHolder.getConfig();
+        return TraceIdGenerators.generate(config != null ? config.getTraceIdStrategy() : null);
     }
 
-    private Long generateTimestamp() {
-        ResultConfig config = ResultConfigHolder.getConfig();
+    private static long generateTimestamp(ResultConfig config) {
         if (config == null) {
             return TimeUtil.getCurrentTimestamp();
         }
+        if (config.isCoarseClockEnabled()) {
+            return TimeUtil.getCoarseTimestamp(config.getTimestampPrecision());
+        }
         return TimeUtil.getCurrentTimestamp(config.getTimestampPrecision());
     }
 
+    private static long generateHlc(ResultConfig config) {
+        if (config == null || !config.isHlcEnabled()) {
+            return 0L;
+        }
+        return HybridLogicalClock.global().now();
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        getTraceId();
+        out.defaultWriteObject();
+    }
+
     public static <T> Result<T> success() {
         return success("success", SUCCESS, null);
     }
@@ -103,12 +169,7 @@ public class Result<T> implements Serializable {
     }
 
     public static <T> Result<T> success(String code, String message, T data) {
-        return new Builder<T>()
-                .status(OK)
-                .code(code)
-                .message(message)
-                .data(data)
-                .build();
+        return new Result<>(OK, code, message, data);
     }
 
     public static <T> Result<T> error() {
@@ -128,12 +189,7 @@ public class Result<T> implements Serializable {
     }
 
     public static <T> Result<T> error(Integer status, String code, String message, T data) {
-        return new Builder<T>()
-                .status(status)
-                .code(code)
-                .message(message)
-                .data(data)
-                .build();
+        return new Result<>(status, code, message, data);
     }
 
     public static class Builder<T> {
@@ -164,17 +220,19 @@ public class Result<T> implements Serializable {
         }
 
         public Builder<T> traceId(String traceId) {
-            result.traceId = traceId;
+            result.withTraceId(traceId);
             return this;
         }
 
         public Builder<T> extension(String key, Object value) {
-            result.extensions.put(key, value);
+            result.addExtension(key, value);
             return this;
         }
 
         public Builder<T> extensions(Map<String, Object> extensions) {
-            result.extensions.putAll(extensions);
+            if (!extensions.isEmpty()) {
+                result.getExtensions().putAll(extensions);
+            }
             return this;
         }
 
@@ -194,7 +252,7 @@ public class Result<T> implements Serializable {
     }
 
     public Result<T> addExtension(String key, Object value) {
-        this.extensions.put(key, value);
+        getExtensions().put(key, value);
         return this;
     }
 
@@ -206,6 +264,6 @@ public class Result<T> implements Serializable {
     @Override
     public String toString() {
         return String.format("Result{status=%d, code='%s', message='%s', data=%s, traceId='%s', timestamp=%d}",
-                status, code, message, data, traceId, timestamp);
+                status, code, message, data, getTraceId(), timestamp);
     }
 }
@@ -10,6 +10,22 @@ public class ResultConfig {
 
     private TimePrecision timestampPrecision = TimePrecision.SECONDS;
 
+    private boolean coarseClockEnabled = false;
+
+    private long coarseClockResolutionMillis = 1L;
+
+    private long snowflakeDatacenterId = 0L;
+
+    private long snowflakeWorkerId = 0L;
+
+    private String segmentBizTag = "tml-trace";
+
+    private int segmentStep = 1000;
+
+    private boolean hlcEnabled = false;
+
+    private String hlcHeaderName = "X-Tml-Hlc";
+
     public boolean isTraceEnabled() {
         return traceEnabled;
     }
@@ -33,4 +49,68 @@ public class ResultConfig {
     public void setTimestampPrecision(TimePrecision timestampPrecision) {
         this.timestampPrecision = timestampPrecision;
     }
+
+    public boolean isCoarseClockEnabled() {
+        return coarseClockEnabled;
+    }
+
+    public void setCoarseClockEnabled(boolean coarseClockEnabled) {
+        this.coarseClockEnabled = coarseClockEnabled;
+    }
+
+    public long getCoarseClockResolutionMillis() {
+        return coarseClockResolutionMillis;
+    }
+
+    public void setCoarseClockResolutionMillis(long coarseClockResolutionMillis) {
+        this.coarseClockResolutionMillis = coarseClockResolutionMillis;
+    }
+
+    public long getSnowflakeDatacenterId() {
+        return snowflakeDatacenterId;
+    }
+
+    public void setSnowflakeDatacenterId(long snowflakeDatacenterId) {
+        this.snowflakeDatacenterId = snowflakeDatacenterId;
+    }
+
+    public long getSnowflakeWorkerId() {
+        return snowflakeWorkerId;
+    }
+
+    public void setSnowflakeWorkerId(long snowflakeWorkerId) {
+        this.snowflakeWorkerId = snowflakeWorkerId;
+    }
+
+    public String getSegmentBizTag() {
+        return segmentBizTag;
+    }
+
+    public void setSegmentBizTag(String segmentBizTag) {
+        this.segmentBizTag = segmentBizTag;
+    }
+
+    public int getSegmentStep() {
+        return segmentStep;
+    }
+
+    public void setSegmentStep(int segmentStep) {
+        this.segmentStep = segmentStep;
+    }
+
+    public boolean isHlcEnabled() {
+        return hlcEnabled;
+    }
+
+    public void setHlcEnabled(boolean hlcEnabled) {
+        this.hlcEnabled = hlcEnabled;
+    }
+
+    public String getHlcHeaderName() {
+        return hlcHeaderName;
+    }
+
+    public void setHlcHeaderName(String hlcHeaderName) {
+        this.hlcHeaderName = hlcHeaderName;
+    }
 }
@@ -1,5 +1,7 @@
 package io.github.timemachinelab.common.resp.result;
 
+import io.github.timemachinelab.util.time.CachedClock;
+
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -17,6 +19,12 @@ public final class ResultConfigHolder {
     public static void setConfig(ResultConfig config) {
         if (Objects.nonNull(config)) {
             CONFIG.set(config);
+            TraceIdGenerators.configure(config);
+            if (config.isCoarseClockEnabled()) {
+                CachedClock.startGlobal(config.getCoarseClockResolutionMillis());
+            } else {
+                CachedClock.stopGlobal();
+            }
         }
     }
 }
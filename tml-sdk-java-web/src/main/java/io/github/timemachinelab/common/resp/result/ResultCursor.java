@@ -0,0 +1,22 @@
+package io.github.timemachinelab.common.resp.result;
+
+/**
+ * 游标式数据源
+ * &#64;AutoResp方法返回ResultCursor时，data按JSON数组逐个元素写出，写完（或出错）后关闭游标，
+ * 适合数据库游标、分页拉取等无法一次性放进内存的大结果集
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+@FunctionalInterface
+public interface ResultCursor<T> extends AutoCloseable {
+
+    /**
+     * @return 下一个元素，返回null表示结束
+     */
+    T next();
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.timemachinelab.common.resp.result;
+
+/**
+ * 当前请求的链路上下文
+ * 由接入方的链路追踪过滤器/拦截器在请求开始时设置、结束时清理，
+ * 开启链路追踪时Result优先使用这里的traceId，使响应与日志、上游调用共用同一个traceId
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+public final class TraceContext {
+
+    private static final ThreadLocal<String> TRACE_ID = new ThreadLocal<>();
+
+    private TraceContext() {
+    }
+
+    /**
+     * @param traceId 当前请求的traceId，为null时等同于{@link #clear()}
+     */
+    public static void setTraceId(String traceId) {
+        if (traceId == null) {
+            TRACE_ID.remove();
+        } else {
+            TRACE_ID.set(traceId);
+        }
+    }
+
+    /**
+     * @return 当前请求的traceId，未设置时为null
+     */
+    public static String getTraceId() {
+        return TRACE_ID.get();
+    }
+
+    public static void clear() {
+        TRACE_ID.remove();
+    }
+}
@@ -3,5 +3,13 @@ package io.github.timemachinelab.common.resp.result;
 public enum TraceIdGenerateStrategy {
     UUID,
     SNOWFLAKE,
-    TIMESTAMP_RANDOM
+    TIMESTAMP_RANDOM,
+    /** UUID v4，基于ThreadLocalRandom，32位十六进制 */
+    UUID_V4,
+    /** 按毫秒有序的UUID v7，32位十六进制 */
+    UUID_V7,
+    /** 按毫秒有序的ULID，26位Crockford Base32 */
+    ULID,
+    /** 号段模式的递增数字ID，号段来源见TraceIdGenerators#setSegmentSource */
+    SEGMENT
 }
@@ -0,0 +1,121 @@
+package io.github.timemachinelab.common.resp.result;
+
+import io.github.timemachinelab.util.id.IdUtil;
+import io.github.timemachinelab.util.id.InMemorySegmentSource;
+import io.github.timemachinelab.util.id.SegmentIdGenerator;
+import io.github.timemachinelab.util.id.SegmentSource;
+import io.github.timemachinelab.util.id.SnowflakeIdGenerator;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 链路ID生成
+ * 按配置的策略生成traceId，有状态的生成器（如雪花算法）随配置切换重建
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+public final class TraceIdGenerators {
+
+    private static volatile SnowflakeIdGenerator snowflake = SnowflakeIdGenerator.builder().build();
+
+    private static volatile SegmentSource segmentSource = new InMemorySegmentSource();
+
+    /** 首次使用SEGMENT策略时创建，号段来源或配置变更时置空重建 */
+    private static volatile SegmentIdGenerator segment;
+
+    private TraceIdGenerators() {
+    }
+
+    /**
+     * 按配置重建有状态的生成器，由{@link ResultConfigHolder#setConfig(ResultConfig)}调用
+     */
+    static void configure(ResultConfig config) {
+        SnowflakeIdGenerator current = snowflake;
+        if (current.getDatacenterId() != config.getSnowflakeDatacenterId()
+                || current.getWorkerId() != config.getSnowflakeWorkerId()) {
+            snowflake = SnowflakeIdGenerator.builder()
+                    .datacenterId(config.getSnowflakeDatacenterId())
+                    .workerId(config.getSnowflakeWorkerId())
+                    .build();
+        }
+        SegmentIdGenerator currentSegment = segment;
+        if (currentSegment != null && (!currentSegment.getBizTag().equals(config.getSegmentBizTag())
+                || currentSegment.getStep() != config.getSegmentStep())) {
+            segment = null;
+        }
+    }
+
+    /**
+     * 设置号段来源，默认为进程内来源（重启后从1开始，仅进程内唯一），
+     * 多实例部署使用SEGMENT策略时应替换为基于数据库等的共享来源
+     *
+     * @param source 号段来源
+     */
+    public static synchronized void setSegmentSource(SegmentSource source) {
+        if (source == null) {
+            throw new IllegalArgumentException("Illegal source: null");
+        }
+        segmentSource = source;
+        segment = null;
+    }
+
+    /**
+     * @return 当前配置的雪花算法生成器
+     */
+    public static SnowflakeIdGenerator snowflake() {
+        return snowflake;
+    }
+
+    /**
+     * @return 当前配置的号段生成器，首次调用时向号段来源申请第一个号段
+     */
+    public static SegmentIdGenerator segment() {
+        SegmentIdGenerator current = segment;
+        if (current != null) {
+            return current;
+        }
+        synchronized (TraceIdGenerators.class) {
+            if (segment == null) {
+                ResultConfig config = ResultConfigHolder.getConfig();
+                if (config == null) {
+                    // 与Result一致，取不到配置时按默认配置创建
+                    config = new ResultConfig();
+                }
+                segment = SegmentIdGenerator.builder(segmentSource, config.getSegmentBizTag())
+                        .step(config.getSegmentStep())
+                        .build();
+            }
+            return segment;
+        }
+    }
+
+    /**
+     * 按策略生成traceId
+     *
+     * @param strategy 生成策略，为null时使用UUID
+     * @return traceId
+     */
+    public static String generate(TraceIdGenerateStrategy strategy) {
+        if (strategy == null) {
+            strategy = TraceIdGenerateStrategy.UUID;
+        }
+        switch (strategy) {
+            case SNOWFLAKE:
+                return Long.toString(snowflake.nextId());
+            case SEGMENT:
+                return Long.toString(segment().nextId());
+            case UUID_V4:
+                return IdUtil.uuidV4();
+            case UUID_V7:
+                return IdUtil.uuidV7();
+            case ULID:
+                return IdUtil.ulid();
+            case TIMESTAMP_RANDOM:
+                return System.currentTimeMillis() + "_" + ThreadLocalRandom.current().nextInt(100000);
+            default:
+                return UUID.randomUUID().toString().replace("-", "");
+        }
+    }
+}
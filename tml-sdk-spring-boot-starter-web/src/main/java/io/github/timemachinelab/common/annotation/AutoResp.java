@@ -1,15 +0,0 @@
-package io.github.timemachinelab.common.annotation;
-
-import java.lang.annotation.ElementType;
-import java.lang.annotation.Retention;
-import java.lang.annotation.RetentionPolicy;
-import java.lang.annotation.Target;
-
-/**
- * 自动响应包装注解
- * 标记在Controller类或方法上，表示返回结果需要自动包装成ResponseEntity
- */
-@Target({ElementType.TYPE, ElementType.METHOD})
-@Retention(RetentionPolicy.RUNTIME)
-public @interface AutoResp {
-}
\ No newline at end of file
@@ -1,22 +1,27 @@
 package io.github.timemachinelab.common.resp.result;
 
-import io.github.timemachinelab.common.annotation.AutoResp;
-
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.MethodParameter;
-import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
 
-import java.lang.reflect.Method;
-import java.util.Objects;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.converter.HttpMessageNotWritableException;
 import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.util.StreamUtils;
 
 /**
  * 自动响应包装增强器
@@ -28,41 +33,40 @@ import org.springframework.http.converter.StringHttpMessageConverter;
  */
 @RestControllerAdvice
 public class AutoRespAdvice implements ResponseBodyAdvice<Object> {
+
+    private static final MediaType APPLICATION_JSON_UTF8 = new MediaType(MediaType.APPLICATION_JSON, StandardCharsets.UTF_8);
     
     /**
      * 判断是否需要处理响应体
-     * 只处理标记了@AutoResp注解的Controller方法
-     * 优先使用JSON转换器，确保Result对象能正确序列化
+     * 只处理标记了@AutoResp注解的Controller方法，注解解析结果按处理器方法缓存
      */
     @Override
     public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
-
-        Method method = returnType.getMethod();
-
-        if(Objects.nonNull(method)){
-            // 检查方法级别的@AutoResp注解
-            if (AnnotatedElementUtils.hasAnnotation(method, AutoResp.class)) {
-                return true;
-            }
-            // 检查类级别的@AutoResp注解
-            if (AnnotatedElementUtils.hasAnnotation(returnType.getDeclaringClass(), AutoResp.class)) {
-                return true;
-            }
-        }
-
-        return false;
+        return AutoRespHandlerMetadata.forReturnType(returnType).isEnabled();
     }
     
     private final ObjectMapper objectMapper;
 
+    private final ResultBinaryConverters binaryConverters;
+
     public AutoRespAdvice(ObjectMapper objectMapper) {
+        this(objectMapper, ResultBinaryConverters.none());
+    }
+
+    @Autowired
+    public AutoRespAdvice(ObjectMapper objectMapper, ResultBinaryConverters binaryConverters) {
         this.objectMapper = objectMapper;
+        this.binaryConverters = binaryConverters;
     }
     
     /**
      * 在响应体写入前进行处理
      * 将原始返回值包装成Result对象
-     * 特殊处理String类型以确保正确序列化
+     * String类型直接序列化到响应输出流
+     * Stream、Iterator、ResultCursor作为data逐个元素流式写出，不在内存中汇总
+     * 请求或注解指定了字段集时只输出data中的这些字段
+     * 开启了ETag且If-None-Match命中时返回304
+     * 开启了二进制格式时添加Vary: Accept
      */
     @Override
     public Object beforeBodyWrite(Object body, 
@@ -72,26 +76,90 @@ public class AutoRespAdvice implements ResponseBodyAdvice<Object> {
                                 ServerHttpRequest request,
                                 ServerHttpResponse response) {
 
+        if (response instanceof ServletServerHttpResponse) {
+            binaryConverters.varyOnAccept(((ServletServerHttpResponse) response).getServletResponse());
+        }
         if (body instanceof Result) {
             return body;
         }
 
-        Result<?> result = Result.success(body);
-        
-        // 如果是StringHttpMessageConverter，需要将Result序列化为JSON字符串
-        if (StringHttpMessageConverter.class.isAssignableFrom(selectedConverterType)) {
-            try {
-                response.getHeaders().set("Content-Type", "application/json;charset=UTF-8");
-                return objectMapper.writeValueAsString(result);
-            } catch (JsonProcessingException e) {
-                try {
-                    return objectMapper.writeValueAsString(Result.error("tml-foundation serialize error: " + e.getMessage()));
-                } catch (JsonProcessingException ex) {
-                    return "{\"code\":500,\"message\":\"tml-foundation serialize error!\",\"data\":null}";
-                }
+        AutoRespHandlerMetadata metadata = AutoRespHandlerMetadata.forReturnType(returnType);
+        boolean string = StringHttpMessageConverter.class.isAssignableFrom(selectedConverterType);
+        Object data = string ? body : StreamingData.wrap(body, fields(metadata, request));
+
+        if (metadata.isEtag() && notModified(data, selectedContentType, request, response)) {
+            return null;
+        }
+
+        // String返回值选中的是StringHttpMessageConverter，直接把Result按UTF-8写入响应输出流，
+        // 不经过中间的JSON字符串，返回null让转换器跳过写出
+        if (string) {
+            writeDirectly(Result.success(data), selectedContentType, response);
+            return null;
+        }
+
+        return Result.success(data);
+    }
+
+    /**
+     * 请求参数fields优先，没有时使用&#64;AutoResp(fields = ...)
+     */
+    private static ResultFields fields(AutoRespHandlerMetadata metadata, ServerHttpRequest request) {
+        if (request instanceof ServletServerHttpRequest) {
+            String spec = ((ServletServerHttpRequest) request).getServletRequest().getParameter(ResultFields.PARAMETER);
+            ResultFields fields = ResultFields.parse(spec);
+            if (fields != null) {
+                return fields;
             }
         }
+        return metadata.getFields();
+    }
+
+    /**
+     * GET、HEAD请求按data生成弱ETag，If-None-Match命中时已设置304，返回null不写响应体
+     * ResultVersionSupplier未命中时按版本生成的ETag在这里随响应体写出，不再按data计算
+     * 处理器自行设置了ETag、非200状态以及流式data不处理
+     * 协商出的二进制格式参与计算，JSON与二进制响应的ETag不同
+     */
+    private boolean notModified(Object data, MediaType contentType, ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest) || !(response instanceof ServletServerHttpResponse)) {
+            return false;
+        }
+        HttpServletRequest servletRequest = ((ServletServerHttpRequest) request).getServletRequest();
+        HttpServletResponse servletResponse = ((ServletServerHttpResponse) response).getServletResponse();
+        if (!AutoRespETagInterceptor.isConditionalMethod(servletRequest.getMethod())
+                || servletResponse.getStatus() != HttpServletResponse.SC_OK
+                || servletResponse.containsHeader(HttpHeaders.ETAG)
+                || response.getHeaders().getETag() != null) {
+            return false;
+        }
+        Object versionETag = servletRequest.getAttribute(AutoRespETagInterceptor.VERSION_ETAG_ATTRIBUTE);
+        if (versionETag != null) {
+            // 写入ServerHttpResponse的响应头，开始写响应体时才提交到Servlet响应
+            response.getHeaders().setETag((String) versionETag);
+            return false;
+        }
+        if (data instanceof StreamingData) {
+            return false;
+        }
+        ResultBinaryHttpMessageConverter binary = binaryConverters.find(contentType);
+        String etag = ResultETag.of(objectMapper, data, binary != null ? binary.getFormat() : null);
+        return new ServletWebRequest(servletRequest, servletResponse).checkNotModified(etag);
+    }
 
-        return result;
+    /**
+     * Jackson的UTF8JsonGenerator使用线程复用的BufferRecycler缓冲区编码，写满即刷到输出流，
+     * 不为整个响应分配String或byte[]
+     * 协商出开启的二进制格式时（StringHttpMessageConverter支持任意媒体类型）按该格式编码
+     */
+    private void writeDirectly(Result<?> result, MediaType contentType, ServerHttpResponse response) {
+        ResultBinaryHttpMessageConverter binary = binaryConverters.find(contentType);
+        ObjectMapper mapper = binary != null ? binary.getObjectMapper() : objectMapper;
+        response.getHeaders().setContentType(binary != null ? contentType : APPLICATION_JSON_UTF8);
+        try {
+            mapper.writeValue(StreamUtils.nonClosing(response.getBody()), result);
+        } catch (IOException e) {
+            throw new HttpMessageNotWritableException("tml-foundation serialize error: " + e.getMessage(), e);
+        }
     }
 }
@@ -0,0 +1,51 @@
+package io.github.timemachinelab.common.resp.result;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.Callable;
+
+import static io.github.timemachinelab.common.constant.HttpCode.ERROR;
+import static io.github.timemachinelab.common.constant.HttpStatus.SERVICE_UNAVAILABLE;
+
+/**
+ * &#64;AutoResp异步请求超时拦截器
+ * 异步返回值（CompletableFuture、DeferredResult、Callable、WebAsyncTask）超时时，
+ * 默认由DefaultHandlerExceptionResolver直接返回503，AutoRespExceptionResolver排在它之后处理不到；
+ * 这里在超时回调中把&#64;AutoResp方法的异步结果设为错误结果，经异步分派按普通返回值写出
+ * <p>
+ * WebAsyncTask的onTimeout、DeferredResult的timeoutResult/onTimeout先于本拦截器执行，已设置超时结果时不覆盖
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+public class AutoRespAsyncInterceptor implements CallableProcessingInterceptor, DeferredResultProcessingInterceptor {
+
+    @Override
+    public <T> Object handleTimeout(NativeWebRequest request, Callable<T> task) {
+        return isAutoResp(request) ? timeoutResult() : RESULT_NONE;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> boolean handleTimeout(NativeWebRequest request, DeferredResult<T> deferredResult) {
+        if (!isAutoResp(request)) {
+            return true;
+        }
+        ((DeferredResult<Object>) deferredResult).setResult(timeoutResult());
+        return false;
+    }
+
+    private static boolean isAutoResp(NativeWebRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return AutoRespHandlerMetadata.forHandler(handler).isEnabled();
+    }
+
+    private static Result<?> timeoutResult() {
+        return Result.error(SERVICE_UNAVAILABLE, ERROR, "async request timeout", null);
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.timemachinelab.common.resp.result;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 按数据版本的条件请求
+ * &#64;AutoResp(etag = true)的Controller实现了{@link ResultVersionSupplier}时，在处理器方法执行前按版本生成ETag，
+ * If-None-Match命中时返回304并跳过处理器方法；未命中时ETag记录在请求属性上，
+ * 由AutoRespAdvice随成功结果写出，处理器方法抛出异常时错误结果不会带上该ETag，AutoRespAdvice也不再按data计算
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+public class AutoRespETagInterceptor implements HandlerInterceptor {
+
+    /** 未命中时按版本生成的ETag */
+    static final String VERSION_ETAG_ATTRIBUTE = AutoRespETagInterceptor.class.getName() + ".VERSION_ETAG";
+
+    private final ResultBinaryConverters binaryConverters;
+
+    public AutoRespETagInterceptor() {
+        this(ResultBinaryConverters.none());
+    }
+
+    /**
+     * @param binaryConverters 开启的二进制格式，此时内容协商尚未发生，按Accept请求头确定格式参与ETag计算
+     */
+    public AutoRespETagInterceptor(ResultBinaryConverters binaryConverters) {
+        this.binaryConverters = binaryConverters;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod) || request.getDispatcherType() == DispatcherType.ASYNC
+                || !isConditionalMethod(request.getMethod())) {
+            return true;
+        }
+        HandlerMethod handlerMethod = (HandlerMethod) handler;
+        Object bean = handlerMethod.getBean();
+        if (!(bean instanceof ResultVersionSupplier) || !AutoRespHandlerMetadata.forHandler(handler).isEtag()) {
+            return true;
+        }
+        Object version = ((ResultVersionSupplier) bean).resultVersion(handlerMethod.getMethod(), request);
+        if (version == null) {
+            return true;
+        }
+        ResultBinaryHttpMessageConverter binary = binaryConverters.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+        binaryConverters.varyOnAccept(response);
+        String etag = ResultETag.ofVersion(version, binary != null ? binary.getFormat() : null);
+        // 不带响应的ServletWebRequest只比较If-None-Match，不写响应头
+        if (new ServletWebRequest(request).checkNotModified(etag)) {
+            new ServletWebRequest(request, response).checkNotModified(etag);
+            return false;
+        }
+        request.setAttribute(VERSION_ETAG_ATTRIBUTE, etag);
+        return true;
+    }
+
+    /**
+     * @return 是否GET、HEAD请求，其余方法不生成ETag
+     */
+    static boolean isConditionalMethod(String method) {
+        return "GET".equals(method) || "HEAD".equals(method);
+    }
+}
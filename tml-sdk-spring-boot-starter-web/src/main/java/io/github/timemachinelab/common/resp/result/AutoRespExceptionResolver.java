@@ -1,26 +1,44 @@
 package io.github.timemachinelab.common.resp.result;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.github.timemachinelab.common.annotation.AutoResp;
 import org.springframework.core.Ordered;
-import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.web.method.HandlerMethod;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 import org.springframework.web.servlet.ModelAndView;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
-import java.util.Objects;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 
 public class AutoRespExceptionResolver implements HandlerExceptionResolver, Ordered {
 
     private final ObjectMapper objectMapper;
 
+    private final ResultBinaryConverters binaryConverters;
+
+    private final ExceptionMappings exceptionMappings;
+
     public AutoRespExceptionResolver(ObjectMapper objectMapper) {
+        this(objectMapper, ResultBinaryConverters.none());
+    }
+
+    public AutoRespExceptionResolver(ObjectMapper objectMapper, ResultBinaryConverters binaryConverters) {
+        this(objectMapper, binaryConverters, new ExceptionMappings());
+    }
+
+    public AutoRespExceptionResolver(ObjectMapper objectMapper, ResultBinaryConverters binaryConverters,
+                                     ExceptionMappings exceptionMappings) {
         this.objectMapper = objectMapper;
+        this.binaryConverters = binaryConverters;
+        this.exceptionMappings = exceptionMappings;
     }
 
     @Override
@@ -30,17 +48,33 @@ public class AutoRespExceptionResolver implements HandlerExceptionResolver, Orde
 
     @Override
     public ModelAndView resolveException(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
-        HandlerMethod handlerMethod = handler instanceof HandlerMethod ? (HandlerMethod) handler : null;
-        if (!shouldHandle(handlerMethod)) {
+        if (!AutoRespHandlerMetadata.forHandler(handler).isEnabled()) {
             return null;
         }
 
+        // 流式响应写出过程中出错时响应已提交，无法再改写为错误结果
+        if (response.isCommitted()) {
+            return null;
+        }
         try {
-            Result<?> result = Result.error(500, "tml.error", ex.getMessage(), null);
+            Result<?> result = exceptionMappings.resolve(unwrap(ex));
+            // 丢弃尚未提交的部分输出
+            response.resetBuffer();
+            removeETag(response);
             response.setStatus(200);
-            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
-            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-            response.getWriter().write(objectMapper.writeValueAsString(result));
+            binaryConverters.varyOnAccept(response);
+            ObjectMapper mapper = objectMapper;
+            // 错误结果不经过内容协商，按Accept请求头选择开启的二进制格式
+            ResultBinaryHttpMessageConverter binary = binaryConverters.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+            if (binary != null) {
+                mapper = binary.getObjectMapper();
+                response.setContentType(binary.getFormat().getMediaTypes().get(0).toString());
+            } else {
+                response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            }
+            // 直接编码到响应输出流，不生成中间的byte[]
+            mapper.writeValue(StreamUtils.nonClosing(response.getOutputStream()), result);
             response.flushBuffer();
             return new ModelAndView();
         } catch (Exception writeEx) {
@@ -48,15 +82,33 @@ public class AutoRespExceptionResolver implements HandlerExceptionResolver, Orde
         }
     }
 
-    private boolean shouldHandle(HandlerMethod handlerMethod) {
-        if (Objects.isNull(handlerMethod)) {
-            return false;
+    /**
+     * 转换器在AutoRespAdvice设置了ETag之后写出失败时，错误结果不能带着成功结果的ETag被缓存；
+     * Servlet API不能删除单个响应头，只在有ETag时重置响应并恢复其余响应头（包括Set-Cookie）
+     */
+    private static void removeETag(HttpServletResponse response) {
+        if (!response.containsHeader(HttpHeaders.ETAG)) {
+            return;
+        }
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (String name : response.getHeaderNames()) {
+            if (!HttpHeaders.ETAG.equalsIgnoreCase(name) && !HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)
+                    && !HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                headers.putIfAbsent(name, new ArrayList<>(response.getHeaders(name)));
+            }
         }
-        Method method = handlerMethod.getMethod();
-        if (AnnotatedElementUtils.hasAnnotation(method, AutoResp.class)) {
-            return true;
+        response.reset();
+        headers.forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+    }
+
+    /**
+     * 异步返回值异常完成时，Spring只拆掉CompletableFuture的一层CompletionException，
+     * 嵌套的CompletionException以及Callable中future.get()抛出的ExecutionException在这里拆到真正的原因
+     */
+    private static Throwable unwrap(Throwable ex) {
+        while ((ex instanceof CompletionException || ex instanceof ExecutionException) && ex.getCause() != null) {
+            ex = ex.getCause();
         }
-        Class<?> beanType = handlerMethod.getBeanType();
-        return AnnotatedElementUtils.hasAnnotation(beanType, AutoResp.class);
+        return ex;
     }
 }
@@ -0,0 +1,115 @@
+package io.github.timemachinelab.common.resp.result;
+
+import io.github.timemachinelab.common.annotation.AutoResp;
+import org.springframework.core.MethodClassKey;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.web.method.HandlerMethod;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+/**
+ * 处理器方法的&#64;AutoResp元数据
+ * 合并注解查找（元注解、接口和父类方法上的注解）开销较大，每个处理器方法只解析一次：
+ * 启动时按RequestMappingHandlerMapping中的处理器方法预先解析，其余的在首次请求时解析，
+ * 之后AutoRespAdvice、AutoRespExceptionResolver每次请求只做一次Map查找
+ * <p>
+ * 以方法和Controller类型为键，同一个父类方法在不同子类Controller上可以有不同的类级别注解；
+ * 使用软引用Map，热部署重新加载的Controller类可以被回收
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+public final class AutoRespHandlerMetadata {
+
+    private static final AutoRespHandlerMetadata DISABLED = new AutoRespHandlerMetadata(false, null, false);
+
+    private static final AutoRespHandlerMetadata ENABLED = new AutoRespHandlerMetadata(true, null, false);
+
+    private static final Map<MethodClassKey, AutoRespHandlerMetadata> CACHE = new ConcurrentReferenceHashMap<>(256);
+
+    private final boolean enabled;
+
+    private final ResultFields fields;
+
+    private final boolean etag;
+
+    private AutoRespHandlerMetadata(boolean enabled, ResultFields fields, boolean etag) {
+        this.enabled = enabled;
+        this.fields = fields;
+        this.etag = etag;
+    }
+
+    /**
+     * @param handler HandlerMapping选中的处理器
+     * @return 不是HandlerMethod时返回未开启的元数据
+     */
+    public static AutoRespHandlerMetadata forHandler(Object handler) {
+        if (!(handler instanceof HandlerMethod)) {
+            return DISABLED;
+        }
+        HandlerMethod handlerMethod = (HandlerMethod) handler;
+        return forMethod(handlerMethod.getMethod(), handlerMethod.getBeanType());
+    }
+
+    /**
+     * @param returnType 处理器方法的返回值参数，HandlerMethod的返回值参数以Controller类型为所属类
+     */
+    public static AutoRespHandlerMetadata forReturnType(MethodParameter returnType) {
+        Method method = returnType.getMethod();
+        if (method == null) {
+            return DISABLED;
+        }
+        return forMethod(method, returnType.getContainingClass());
+    }
+
+    public static AutoRespHandlerMetadata forMethod(Method method, Class<?> beanType) {
+        MethodClassKey key = new MethodClassKey(method, beanType);
+        AutoRespHandlerMetadata metadata = CACHE.get(key);
+        if (metadata == null) {
+            metadata = resolve(method, beanType);
+            CACHE.put(key, metadata);
+        }
+        return metadata;
+    }
+
+    private static AutoRespHandlerMetadata resolve(Method method, Class<?> beanType) {
+        AutoResp methodAutoResp = AnnotatedElementUtils.findMergedAnnotation(method, AutoResp.class);
+        AutoResp typeAutoResp = AnnotatedElementUtils.findMergedAnnotation(beanType, AutoResp.class);
+        if (methodAutoResp == null && typeAutoResp == null) {
+            return DISABLED;
+        }
+        String[] fields = methodAutoResp != null ? methodAutoResp.fields() : new String[0];
+        if (fields.length == 0 && typeAutoResp != null) {
+            fields = typeAutoResp.fields();
+        }
+        boolean etag = methodAutoResp != null && methodAutoResp.etag() || typeAutoResp != null && typeAutoResp.etag();
+        if (fields.length == 0 && !etag) {
+            return ENABLED;
+        }
+        return new AutoRespHandlerMetadata(true, fields.length == 0 ? null : ResultFields.of(fields), etag);
+    }
+
+    /**
+     * @return 返回值是否需要包装成Result
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return &#64;AutoResp(fields = ...)指定的默认字段集，没有指定时为null
+     */
+    public ResultFields getFields() {
+        return fields;
+    }
+
+    /**
+     * @return 是否开启了&#64;AutoResp(etag = true)
+     */
+    public boolean isEtag() {
+        return etag;
+    }
+}
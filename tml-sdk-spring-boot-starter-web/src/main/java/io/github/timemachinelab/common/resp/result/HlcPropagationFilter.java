@@ -0,0 +1,48 @@
+package io.github.timemachinelab.common.resp.result;
+
+import io.github.timemachinelab.util.time.HybridLogicalClock;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 混合逻辑时钟传播过滤器
+ * 请求头携带上游HLC时间戳时合并进本地时钟，并在响应头回写接收事件的时间戳，
+ * 调用方据此更新自己的时钟，使跨节点的Result时间戳保持因果顺序
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+public class HlcPropagationFilter extends OncePerRequestFilter {
+
+    private final HybridLogicalClock clock;
+
+    private final String headerName;
+
+    public HlcPropagationFilter(HybridLogicalClock clock, String headerName) {
+        this.clock = clock;
+        this.headerName = headerName;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        response.setHeader(headerName, Long.toString(receive(request.getHeader(headerName))));
+        filterChain.doFilter(request, response);
+    }
+
+    private long receive(String remote) {
+        if (remote != null && !remote.isEmpty()) {
+            try {
+                return clock.update(Long.parseLong(remote.trim()));
+            } catch (NumberFormatException ignored) {
+                // 非法请求头按本地事件处理
+            }
+        }
+        return clock.now();
+    }
+}
@@ -0,0 +1,141 @@
+package io.github.timemachinelab.common.resp.result;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 开启的二进制Result格式
+ * <ul>
+ *     <li>{@link #extend(List)}：把转换器插到Spring MVC的JSON转换器之后，未指定Accept的请求仍返回JSON</li>
+ *     <li>{@link #find(MediaType)}：String返回值由AutoRespAdvice直接写出时按已协商的Content-Type选择编码</li>
+ *     <li>{@link #negotiate(String)}：AutoRespExceptionResolver不经过内容协商，按Accept请求头选择编码</li>
+ *     <li>{@link #varyOnAccept(HttpServletResponse)}：同一URL按Accept返回不同编码，响应需带Vary: Accept</li>
+ * </ul>
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+public final class ResultBinaryConverters {
+
+    private static final ResultBinaryConverters NONE = new ResultBinaryConverters(Collections.emptyList());
+
+    private final List<ResultBinaryHttpMessageConverter> converters;
+
+    public ResultBinaryConverters(List<ResultBinaryHttpMessageConverter> converters) {
+        this.converters = Collections.unmodifiableList(new ArrayList<>(converters));
+    }
+
+    public static ResultBinaryConverters none() {
+        return NONE;
+    }
+
+    /**
+     * @param formats  开启的格式
+     * @param builders 每次返回一个新的Jackson2ObjectMapperBuilder，通常是Spring Boot的原型Bean
+     */
+    public static ResultBinaryConverters of(List<ResultBinaryFormat> formats, Supplier<Jackson2ObjectMapperBuilder> builders) {
+        if (formats == null || formats.isEmpty()) {
+            return NONE;
+        }
+        List<ResultBinaryHttpMessageConverter> converters = new ArrayList<>(formats.size());
+        for (ResultBinaryFormat format : formats) {
+            converters.add(new ResultBinaryHttpMessageConverter(format, builders.get().factory(format.createFactory()).build()));
+        }
+        return new ResultBinaryConverters(converters);
+    }
+
+    public List<ResultBinaryHttpMessageConverter> getConverters() {
+        return converters;
+    }
+
+    public boolean isEmpty() {
+        return converters.isEmpty();
+    }
+
+    /**
+     * 插到最后一个JSON转换器之后，没有JSON转换器时追加到末尾
+     */
+    public void extend(List<HttpMessageConverter<?>> messageConverters) {
+        if (converters.isEmpty()) {
+            return;
+        }
+        int index = messageConverters.size();
+        for (int i = messageConverters.size() - 1; i >= 0; i--) {
+            if (messageConverters.get(i) instanceof MappingJackson2HttpMessageConverter) {
+                index = i + 1;
+                break;
+            }
+        }
+        messageConverters.addAll(index, converters);
+    }
+
+    /**
+     * 开启了二进制格式时为&#64;AutoResp响应添加Vary: Accept，让共享缓存按Accept区分JSON与二进制响应，
+     * 已有该值时不重复添加
+     */
+    public void varyOnAccept(HttpServletResponse response) {
+        if (!converters.isEmpty() && !response.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT)) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+    }
+
+    /**
+     * @param contentType 已协商的具体媒体类型
+     * @return 对应的转换器，不是开启的二进制格式时为null
+     */
+    public ResultBinaryHttpMessageConverter find(MediaType contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        for (ResultBinaryHttpMessageConverter converter : converters) {
+            for (MediaType supported : converter.getSupportedMediaTypes()) {
+                if (supported.includes(contentType)) {
+                    return converter;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按Accept的权重和具体程度依次匹配，先匹配到JSON（包括通配符）时使用JSON
+     *
+     * @param accept Accept请求头
+     * @return 选中的二进制转换器，使用JSON时为null
+     */
+    public ResultBinaryHttpMessageConverter negotiate(String accept) {
+        if (converters.isEmpty() || accept == null || accept.isEmpty()) {
+            return null;
+        }
+        List<MediaType> acceptable;
+        try {
+            acceptable = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        MediaType.sortBySpecificityAndQuality(acceptable);
+        for (MediaType type : acceptable) {
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return null;
+            }
+            for (ResultBinaryHttpMessageConverter converter : converters) {
+                for (MediaType supported : converter.getSupportedMediaTypes()) {
+                    if (type.includes(supported)) {
+                        return converter;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+}
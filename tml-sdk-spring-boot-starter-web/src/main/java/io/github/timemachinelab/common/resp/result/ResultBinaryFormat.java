@@ -0,0 +1,64 @@
+package io.github.timemachinelab.common.resp.result;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.http.MediaType;
+import org.springframework.util.ClassUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result的二进制编码格式
+ * 对应的jackson-dataformat依赖是可选的，按类名反射创建JsonFactory，未开启的格式不要求依赖在类路径上
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+public enum ResultBinaryFormat {
+
+    SMILE("com.fasterxml.jackson.dataformat.smile.SmileFactory",
+            "com.fasterxml.jackson.dataformat:jackson-dataformat-smile",
+            new MediaType("application", "x-jackson-smile")),
+
+    CBOR("com.fasterxml.jackson.dataformat.cbor.CBORFactory",
+            "com.fasterxml.jackson.dataformat:jackson-dataformat-cbor",
+            new MediaType("application", "cbor")),
+
+    MSGPACK("org.msgpack.jackson.dataformat.MessagePackFactory",
+            "org.msgpack:jackson-dataformat-msgpack",
+            new MediaType("application", "x-msgpack"), new MediaType("application", "msgpack"));
+
+    private final String factoryClassName;
+
+    private final String artifact;
+
+    private final List<MediaType> mediaTypes;
+
+    ResultBinaryFormat(String factoryClassName, String artifact, MediaType... mediaTypes) {
+        this.factoryClassName = factoryClassName;
+        this.artifact = artifact;
+        this.mediaTypes = Collections.unmodifiableList(Arrays.asList(mediaTypes));
+    }
+
+    /**
+     * @return 支持的媒体类型，第一个为响应默认的Content-Type
+     */
+    public List<MediaType> getMediaTypes() {
+        return mediaTypes;
+    }
+
+    public boolean isPresent() {
+        return ClassUtils.isPresent(factoryClassName, ResultBinaryFormat.class.getClassLoader());
+    }
+
+    public JsonFactory createFactory() {
+        if (!isPresent()) {
+            throw new IllegalArgumentException(String.format("Illegal binary format: %s, please add %s to the classpath",
+                    this, artifact));
+        }
+        Class<?> factoryClass = ClassUtils.resolveClassName(factoryClassName, ResultBinaryFormat.class.getClassLoader());
+        return (JsonFactory) BeanUtils.instantiateClass(factoryClass);
+    }
+}
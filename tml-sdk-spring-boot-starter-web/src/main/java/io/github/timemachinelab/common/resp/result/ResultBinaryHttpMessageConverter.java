@@ -0,0 +1,59 @@
+package io.github.timemachinelab.common.resp.result;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.reflect.Type;
+
+/**
+ * 二进制格式的Jackson消息转换器
+ * ObjectMapper由应用的Jackson2ObjectMapperBuilder换上对应格式的JsonFactory构建，
+ * 与JSON共用同一套配置和已注册的Module（包括ResultSerializer）
+ * <p>
+ * 转换器注册在全局的转换器列表中，但只为&#64;AutoResp处理器方法读写，
+ * 其他处理器方法（包括Actuator等框架端点）按Accept协商时不会选中二进制格式，&#64;RequestBody也不接受二进制请求体（415）
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+public class ResultBinaryHttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+
+    private final ResultBinaryFormat format;
+
+    public ResultBinaryHttpMessageConverter(ResultBinaryFormat format, ObjectMapper objectMapper) {
+        super(objectMapper, format.getMediaTypes().toArray(new MediaType[0]));
+        this.format = format;
+    }
+
+    public ResultBinaryFormat getFormat() {
+        return format;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return isAutoRespHandler() && super.canRead(clazz, mediaType);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return isAutoRespHandler() && super.canRead(type, contextClass, mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return isAutoRespHandler() && super.canWrite(clazz, mediaType);
+    }
+
+    /**
+     * 请求体读取和内容协商都发生在处理器映射之后，当前请求上已记录匹配的处理器方法
+     */
+    private static boolean isAutoRespHandler() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null && AutoRespHandlerMetadata.forHandler(attributes.getAttribute(
+                HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)).isEnabled();
+    }
+}
@@ -0,0 +1,159 @@
+package io.github.timemachinelab.common.resp.result;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * &#64;AutoResp的弱ETag
+ * data按JSON编码直接写入64位哈希，不生成中间的byte[]；每次都变化的timestamp、traceId不参与计算，
+ * 响应体并非逐字节相同，因此使用弱ETag（W/前缀）；协商出的二进制格式作为哈希种子，
+ * 同一份数据的JSON与二进制响应得到不同的ETag
+ * <p>
+ * 哈希按8字节一组混合（与xxHash64的轮函数相同），只用于缓存校验，不具备抗碰撞的安全性
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+public final class ResultETag {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private ResultETag() {
+    }
+
+    /**
+     * @param mapper JSON的ObjectMapper
+     * @param data   Result的data，可以是按字段集过滤后的data
+     */
+    public static String of(ObjectMapper mapper, Object data) {
+        return of(mapper, data, null);
+    }
+
+    /**
+     * @param mapper JSON的ObjectMapper
+     * @param data   Result的data，可以是按字段集过滤后的data
+     * @param format 协商出的二进制格式，JSON时为null
+     */
+    public static String of(ObjectMapper mapper, Object data, ResultBinaryFormat format) {
+        HashOutputStream out = new HashOutputStream(format);
+        try {
+            mapper.writeValue(out, data);
+        } catch (IOException e) {
+            throw new HttpMessageNotWritableException("tml-foundation etag error: " + e.getMessage(), e);
+        }
+        return format(out.finish());
+    }
+
+    /**
+     * @param version ResultVersionSupplier返回的数据版本
+     */
+    public static String ofVersion(Object version) {
+        return ofVersion(version, null);
+    }
+
+    /**
+     * @param version ResultVersionSupplier返回的数据版本
+     * @param format  协商出的二进制格式，JSON时为null
+     */
+    public static String ofVersion(Object version, ResultBinaryFormat format) {
+        HashOutputStream out = new HashOutputStream(format);
+        byte[] bytes = version.toString().getBytes(StandardCharsets.UTF_8);
+        out.write(bytes, 0, bytes.length);
+        return format(out.finish());
+    }
+
+    private static String format(long hash) {
+        char[] chars = new char[20];
+        chars[0] = 'W';
+        chars[1] = '/';
+        chars[2] = '"';
+        for (int i = 18; i >= 3; i--) {
+            chars[i] = HEX[(int) (hash & 0xF)];
+            hash >>>= 4;
+        }
+        chars[19] = '"';
+        return new String(chars);
+    }
+
+    private static final class HashOutputStream extends OutputStream {
+
+        private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+        private static final long PRIME1 = 0x9E3779B185EBCA87L;
+        private static final long PRIME2 = 0xC2B2AE3D27D4EB4FL;
+        private static final long PRIME3 = 0x165667B19E3779F9L;
+        private static final long PRIME4 = 0x85EBCA77C2B2AE63L;
+        private static final long PRIME5 = 0x27D4EB2F165667C5L;
+
+        private long hash;
+
+        private long length;
+
+        /** 不足8字节的尾部，按小端序拼接 */
+        private long tail;
+
+        private int tailBytes;
+
+        private HashOutputStream(ResultBinaryFormat format) {
+            this.hash = format == null ? PRIME5 : PRIME5 + (format.ordinal() + 1) * PRIME1;
+        }
+
+        @Override
+        public void write(int b) {
+            tail |= (b & 0xFFL) << (tailBytes << 3);
+            length++;
+            if (++tailBytes == 8) {
+                mix(tail);
+                tail = 0;
+                tailBytes = 0;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            while (tailBytes != 0 && len > 0) {
+                write(b[off++]);
+                len--;
+            }
+            length += len & ~7;
+            while (len >= 8) {
+                mix((long) LONG.get(b, off));
+                off += 8;
+                len -= 8;
+            }
+            while (len > 0) {
+                write(b[off++]);
+                len--;
+            }
+        }
+
+        private void mix(long k) {
+            k *= PRIME2;
+            k = Long.rotateLeft(k, 31);
+            k *= PRIME1;
+            hash ^= k;
+            hash = Long.rotateLeft(hash, 27) * PRIME1 + PRIME4;
+        }
+
+        private long finish() {
+            long h = hash + length;
+            if (tailBytes > 0) {
+                h ^= tail * PRIME1;
+                h = Long.rotateLeft(h, 23) * PRIME2 + PRIME3;
+            }
+            h ^= h >>> 33;
+            h *= PRIME2;
+            h ^= h >>> 29;
+            h *= PRIME3;
+            h ^= h >>> 32;
+            return h;
+        }
+    }
+}
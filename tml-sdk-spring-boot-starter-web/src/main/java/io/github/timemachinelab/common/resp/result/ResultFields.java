@@ -0,0 +1,332 @@
+package io.github.timemachinelab.common.resp.result;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.std.BeanSerializerBase;
+import io.github.timemachinelab.common.exception.TmlValidationException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * data的字段集（稀疏字段）
+ * 请求参数fields=id,name,records.id或&#64;AutoResp(fields = ...)指定只输出data中的部分字段，
+ * 点号表示下级对象的字段；data是集合、数组时作用于每个元素，Map按键过滤
+ * <p>
+ * Bean按Jackson为其类型构建的BeanSerializer中的属性写出器过滤，&#64;JsonProperty、&#64;JsonFormat等注解照常生效；
+ * 过滤器按序列化器编译并缓存在字段集实例上：注解上的字段集随处理器元数据常驻，每种类型只编译一次；
+ * 请求参数解析出的字段集随请求丢弃，每个请求每种类型编译一次，客户端传入的字段名不会进入任何全局缓存
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+public final class ResultFields {
+
+    /** 请求参数名 */
+    public static final String PARAMETER = "fields";
+
+    /** 字段路径中的节点数上限，防止客户端构造超大字段集 */
+    private static final int MAX_NODES = 64;
+
+    /** 每个字段集最多缓存的过滤器数量，data中的Bean类型通常只有一两种，超出后每次重新编译 */
+    private static final int MAX_CACHED_FILTERS = 8;
+
+    private static final BeanFilter[] NO_FILTERS = new BeanFilter[0];
+
+    /** 字段名到下级字段集，值为null表示该字段整体输出 */
+    private final Map<String, ResultFields> fields;
+
+    private final int hash;
+
+    /** 已编译的过滤器，写时复制，并发编译时丢失的条目下次再编译 */
+    private volatile BeanFilter[] filters = NO_FILTERS;
+
+    private ResultFields(Map<String, ResultFields> fields) {
+        this.fields = Collections.unmodifiableMap(fields);
+        this.hash = fields.hashCode();
+    }
+
+    /**
+     * @param spec 逗号分隔的字段路径，如id,name,records.id
+     * @return 没有字段时为null
+     */
+    public static ResultFields parse(String spec) {
+        if (spec == null || spec.isEmpty()) {
+            return null;
+        }
+        return of(spec);
+    }
+
+    /**
+     * @param paths 字段路径，每一项也可以是逗号分隔的多个路径
+     * @return 没有字段时为null
+     */
+    public static ResultFields of(String... paths) {
+        Node root = new Node();
+        int nodes = 0;
+        for (String spec : paths) {
+            for (String path : spec.split(",")) {
+                Node node = root;
+                for (String name : path.trim().split("\\.")) {
+                    name = name.trim();
+                    if (name.isEmpty()) {
+                        continue;
+                    }
+                    if (node.children == null) {
+                        break;
+                    }
+                    Node child = node.children.get(name);
+                    if (child == null) {
+                        if (++nodes > MAX_NODES) {
+                            throw new TmlValidationException(
+                                    String.format("Illegal fields: more than %d fields", MAX_NODES));
+                        }
+                        child = new Node();
+                        node.children.put(name, child);
+                    }
+                    node = child;
+                }
+                // 路径的最后一级整体输出，同时写了records和records.id时以records为准
+                if (node != root) {
+                    node.children = null;
+                }
+            }
+        }
+        return root.children.isEmpty() ? null : root.build();
+    }
+
+    /**
+     * @return 字段名到下级字段集，值为null表示该字段整体输出
+     */
+    public Map<String, ResultFields> getFields() {
+        return fields;
+    }
+
+    /**
+     * 自行构建Result的处理器方法可以用它过滤data：Result.success(fields.filter(data))
+     *
+     * @param data Result的data
+     * @return 序列化时按字段集过滤的data
+     */
+    public Object filter(Object data) {
+        return data == null ? null : new FilteredData(data, this);
+    }
+
+    /**
+     * @return 本字段集上缓存的过滤器数量，不含下级字段集
+     */
+    public int getCachedFilterCount() {
+        return filters.length;
+    }
+
+    void write(Object value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (value == null) {
+            provider.defaultSerializeNull(gen);
+        } else if (value instanceof Map) {
+            writeMap((Map<?, ?>) value, gen, provider);
+        } else if (value instanceof Collection) {
+            gen.writeStartArray(value);
+            for (Object element : (Collection<?>) value) {
+                write(element, gen, provider);
+            }
+            gen.writeEndArray();
+        } else if (value instanceof Object[]) {
+            Object[] array = (Object[]) value;
+            gen.writeStartArray(value, array.length);
+            for (Object element : array) {
+                write(element, gen, provider);
+            }
+            gen.writeEndArray();
+        } else {
+            JsonSerializer<Object> serializer = provider.findValueSerializer(value.getClass());
+            if (serializer instanceof BeanSerializerBase) {
+                filterFor((BeanSerializerBase) serializer).write(value, gen, provider);
+            } else {
+                serializer.serialize(value, gen, provider);
+            }
+        }
+    }
+
+    private void writeMap(Map<?, ?> map, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(map);
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            String name = String.valueOf(entry.getKey());
+            if (!fields.containsKey(name)) {
+                continue;
+            }
+            gen.writeFieldName(name);
+            ResultFields child = fields.get(name);
+            if (child == null) {
+                provider.defaultSerializeValue(entry.getValue(), gen);
+            } else {
+                child.write(entry.getValue(), gen, provider);
+            }
+        }
+        gen.writeEndObject();
+    }
+
+    private BeanFilter filterFor(BeanSerializerBase serializer) {
+        BeanFilter[] current = filters;
+        for (BeanFilter filter : current) {
+            if (filter.serializer == serializer) {
+                return filter;
+            }
+        }
+        BeanFilter filter = new BeanFilter(serializer, this);
+        if (current.length < MAX_CACHED_FILTERS) {
+            BeanFilter[] next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = filter;
+            filters = next;
+        }
+        return filter;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ResultFields)) {
+            return false;
+        }
+        ResultFields that = (ResultFields) o;
+        return hash == that.hash && fields.equals(that.fields);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return fields.toString();
+    }
+
+    private static final class Node {
+
+        /** null表示整体输出 */
+        private Map<String, Node> children = new LinkedHashMap<>();
+
+        private ResultFields build() {
+            Map<String, ResultFields> fields = new LinkedHashMap<>(children.size() * 2);
+            for (Map.Entry<String, Node> entry : children.entrySet()) {
+                Node child = entry.getValue();
+                fields.put(entry.getKey(), child.children == null || child.children.isEmpty() ? null : child.build());
+            }
+            return new ResultFields(fields);
+        }
+    }
+
+    /**
+     * 编译好的Bean过滤器：按BeanSerializer的属性顺序保留字段集中的属性写出器
+     */
+    private static final class BeanFilter {
+
+        private final BeanSerializerBase serializer;
+
+        private final PropertyWriter[] writers;
+
+        private BeanFilter(BeanSerializerBase serializer, ResultFields fields) {
+            this.serializer = serializer;
+            List<PropertyWriter> writers = new ArrayList<>();
+            for (Iterator<PropertyWriter> it = serializer.properties(); it.hasNext(); ) {
+                PropertyWriter writer = it.next();
+                if (fields.fields.containsKey(writer.getName())) {
+                    ResultFields child = fields.fields.get(writer.getName());
+                    // 下级字段集需要取出属性值，只支持标准的BeanPropertyWriter；属性自带序列化器时整体输出
+                    if (child != null && writer instanceof BeanPropertyWriter && !((BeanPropertyWriter) writer).hasSerializer()) {
+                        writer = new ChildWriter((BeanPropertyWriter) writer, child);
+                    }
+                    writers.add(writer);
+                }
+            }
+            this.writers = writers.toArray(new PropertyWriter[0]);
+        }
+
+        private void write(Object bean, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(bean);
+            try {
+                for (PropertyWriter writer : writers) {
+                    writer.serializeAsField(bean, gen, provider);
+                }
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw JsonMappingException.from(gen, e.getMessage(), e);
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    /**
+     * 按下级字段集写出属性值的写出器
+     * 复制原写出器的配置，null值（含&#64;JsonInclude和全局包含规则）交给原逻辑处理，非null值按同样的排除规则判断后再过滤写出
+     */
+    private static final class ChildWriter extends BeanPropertyWriter {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient ResultFields child;
+
+        private ChildWriter(BeanPropertyWriter base, ResultFields child) {
+            super(base);
+            this.child = child;
+        }
+
+        @Override
+        public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+            Object value = get(bean);
+            if (value == null) {
+                super.serializeAsField(bean, gen, prov);
+                return;
+            }
+            if (_suppressableValue != null) {
+                if (_suppressableValue == MARKER_FOR_EMPTY) {
+                    if (prov.findValueSerializer(value.getClass(), this).isEmpty(prov, value)) {
+                        return;
+                    }
+                } else if (_suppressableValue.equals(value)) {
+                    return;
+                }
+            }
+            gen.writeFieldName(_name);
+            child.write(value, gen, prov);
+        }
+    }
+
+    private static final class FilteredData implements JsonSerializable {
+
+        private final Object data;
+
+        private final ResultFields fields;
+
+        private FilteredData(Object data, ResultFields fields) {
+            this.data = data;
+            this.fields = fields;
+        }
+
+        @Override
+        public void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+            fields.write(data, gen, provider);
+        }
+
+        @Override
+        public void serializeWithType(JsonGenerator gen, SerializerProvider provider, TypeSerializer typeSer) throws IOException {
+            serialize(gen, provider);
+        }
+    }
+}
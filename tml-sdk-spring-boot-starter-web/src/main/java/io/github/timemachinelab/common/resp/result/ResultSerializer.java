@@ -0,0 +1,194 @@
+package io.github.timemachinelab.common.resp.result;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.impl.PropertySerializerMap;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Result专用序列化器
+ * 字段名预编码为{@link SerializedString}，固定字段直接写入JsonGenerator，只有data和extensions交给Jackson，
+ * 省去通用Bean序列化逐个属性的getter反射调用与@JsonInclude判断，输出与默认的Bean序列化逐字节一致
+ * <p>
+ * 会改变输出的配置（全局非ALWAYS的inclusion、属性排序、命名策略、MixIn、默认类型信息、@JsonView）
+ * 下退回默认的Bean序列化器
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+public class ResultSerializer extends StdSerializer<Result<?>> implements ContextualSerializer, ResolvableSerializer {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final SerializedString STATUS = new SerializedString("status");
+    private static final SerializedString CODE = new SerializedString("code");
+    private static final SerializedString MESSAGE = new SerializedString("message");
+    private static final SerializedString DATA = new SerializedString("data");
+    private static final SerializedString TIMESTAMP = new SerializedString("timestamp");
+    private static final SerializedString TRACE_ID = new SerializedString("traceId");
+    private static final SerializedString HLC = new SerializedString("hlc");
+    private static final SerializedString EXTENSIONS = new SerializedString("extensions");
+
+    /** 与上面的字段一一对应，Result增加属性时退回默认序列化器，避免漏写 */
+    private static final List<String> PROPERTIES = Arrays.asList(
+            "status", "code", "message", "data", "timestamp", "traceId", "hlc", "extensions");
+
+    private final JsonSerializer<Object> defaultSerializer;
+
+    /** data的运行时类型对应的序列化器，与BeanPropertyWriter的动态类型缓存相同 */
+    private transient PropertySerializerMap dataSerializers = PropertySerializerMap.emptyForProperties();
+
+    @SuppressWarnings("unchecked")
+    private ResultSerializer(JsonSerializer<?> defaultSerializer) {
+        super(Result.class, false);
+        this.defaultSerializer = (JsonSerializer<Object>) defaultSerializer;
+    }
+
+    /**
+     * @return 注册ResultSerializer的Jackson模块
+     */
+    public static Module module() {
+        return new SimpleModule(ResultSerializer.class.getSimpleName()).setSerializerModifier(new Modifier());
+    }
+
+    @Override
+    public void serialize(Result<?> value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (provider.getActiveView() != null) {
+            defaultSerializer.serialize(value, gen, provider);
+            return;
+        }
+        gen.writeStartObject(value);
+
+        gen.writeFieldName(STATUS);
+        Integer status = value.getStatus();
+        if (status == null) {
+            provider.defaultSerializeNull(gen);
+        } else {
+            gen.writeNumber(status.intValue());
+        }
+        gen.writeFieldName(CODE);
+        writeString(value.getCode(), gen, provider);
+        gen.writeFieldName(MESSAGE);
+        writeString(value.getMessage(), gen, provider);
+
+        gen.writeFieldName(DATA);
+        Object data = value.getData();
+        if (data == null) {
+            provider.defaultSerializeNull(gen);
+        } else {
+            dataSerializer(data.getClass(), provider).serialize(data, gen, provider);
+        }
+
+        gen.writeFieldName(TIMESTAMP);
+        gen.writeNumber(value.getTimestamp().longValue());
+
+        String traceId = value.getTraceId();
+        if (traceId != null) {
+            gen.writeFieldName(TRACE_ID);
+            gen.writeString(traceId);
+        }
+        Long hlc = value.getHlc();
+        if (hlc != null) {
+            gen.writeFieldName(HLC);
+            gen.writeNumber(hlc.longValue());
+        }
+        if (value.hasExtensions()) {
+            gen.writeFieldName(EXTENSIONS);
+            provider.defaultSerializeValue(value.getExtensions(), gen);
+        }
+        gen.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(Result<?> value, JsonGenerator gen, SerializerProvider provider, TypeSerializer typeSer)
+            throws IOException {
+        defaultSerializer.serializeWithType(value, gen, provider, typeSer);
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property) throws JsonMappingException {
+        JsonSerializer<?> contextual = provider.handlePrimaryContextualization(defaultSerializer, property);
+        if (property != null) {
+            // 作为其他Bean的属性时可能带有@JsonFormat等属性级配置，交给默认序列化器处理
+            return contextual;
+        }
+        return contextual == defaultSerializer ? this : new ResultSerializer(contextual);
+    }
+
+    @Override
+    public void resolve(SerializerProvider provider) throws JsonMappingException {
+        if (defaultSerializer instanceof ResolvableSerializer) {
+            ((ResolvableSerializer) defaultSerializer).resolve(provider);
+        }
+    }
+
+    private static void writeString(String text, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (text == null) {
+            provider.defaultSerializeNull(gen);
+        } else {
+            gen.writeString(text);
+        }
+    }
+
+    private JsonSerializer<Object> dataSerializer(Class<?> type, SerializerProvider provider) throws JsonMappingException {
+        JsonSerializer<Object> serializer = dataSerializers.serializerFor(type);
+        if (serializer == null) {
+            PropertySerializerMap.SerializerAndMapResult result = dataSerializers.findAndAddPrimarySerializer(type, provider, null);
+            dataSerializers = result.map;
+            serializer = result.serializer;
+        }
+        return serializer;
+    }
+
+    private static final class Modifier extends BeanSerializerModifier {
+
+        @Override
+        public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription beanDesc,
+                                                  JsonSerializer<?> serializer) {
+            if (beanDesc.getBeanClass() != Result.class || !supports(config, beanDesc)) {
+                return serializer;
+            }
+            return new ResultSerializer(serializer);
+        }
+
+        private static boolean supports(SerializationConfig config, BeanDescription beanDesc) {
+            JsonInclude.Include inclusion = config.getDefaultPropertyInclusion(Result.class).getValueInclusion();
+            if (inclusion != JsonInclude.Include.ALWAYS && inclusion != JsonInclude.Include.USE_DEFAULTS) {
+                return false;
+            }
+            if (config.isEnabled(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+                    || config.getPropertyNamingStrategy() != null
+                    || config.findMixInClassFor(Result.class) != null
+                    || config.getDefaultTyper(config.constructType(Object.class)) != null) {
+                return false;
+            }
+            Set<String> names = new HashSet<>();
+            for (BeanPropertyDefinition property : beanDesc.findProperties()) {
+                names.add(property.getName());
+            }
+            return names.size() == PROPERTIES.size() && names.containsAll(PROPERTIES);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package io.github.timemachinelab.common.resp.result;
+
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Method;
+
+/**
+ * &#64;AutoResp(etag = true)的Controller实现该接口时，按数据版本生成ETag
+ * 版本在处理器方法执行前取得，If-None-Match命中时直接返回304，处理器方法和序列化都不再执行；
+ * 适合配置、字典等有版本号或最后修改时间的数据
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+@FunctionalInterface
+public interface ResultVersionSupplier {
+
+    /**
+     * 只在请求线程上调用，实现应足够轻量（读内存中的版本号、时间戳等）
+     *
+     * @param method  处理器方法
+     * @param request 当前请求
+     * @return 当前数据版本，为null时退回按data计算ETag
+     */
+    Object resultVersion(Method method, HttpServletRequest request);
+}
@@ -0,0 +1,139 @@
+package io.github.timemachinelab.common.resp.result;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+/**
+ * 流式data
+ * 包装Stream、Iterator和{@link ResultCursor}，序列化时逐个元素写入JsonGenerator，
+ * JsonGenerator缓冲区写满即刷到响应输出流，内存占用与元素个数无关
+ * <p>
+ * 只能序列化一次，写完或出错后关闭底层数据源；指定了字段集时按字段集过滤每个元素
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+final class StreamingData implements JsonSerializable {
+
+    private final Iterator<?> iterator;
+
+    private final AutoCloseable resource;
+
+    private final ResultFields fields;
+
+    private StreamingData(Iterator<?> iterator, AutoCloseable resource, ResultFields fields) {
+        this.iterator = iterator;
+        this.resource = resource;
+        this.fields = fields;
+    }
+
+    static Object wrap(Object body) {
+        return wrap(body, null);
+    }
+
+    /**
+     * @param body   Controller返回值
+     * @param fields 字段集，为null时输出全部字段
+     * @return 可流式输出时返回StreamingData，否则按字段集过滤或原样返回
+     */
+    static Object wrap(Object body, ResultFields fields) {
+        if (body instanceof Stream) {
+            Stream<?> stream = (Stream<?>) body;
+            return new StreamingData(stream.iterator(), stream, fields);
+        }
+        if (body instanceof ResultCursor) {
+            ResultCursor<?> cursor = (ResultCursor<?>) body;
+            return new StreamingData(new CursorIterator(cursor), cursor, fields);
+        }
+        if (body instanceof Iterator) {
+            return new StreamingData((Iterator<?>) body, body instanceof AutoCloseable ? (AutoCloseable) body : null, fields);
+        }
+        return fields == null ? body : fields.filter(body);
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartArray();
+        try {
+            // 大结果集的元素类型通常相同，缓存上一个元素的序列化器
+            Class<?> lastType = null;
+            JsonSerializer<Object> serializer = null;
+            while (iterator.hasNext()) {
+                Object element = iterator.next();
+                if (element == null) {
+                    provider.defaultSerializeNull(gen);
+                    continue;
+                }
+                if (fields != null) {
+                    fields.write(element, gen, provider);
+                    continue;
+                }
+                if (element.getClass() != lastType) {
+                    lastType = element.getClass();
+                    serializer = provider.findTypedValueSerializer(lastType, true, null);
+                }
+                serializer.serialize(element, gen, provider);
+            }
+        } finally {
+            close();
+        }
+        gen.writeEndArray();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider provider, TypeSerializer typeSer) throws IOException {
+        serialize(gen, provider);
+    }
+
+    private void close() throws IOException {
+        if (resource == null) {
+            return;
+        }
+        try {
+            resource.close();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static final class CursorIterator implements Iterator<Object> {
+
+        private final ResultCursor<?> cursor;
+
+        private Object next;
+
+        private boolean fetched;
+
+        private CursorIterator(ResultCursor<?> cursor) {
+            this.cursor = cursor;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!fetched) {
+                next = cursor.next();
+                fetched = true;
+            }
+            return next != null;
+        }
+
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            fetched = false;
+            return next;
+        }
+    }
+}
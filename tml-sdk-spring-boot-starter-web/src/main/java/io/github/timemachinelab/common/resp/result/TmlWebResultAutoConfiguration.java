@@ -1,11 +1,26 @@
 package io.github.timemachinelab.common.resp.result;
 
+import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.timemachinelab.util.id.SegmentSource;
+import io.github.timemachinelab.util.time.CachedClock;
+import io.github.timemachinelab.util.time.HybridLogicalClock;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.SmartLifecycle;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.List;
 
 @Configuration
 @EnableConfigurationProperties(TmlWebResultProperties.class)
@@ -13,30 +28,134 @@ public class TmlWebResultAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    public AutoRespAdvice autoRespAdvice(ObjectMapper objectMapper) {
-        return new AutoRespAdvice(objectMapper);
+    public AutoRespAdvice autoRespAdvice(ObjectMapper objectMapper, ResultBinaryConverters binaryConverters) {
+        return new AutoRespAdvice(objectMapper, binaryConverters);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public AutoRespExceptionResolver autoRespExceptionResolver(ObjectMapper objectMapper,
+                                                               ResultBinaryConverters binaryConverters,
+                                                               ExceptionMappings exceptionMappings) {
+        return new AutoRespExceptionResolver(objectMapper, binaryConverters, exceptionMappings);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ExceptionMappings exceptionMappings(ObjectProvider<ExceptionMappingsCustomizer> customizers) {
+        ExceptionMappings mappings = new ExceptionMappings();
+        customizers.orderedStream().forEach(customizer -> customizer.customize(mappings));
+        return mappings;
+    }
+
+    /**
+     * 二进制格式的ObjectMapper从应用的Jackson2ObjectMapperBuilder构建，与JSON共用配置和Module
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ResultBinaryConverters resultBinaryConverters(TmlWebResultProperties properties,
+                                                         ObjectProvider<Jackson2ObjectMapperBuilder> builders) {
+        return ResultBinaryConverters.of(properties.getBinaryFormats(), () -> builders.getIfAvailable(
+                () -> Jackson2ObjectMapperBuilder.json().modulesToInstall(ResultSerializer.module())));
+    }
+
+    /**
+     * 二进制转换器排在JSON之后，不作为Bean注册，避免被HttpMessageConverters放到最前面
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "tmlResultBinaryConfigurer")
+    public WebMvcConfigurer tmlResultBinaryConfigurer(ResultBinaryConverters binaryConverters) {
+        return new WebMvcConfigurer() {
+
+            @Override
+            public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+                binaryConverters.extend(converters);
+            }
+        };
+    }
+
+    /**
+     * 所有单例初始化完成后处理器方法已注册，预先解析&#64;AutoResp元数据，请求时只做Map查找
+     */
+    @Bean
+    public SmartInitializingSingleton tmlAutoRespMetadataIndexer(ObjectProvider<RequestMappingHandlerMapping> handlerMappings) {
+        return () -> handlerMappings.orderedStream()
+                .flatMap(mapping -> mapping.getHandlerMethods().values().stream())
+                .forEach(AutoRespHandlerMetadata::forHandler);
+    }
+
+    /**
+     * 异步返回值超时时包装成错误结果，异步分派时恢复请求线程上的traceId
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "tmlAutoRespAsyncConfigurer")
+    public WebMvcConfigurer tmlAutoRespAsyncConfigurer() {
+        AutoRespAsyncInterceptor asyncInterceptor = new AutoRespAsyncInterceptor();
+        return new WebMvcConfigurer() {
+
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.registerCallableInterceptors(asyncInterceptor);
+                configurer.registerDeferredResultInterceptors(asyncInterceptor);
+            }
+
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new TraceContextAsyncInterceptor());
+            }
+        };
+    }
+
+    /**
+     * &#64;AutoResp(etag = true)的Controller实现ResultVersionSupplier时，在处理器方法执行前按版本校验If-None-Match
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "tmlAutoRespETagConfigurer")
+    public WebMvcConfigurer tmlAutoRespETagConfigurer(ResultBinaryConverters binaryConverters) {
+        return new WebMvcConfigurer() {
+
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new AutoRespETagInterceptor(binaryConverters));
+            }
+        };
+    }
+
+    /**
+     * Spring Boot会把容器中的Module注册到自动配置的ObjectMapper
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "tmlResultJacksonModule")
+    public Module tmlResultJacksonModule() {
+        return ResultSerializer.module();
     }
 
     @Bean
     @ConditionalOnMissingBean
-    public AutoRespExceptionResolver autoRespExceptionResolver(ObjectMapper objectMapper) {
-        return new AutoRespExceptionResolver(objectMapper);
+    @ConditionalOnProperty(prefix = "tml.web.result", name = "hlc-enabled", havingValue = "true")
+    public HlcPropagationFilter hlcPropagationFilter(TmlWebResultProperties properties) {
+        return new HlcPropagationFilter(HybridLogicalClock.global(), properties.getHlcHeaderName());
     }
 
     @Bean
-    public SmartLifecycle tmlWebResultConfigInitializer(TmlWebResultProperties properties) {
+    public SmartLifecycle tmlWebResultConfigInitializer(TmlWebResultProperties properties,
+                                                        ObjectProvider<SegmentSource> segmentSource) {
         return new SmartLifecycle() {
 
             private volatile boolean running;
 
             @Override
             public void start() {
+                segmentSource.ifAvailable(TraceIdGenerators::setSegmentSource);
                 ResultConfigHolder.setConfig(properties);
                 running = true;
             }
 
             @Override
             public void stop() {
+                if (properties.isCoarseClockEnabled()) {
+                    CachedClock.stopGlobal();
+                }
                 running = false;
             }
 
@@ -2,6 +2,22 @@ package io.github.timemachinelab.common.resp.result;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @ConfigurationProperties(prefix = "tml.web.result")
 public class TmlWebResultProperties extends ResultConfig {
+
+    /**
+     * 开启的二进制Result格式，&#64;AutoResp接口按Accept请求头协商，默认只输出JSON
+     */
+    private List<ResultBinaryFormat> binaryFormats = new ArrayList<>();
+
+    public List<ResultBinaryFormat> getBinaryFormats() {
+        return binaryFormats;
+    }
+
+    public void setBinaryFormats(List<ResultBinaryFormat> binaryFormats) {
+        this.binaryFormats = binaryFormats;
+    }
 }
@@ -0,0 +1,55 @@
+package io.github.timemachinelab.common.resp.result;
+
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 异步请求的链路上下文传递
+ * {@link TraceContext}绑定在线程上，异步返回值完成后在另一个容器线程上分派，
+ * 接入方的链路过滤器（OncePerRequestFilter默认不处理异步分派）不会再设置traceId，
+ * Result在这时才确定traceId就会生成一个与请求无关的新值
+ * <p>
+ * 异步处理开始时把请求线程上的traceId存入请求属性，异步分派期间恢复到分派线程，分派结束后清理
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+public class TraceContextAsyncInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String TRACE_ID_ATTRIBUTE = TraceContextAsyncInterceptor.class.getName() + ".traceId";
+
+    private static final String RESTORED_ATTRIBUTE = TraceContextAsyncInterceptor.class.getName() + ".restored";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.ASYNC || TraceContext.getTraceId() != null) {
+            return true;
+        }
+        Object traceId = request.getAttribute(TRACE_ID_ATTRIBUTE);
+        if (traceId != null) {
+            TraceContext.setTraceId((String) traceId);
+            request.setAttribute(RESTORED_ATTRIBUTE, Boolean.TRUE);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String traceId = TraceContext.getTraceId();
+        if (traceId != null) {
+            request.setAttribute(TRACE_ID_ATTRIBUTE, traceId);
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        // 只清理自己恢复的traceId，接入方过滤器设置的由其自行清理
+        if (request.getAttribute(RESTORED_ATTRIBUTE) != null) {
+            request.removeAttribute(RESTORED_ATTRIBUTE);
+            TraceContext.clear();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.timemachinelab.common.resp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.timemachinelab.common.annotation.AutoResp;
+import io.github.timemachinelab.common.resp.result.AutoRespAdvice;
+import io.github.timemachinelab.common.resp.result.AutoRespExceptionResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * &#64;AutoResp直接写出响应字节测试
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+@DisplayName("@AutoResp直接写出响应字节测试")
+class AutoRespAdviceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MockMvc mockMvc;
+
+    @RestController
+    @AutoResp
+    static class StringController {
+
+        @GetMapping("/string")
+        public String string() {
+            return "你好，\"TML\"";
+        }
+
+        @GetMapping("/string-error")
+        public String stringError() {
+            throw new IllegalStateException("服务不可用");
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new StringController())
+                .setControllerAdvice(new AutoRespAdvice(objectMapper))
+                .setMessageConverters(new StringHttpMessageConverter(), new MappingJackson2HttpMessageConverter(objectMapper))
+                .setHandlerExceptionResolvers(new AutoRespExceptionResolver(objectMapper))
+                .build();
+    }
+
+    private MockHttpServletResponse perform(String path) throws Exception {
+        return mockMvc.perform(get(path)).andReturn().getResponse();
+    }
+
+    @Test
+    @DisplayName("测试String返回值按UTF-8字节直接写出")
+    void testStringWrittenAsUtf8() throws Exception {
+        MockHttpServletResponse response = perform("/string");
+        assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(response.getContentType())));
+        assertEquals(StandardCharsets.UTF_8.name(), response.getCharacterEncoding());
+
+        JsonNode result = objectMapper.readTree(response.getContentAsByteArray());
+        assertEquals(200, result.get("status").asInt());
+        assertEquals("你好，\"TML\"", result.get("data").asText(), "data应为原始字符串而不是二次编码的JSON");
+    }
+
+    @Test
+    @DisplayName("测试错误结果按UTF-8字节直接写出")
+    void testErrorWrittenAsUtf8() throws Exception {
+        MockHttpServletResponse response = perform("/string-error");
+        JsonNode result = objectMapper.readTree(response.getContentAsByteArray());
+        assertEquals(500, result.get("status").asInt());
+        assertEquals("服务不可用", result.get("message").asText());
+    }
+}
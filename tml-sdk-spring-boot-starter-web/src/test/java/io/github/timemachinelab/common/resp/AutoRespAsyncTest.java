@@ -0,0 +1,280 @@
+package io.github.timemachinelab.common.resp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.timemachinelab.common.annotation.AutoResp;
+import io.github.timemachinelab.common.resp.result.AutoRespAdvice;
+import io.github.timemachinelab.common.resp.result.AutoRespAsyncInterceptor;
+import io.github.timemachinelab.common.resp.result.AutoRespExceptionResolver;
+import io.github.timemachinelab.common.resp.result.Result;
+import io.github.timemachinelab.common.resp.result.ResultConfig;
+import io.github.timemachinelab.common.resp.result.ResultConfigHolder;
+import io.github.timemachinelab.common.resp.result.TraceContext;
+import io.github.timemachinelab.common.resp.result.TraceContextAsyncInterceptor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * &#64;AutoResp异步返回值测试
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+@DisplayName("@AutoResp异步返回值测试")
+class AutoRespAsyncTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AutoRespAsyncInterceptor asyncInterceptor = new AutoRespAsyncInterceptor();
+
+    private final AsyncController controller = new AsyncController();
+
+    private MockMvc mockMvc;
+
+    @RestController
+    @AutoResp
+    static class AsyncController {
+
+        @GetMapping("/future")
+        public CompletableFuture<Map<String, Integer>> future() {
+            return CompletableFuture.supplyAsync(() -> Map.of("id", 1));
+        }
+
+        @GetMapping("/future-string")
+        public CompletableFuture<String> futureString() {
+            return CompletableFuture.supplyAsync(() -> "hello");
+        }
+
+        @GetMapping("/future-result")
+        public CompletableFuture<Result<String>> futureResult() {
+            return CompletableFuture.completedFuture(Result.success("wrapped"));
+        }
+
+        @GetMapping("/future-error")
+        public CompletableFuture<String> futureError() {
+            return CompletableFuture.supplyAsync(() -> {
+                throw new IllegalStateException("downstream failed");
+            });
+        }
+
+        @GetMapping("/future-nested-error")
+        public CompletableFuture<String> futureNestedError() {
+            return CompletableFuture.supplyAsync(() -> "step")
+                    .thenCompose(step -> CompletableFuture.<String>supplyAsync(() -> {
+                        throw new IllegalStateException("nested failed");
+                    }))
+                    .exceptionally(ex -> {
+                        throw new CompletionException(ex);
+                    });
+        }
+
+        @GetMapping("/future-pending")
+        public CompletableFuture<String> futurePending() {
+            return new CompletableFuture<>();
+        }
+
+        /** 超时时Spring会中断执行中的Callable，忽略中断一直等到测试结束，避免中断异常与超时结果竞争 */
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @GetMapping("/callable-pending")
+        public Callable<String> callablePending() {
+            return () -> {
+                while (true) {
+                    try {
+                        release.await();
+                        return "late";
+                    } catch (InterruptedException ignored) {
+                        // 继续等待
+                    }
+                }
+            };
+        }
+
+        @GetMapping("/deferred-fallback")
+        public DeferredResult<String> deferredFallback() {
+            return new DeferredResult<>(null, "fallback");
+        }
+
+        @GetMapping("/deferred")
+        public DeferredResult<Integer> deferred() {
+            DeferredResult<Integer> result = new DeferredResult<>();
+            CompletableFuture.runAsync(() -> result.setResult(42));
+            return result;
+        }
+
+        @GetMapping("/deferred-error")
+        public DeferredResult<Integer> deferredError() {
+            DeferredResult<Integer> result = new DeferredResult<>();
+            CompletableFuture.runAsync(() -> result.setErrorResult(new IllegalArgumentException("bad input")));
+            return result;
+        }
+
+        @GetMapping("/callable")
+        public Callable<String> callable() {
+            return () -> "called";
+        }
+
+        @GetMapping("/task")
+        public WebAsyncTask<String> task() {
+            return new WebAsyncTask<>(1000L, () -> {
+                throw new IllegalStateException("task failed");
+            });
+        }
+    }
+
+    /**
+     * 模拟接入方的链路过滤器，只在请求线程上设置traceId
+     */
+    static class TraceFilter extends OncePerRequestFilter {
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            TraceContext.setTraceId("request-trace-id");
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                TraceContext.clear();
+            }
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new AutoRespAdvice(objectMapper))
+                .setMessageConverters(new StringHttpMessageConverter(), new MappingJackson2HttpMessageConverter(objectMapper))
+                .setHandlerExceptionResolvers(new AutoRespExceptionResolver(objectMapper))
+                .addInterceptors(new TraceContextAsyncInterceptor())
+                .addFilters(new TraceFilter())
+                .build();
+    }
+
+    /**
+     * StandaloneMockMvcBuilder不支持配置异步拦截器，直接注册到请求的WebAsyncManager，
+     * 与自动配置中WebMvcConfigurer#configureAsyncSupport的效果相同
+     */
+    private MvcResult start(String path) throws Exception {
+        return mockMvc.perform(get(path).with(request -> {
+            WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+            asyncManager.registerCallableInterceptor(AutoRespAsyncInterceptor.class, asyncInterceptor);
+            asyncManager.registerDeferredResultInterceptor(AutoRespAsyncInterceptor.class, asyncInterceptor);
+            return request;
+        })).andExpect(request().asyncStarted()).andReturn();
+    }
+
+    private JsonNode perform(String path) throws Exception {
+        return dispatch(start(path));
+    }
+
+    private MvcResult startAndTimeout(String path) throws Exception {
+        MvcResult started = start(path);
+        MockAsyncContext asyncContext = (MockAsyncContext) started.getRequest().getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+        return started;
+    }
+
+    private JsonNode dispatch(MvcResult started) throws Exception {
+        String body = mockMvc.perform(asyncDispatch(started)).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    @Test
+    @DisplayName("测试异步完成值包装为Result")
+    void testAsyncSuccess() throws Exception {
+        JsonNode future = perform("/future");
+        assertEquals(200, future.get("status").asInt());
+        assertEquals(1, future.get("data").get("id").asInt());
+
+        assertEquals("hello", perform("/future-string").get("data").asText());
+        assertEquals(42, perform("/deferred").get("data").asInt());
+        assertEquals("called", perform("/callable").get("data").asText());
+
+        JsonNode wrapped = perform("/future-result");
+        assertEquals("wrapped", wrapped.get("data").asText(), "已是Result时不重复包装");
+        assertFalse(wrapped.get("data").isObject());
+    }
+
+    @Test
+    @DisplayName("测试异步异常完成映射为错误结果")
+    void testAsyncError() throws Exception {
+        for (String path : new String[]{"/future-error", "/deferred-error", "/task"}) {
+            JsonNode error = perform(path);
+            assertEquals(500, error.get("status").asInt(), path);
+            assertEquals("tml.error", error.get("code").asText(), path);
+        }
+        assertEquals("downstream failed", perform("/future-error").get("message").asText(), "应为CompletionException的原因");
+        assertEquals("nested failed", perform("/future-nested-error").get("message").asText(), "应拆开嵌套的CompletionException");
+    }
+
+    @Test
+    @DisplayName("测试异步超时映射为错误结果")
+    void testAsyncTimeout() throws Exception {
+        JsonNode timeout = dispatch(startAndTimeout("/future-pending"));
+        assertEquals(503, timeout.get("status").asInt());
+        assertEquals("tml.error", timeout.get("code").asText());
+
+        // MockMvc只在Callable执行完成时记录异步结果，超时结果直接从WebAsyncManager中取
+        try {
+            MvcResult callable = startAndTimeout("/callable-pending");
+            Object concurrentResult = WebAsyncUtils.getAsyncManager(callable.getRequest()).getConcurrentResult();
+            assertInstanceOf(Result.class, concurrentResult);
+            assertEquals(503, ((Result<?>) concurrentResult).getStatus());
+        } finally {
+            controller.release.countDown();
+        }
+
+        JsonNode fallback = dispatch(startAndTimeout("/deferred-fallback"));
+        assertEquals(200, fallback.get("status").asInt(), "DeferredResult自带的超时结果优先");
+        assertEquals("fallback", fallback.get("data").asText());
+    }
+
+    @Test
+    @DisplayName("测试异步分派沿用请求线程的traceId")
+    void testTraceIdOnAsyncDispatch() throws Exception {
+        ResultConfig previous = ResultConfigHolder.getConfig();
+        ResultConfig config = new ResultConfig();
+        config.setTraceEnabled(true);
+        ResultConfigHolder.setConfig(config);
+        try {
+            assertEquals("request-trace-id", perform("/future").get("traceId").asText());
+            assertNull(TraceContext.getTraceId(), "分派结束后应清理恢复的traceId");
+        } finally {
+            ResultConfigHolder.setConfig(previous);
+        }
+    }
+}
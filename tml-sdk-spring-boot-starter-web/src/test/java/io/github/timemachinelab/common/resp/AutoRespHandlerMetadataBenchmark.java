@@ -0,0 +1,65 @@
+package io.github.timemachinelab.common.resp;
+
+import io.github.timemachinelab.common.annotation.AutoResp;
+import io.github.timemachinelab.common.resp.result.AutoRespHandlerMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * &#64;AutoResp判断开销对比（每次合并注解查找 vs 按处理器方法缓存）
+ * 运行: 在IDE中执行main方法
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AutoRespHandlerMetadataBenchmark {
+
+    @AutoResp
+    public static class Controller {
+
+        public String get() {
+            return "ok";
+        }
+    }
+
+    private final HandlerMethod handlerMethod;
+
+    public AutoRespHandlerMetadataBenchmark() {
+        try {
+            handlerMethod = new HandlerMethod(new Controller(), Controller.class.getMethod("get"));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public boolean annotationLookup() {
+        return AnnotatedElementUtils.hasAnnotation(handlerMethod.getMethod(), AutoResp.class)
+                || AnnotatedElementUtils.hasAnnotation(handlerMethod.getBeanType(), AutoResp.class);
+    }
+
+    @Benchmark
+    public boolean metadata() {
+        return AutoRespHandlerMetadata.forHandler(handlerMethod).isEnabled();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(AutoRespHandlerMetadataBenchmark.class.getSimpleName()).build()).run();
+    }
+}
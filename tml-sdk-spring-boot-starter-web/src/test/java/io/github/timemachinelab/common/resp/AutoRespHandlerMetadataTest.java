@@ -0,0 +1,95 @@
+package io.github.timemachinelab.common.resp;
+
+import io.github.timemachinelab.common.annotation.AutoResp;
+import io.github.timemachinelab.common.resp.result.AutoRespHandlerMetadata;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.method.HandlerMethod;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * &#64;AutoResp处理器元数据测试
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+@DisplayName("@AutoResp处理器元数据测试")
+class AutoRespHandlerMetadataTest {
+
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    @AutoResp
+    @interface ApiResult {
+    }
+
+    interface Api {
+
+        @AutoResp
+        String fromInterface();
+    }
+
+    static class BaseController {
+
+        public String inherited() {
+            return "base";
+        }
+    }
+
+    @AutoResp
+    static class ClassLevelController extends BaseController {
+    }
+
+    static class MethodLevelController extends BaseController implements Api {
+
+        @AutoResp
+        public String annotated() {
+            return "annotated";
+        }
+
+        @ApiResult
+        public String metaAnnotated() {
+            return "meta";
+        }
+
+        @Override
+        public String fromInterface() {
+            return "interface";
+        }
+
+        public String plain() {
+            return "plain";
+        }
+    }
+
+    private static AutoRespHandlerMetadata metadata(Object bean, String method) throws Exception {
+        return AutoRespHandlerMetadata.forHandler(new HandlerMethod(bean, bean.getClass().getMethod(method)));
+    }
+
+    @Test
+    @DisplayName("测试方法、类、元注解和接口上的@AutoResp")
+    void testResolve() throws Exception {
+        MethodLevelController methodLevel = new MethodLevelController();
+        assertTrue(metadata(methodLevel, "annotated").isEnabled());
+        assertTrue(metadata(methodLevel, "metaAnnotated").isEnabled(), "应支持组合注解");
+        assertTrue(metadata(methodLevel, "fromInterface").isEnabled(), "应支持接口方法上的注解");
+        assertFalse(metadata(methodLevel, "plain").isEnabled());
+        assertFalse(metadata(methodLevel, "inherited").isEnabled());
+
+        assertTrue(metadata(new ClassLevelController(), "inherited").isEnabled(), "父类方法按子类Controller上的注解判断");
+        assertFalse(AutoRespHandlerMetadata.forHandler(new Object()).isEnabled());
+        assertFalse(AutoRespHandlerMetadata.forHandler(null).isEnabled());
+    }
+
+    @Test
+    @DisplayName("测试元数据按处理器方法缓存")
+    void testCached() throws Exception {
+        MethodLevelController controller = new MethodLevelController();
+        assertSame(metadata(controller, "annotated"), metadata(new MethodLevelController(), "annotated"));
+    }
+}
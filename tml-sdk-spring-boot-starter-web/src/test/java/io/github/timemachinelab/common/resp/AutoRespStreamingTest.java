@@ -0,0 +1,144 @@
+package io.github.timemachinelab.common.resp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.timemachinelab.common.annotation.AutoResp;
+import io.github.timemachinelab.common.resp.result.AutoRespAdvice;
+import io.github.timemachinelab.common.resp.result.AutoRespExceptionResolver;
+import io.github.timemachinelab.common.resp.result.ResultCursor;
+import io.github.timemachinelab.common.resp.result.ResultSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * &#64;AutoResp流式响应测试
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+@DisplayName("@AutoResp流式响应测试")
+class AutoRespStreamingTest {
+
+    private static final int ROWS = 10_000;
+
+    /** 与Spring Boot自动配置的ObjectMapper一致，注册了支持Stream的Jdk8Module */
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(ResultSerializer.module())
+            .build();
+
+    private final StreamingController controller = new StreamingController();
+
+    private MockMvc mockMvc;
+
+    @RestController
+    @AutoResp
+    static class StreamingController {
+
+        final AtomicBoolean streamClosed = new AtomicBoolean();
+
+        final AtomicBoolean cursorClosed = new AtomicBoolean();
+
+        @GetMapping("/stream")
+        public Stream<Map<String, Integer>> stream() {
+            return IntStream.range(0, ROWS)
+                    .mapToObj(i -> Map.of("id", i))
+                    .onClose(() -> streamClosed.set(true));
+        }
+
+        @GetMapping("/iterator")
+        public Iterator<Integer> iterator() {
+            return IntStream.range(0, ROWS).iterator();
+        }
+
+        @GetMapping("/cursor")
+        public ResultCursor<String> cursor() {
+            AtomicInteger row = new AtomicInteger();
+            return new ResultCursor<String>() {
+                @Override
+                public String next() {
+                    int i = row.getAndIncrement();
+                    return i < ROWS ? "row-" + i : null;
+                }
+
+                @Override
+                public void close() {
+                    cursorClosed.set(true);
+                }
+            };
+        }
+
+        @GetMapping("/broken")
+        public Stream<Integer> broken() {
+            return Stream.of(1, 2, 3).map(i -> {
+                if (i == 3) {
+                    throw new IllegalStateException("cursor lost");
+                }
+                return i;
+            });
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new AutoRespAdvice(objectMapper))
+                .setMessageConverters(new StringHttpMessageConverter(), new MappingJackson2HttpMessageConverter(objectMapper))
+                .setHandlerExceptionResolvers(new AutoRespExceptionResolver(objectMapper))
+                .build();
+    }
+
+    private JsonNode perform(String path) throws Exception {
+        String body = mockMvc.perform(get(path)).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    @Test
+    @DisplayName("测试Stream逐个元素写出并关闭")
+    void testStream() throws Exception {
+        JsonNode result = perform("/stream");
+        assertEquals(200, result.get("status").asInt(), () -> result.get("message").asText());
+        assertEquals(ROWS, result.get("data").size());
+        assertEquals(ROWS - 1, result.get("data").get(ROWS - 1).get("id").asInt());
+        assertTrue(result.has("timestamp"), "数据之后的信封字段应完整写出");
+        assertTrue(controller.streamClosed.get(), "写完后应关闭Stream");
+    }
+
+    @Test
+    @DisplayName("测试Iterator与ResultCursor")
+    void testIteratorAndCursor() throws Exception {
+        JsonNode iterator = perform("/iterator");
+        assertEquals(ROWS, iterator.get("data").size());
+        assertEquals(42, iterator.get("data").get(42).asInt());
+
+        JsonNode cursor = perform("/cursor");
+        assertEquals(ROWS, cursor.get("data").size());
+        assertEquals("row-7", cursor.get("data").get(7).asText());
+        assertTrue(controller.cursorClosed.get(), "写完后应关闭游标");
+    }
+
+    @Test
+    @DisplayName("测试未提交的流式响应出错时改写为错误结果")
+    void testErrorBeforeCommit() throws Exception {
+        JsonNode result = perform("/broken");
+        assertEquals(500, result.get("status").asInt());
+        assertEquals("tml.error", result.get("code").asText());
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.timemachinelab.common.resp;
+
+import io.github.timemachinelab.common.exception.TmlValidationException;
+import io.github.timemachinelab.common.resp.result.ExceptionMappings;
+import io.github.timemachinelab.common.resp.result.Result;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 业务拒绝的开销对比（带堆栈的普通异常 vs 不采集堆栈的TmlBizException），均在调用栈较深处抛出并映射成Result
+ * 运行: 在IDE中执行main方法
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionMappingBenchmark {
+
+    /** 模拟Filter、拦截器、代理叠加后的调用深度 */
+    private static final int DEPTH = 64;
+
+    private final ExceptionMappings mappings = new ExceptionMappings()
+            .register(IllegalArgumentException.class, 400, "tml.bad-request");
+
+    @Benchmark
+    public Result<?> stackTraceException() {
+        try {
+            return call(DEPTH, false);
+        } catch (RuntimeException e) {
+            return mappings.resolve(e);
+        }
+    }
+
+    @Benchmark
+    public Result<?> bizException() {
+        try {
+            return call(DEPTH, true);
+        } catch (RuntimeException e) {
+            return mappings.resolve(e);
+        }
+    }
+
+    private static Result<?> call(int depth, boolean biz) {
+        if (depth == 0) {
+            throw biz ? new TmlValidationException("手机号格式错误") : new IllegalArgumentException("手机号格式错误");
+        }
+        return call(depth - 1, biz);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(ExceptionMappingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,184 @@
+package io.github.timemachinelab.common.resp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.timemachinelab.common.annotation.AutoResp;
+import io.github.timemachinelab.common.annotation.ErrorResult;
+import io.github.timemachinelab.common.exception.TmlBizException;
+import io.github.timemachinelab.common.exception.TmlNotFoundException;
+import io.github.timemachinelab.common.exception.TmlValidationException;
+import io.github.timemachinelab.common.resp.result.AutoRespAdvice;
+import io.github.timemachinelab.common.resp.result.AutoRespExceptionResolver;
+import io.github.timemachinelab.common.resp.result.ExceptionMappings;
+import io.github.timemachinelab.common.resp.result.ExceptionMappingsCustomizer;
+import io.github.timemachinelab.common.resp.result.Result;
+import io.github.timemachinelab.common.resp.result.ResultBinaryConverters;
+import io.github.timemachinelab.common.resp.result.ResultSerializer;
+import io.github.timemachinelab.common.resp.result.TmlWebResultAutoConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * 异常映射测试
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+@DisplayName("异常映射测试")
+class ExceptionMappingsTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(ResultSerializer.module())
+            .build();
+
+    private MockMvc mockMvc;
+
+    @ErrorResult(status = 409, code = "order.conflict", message = "订单冲突: {message}")
+    static class OrderConflictException extends RuntimeException {
+
+        OrderConflictException(String message) {
+            super(message);
+        }
+    }
+
+    static class PaidOrderConflictException extends OrderConflictException {
+
+        PaidOrderConflictException(String message) {
+            super(message);
+        }
+    }
+
+    @ErrorResult(status = 410, code = "order.closed")
+    static class ClosedOrderException extends OrderConflictException {
+
+        ClosedOrderException(String message) {
+            super(message);
+        }
+    }
+
+    @RestController
+    @AutoResp
+    static class ErrorController {
+
+        @GetMapping("/not-found")
+        public Map<String, Object> notFound() {
+            throw new TmlNotFoundException("订单不存在");
+        }
+
+        @GetMapping("/conflict")
+        public Map<String, Object> conflict() {
+            throw new PaidOrderConflictException("已支付");
+        }
+
+        @GetMapping("/registered")
+        public Map<String, Object> registered() {
+            throw new UnsupportedOperationException("导出");
+        }
+
+        @GetMapping("/unknown")
+        public Map<String, Object> unknown() {
+            throw new IllegalStateException("服务不可用");
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        ExceptionMappings mappings = new ExceptionMappings()
+                .register(UnsupportedOperationException.class, 501, "tml.unsupported", "不支持的操作: {message}");
+        mockMvc = MockMvcBuilders.standaloneSetup(new ErrorController())
+                .setControllerAdvice(new AutoRespAdvice(objectMapper))
+                .setMessageConverters(new StringHttpMessageConverter(), new MappingJackson2HttpMessageConverter(objectMapper))
+                .setHandlerExceptionResolvers(new AutoRespExceptionResolver(objectMapper, ResultBinaryConverters.none(), mappings))
+                .build();
+    }
+
+    private JsonNode perform(String path) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get(path)).andReturn().getResponse().getContentAsByteArray());
+    }
+
+    @Test
+    @DisplayName("测试业务异常默认不采集堆栈")
+    void testStacklessBizException() {
+        TmlValidationException ex = new TmlValidationException("手机号格式错误");
+        assertEquals(0, ex.getStackTrace().length);
+        assertEquals(400, ex.getStatus());
+        assertEquals("tml.bad-request", ex.getCode());
+
+        TmlBizException traced = new TmlBizException(500, "biz.traced", "需要堆栈", null, true) {
+        };
+        assertTrue(traced.getStackTrace().length > 0);
+        assertThrows(IllegalArgumentException.class, () -> new TmlBizException(400, "", "空code"));
+    }
+
+    @Test
+    @DisplayName("测试AutoResp方法按异常映射写出错误结果")
+    void testResolver() throws Exception {
+        JsonNode notFound = perform("/not-found");
+        assertEquals(404, notFound.get("status").asInt());
+        assertEquals("tml.not-found", notFound.get("code").asText());
+        assertEquals("订单不存在", notFound.get("message").asText());
+
+        JsonNode conflict = perform("/conflict");
+        assertEquals(409, conflict.get("status").asInt(), "未标注的子类使用父类的@ErrorResult");
+        assertEquals("order.conflict", conflict.get("code").asText());
+        assertEquals("订单冲突: 已支付", conflict.get("message").asText());
+
+        JsonNode registered = perform("/registered");
+        assertEquals(501, registered.get("status").asInt());
+        assertEquals("不支持的操作: 导出", registered.get("message").asText());
+
+        JsonNode unknown = perform("/unknown");
+        assertEquals(500, unknown.get("status").asInt());
+        assertEquals("tml.error", unknown.get("code").asText());
+        assertEquals("服务不可用", unknown.get("message").asText());
+    }
+
+    @Test
+    @DisplayName("测试按类层次取最近的映射并缓存查找结果")
+    void testHierarchyAndCache() {
+        ExceptionMappings mappings = new ExceptionMappings();
+        assertEquals(410, mappings.resolve(new ClosedOrderException("已关闭")).getStatus(), "子类上的注解优先");
+        assertEquals("已关闭", mappings.resolve(new ClosedOrderException("已关闭")).getMessage());
+        assertSame(mappings.find(PaidOrderConflictException.class), mappings.find(PaidOrderConflictException.class));
+        assertNull(mappings.find(IllegalStateException.class));
+
+        mappings.register(OrderConflictException.class, 422, "order.rejected");
+        Result<?> result = mappings.resolve(new PaidOrderConflictException("已支付"));
+        assertEquals(422, result.getStatus(), "注册的映射优先于注解，注册后重新查找");
+        assertEquals("已支付", result.getMessage());
+        assertEquals(410, mappings.resolve(new ClosedOrderException("已关闭")).getStatus(), "更近一级的注解仍然优先");
+
+        mappings.register(TmlNotFoundException.class, 200, "tml.empty", "");
+        assertEquals("tml.empty", mappings.resolve(new TmlNotFoundException("无数据")).getCode());
+    }
+
+    @Test
+    @DisplayName("测试自动配置应用ExceptionMappingsCustomizer")
+    void testAutoConfiguration() {
+        new WebApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(JacksonAutoConfiguration.class, TmlWebResultAutoConfiguration.class))
+                .withBean(ExceptionMappingsCustomizer.class,
+                        () -> mappings -> mappings.register(IllegalStateException.class, 503, "tml.unavailable"))
+                .run(context -> {
+                    Result<?> result = context.getBean(ExceptionMappings.class).resolve(new IllegalStateException("维护中"));
+                    assertEquals(503, result.getStatus());
+                    assertEquals("tml.unavailable", result.getCode());
+                });
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.timemachinelab.common.resp;
+
+import io.github.timemachinelab.common.resp.result.HlcPropagationFilter;
+import io.github.timemachinelab.util.time.HybridLogicalClock;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * HLC请求头传播测试
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+@DisplayName("HLC请求头传播测试")
+class HlcPropagationFilterTest {
+
+    private static final String HEADER = "X-Tml-Hlc";
+
+    @Test
+    @DisplayName("测试合并上游时间戳并回写响应头")
+    void testPropagation() throws Exception {
+        long wall = System.currentTimeMillis();
+        HybridLogicalClock clock = new HybridLogicalClock(() -> wall, 60_000L);
+        HlcPropagationFilter filter = new HlcPropagationFilter(clock, HEADER);
+
+        long upstream = HybridLogicalClock.pack(wall + 10, 5);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/test");
+        request.addHeader(HEADER, Long.toString(upstream));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+
+        long received = Long.parseLong(response.getHeader(HEADER));
+        assertTrue(received > upstream, "接收时间戳应大于上游时间戳");
+        assertTrue(clock.now() > received, "之后生成的时间戳应大于接收时间戳");
+    }
+
+    @Test
+    @DisplayName("测试缺失或非法请求头")
+    void testMissingOrIllegalHeader() throws Exception {
+        HybridLogicalClock clock = new HybridLogicalClock(System::currentTimeMillis, 60_000L);
+        HlcPropagationFilter filter = new HlcPropagationFilter(clock, HEADER);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/test"), response, new MockFilterChain());
+        long first = Long.parseLong(response.getHeader(HEADER));
+
+        MockHttpServletRequest illegal = new MockHttpServletRequest("GET", "/test");
+        illegal.addHeader(HEADER, "not-a-number");
+        response = new MockHttpServletResponse();
+        filter.doFilter(illegal, response, new MockFilterChain());
+        assertTrue(Long.parseLong(response.getHeader(HEADER)) > first);
+    }
+}
@@ -0,0 +1,239 @@
+package io.github.timemachinelab.common.resp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.timemachinelab.common.annotation.AutoResp;
+import io.github.timemachinelab.common.resp.result.AutoRespAdvice;
+import io.github.timemachinelab.common.resp.result.AutoRespExceptionResolver;
+import io.github.timemachinelab.common.resp.result.ResultBinaryConverters;
+import io.github.timemachinelab.common.resp.result.Result;
+import io.github.timemachinelab.common.resp.result.ResultBinaryFormat;
+import io.github.timemachinelab.common.resp.result.ResultBinaryHttpMessageConverter;
+import io.github.timemachinelab.common.resp.result.ResultSerializer;
+import io.github.timemachinelab.common.resp.result.TmlWebResultAutoConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * 二进制Result格式协商测试
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+@DisplayName("二进制Result格式协商测试")
+class ResultBinaryFormatTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(ResultSerializer.module())
+            .build();
+
+    private final ResultBinaryConverters binaryConverters = ResultBinaryConverters.of(
+            Arrays.asList(ResultBinaryFormat.values()),
+            () -> Jackson2ObjectMapperBuilder.json().modulesToInstall(ResultSerializer.module()));
+
+    private MockMvc mockMvc;
+
+    @RestController
+    @AutoResp
+    static class BinaryController {
+
+        @GetMapping("/user")
+        public Map<String, Object> user() {
+            return Map.of("id", 42, "name", "TimeMachineLab");
+        }
+
+        @GetMapping("/string")
+        public String string() {
+            return "你好";
+        }
+
+        @GetMapping("/error")
+        public Map<String, Object> error() {
+            throw new IllegalStateException("服务不可用");
+        }
+
+        @GetMapping("/etag")
+        @AutoResp(etag = true)
+        public Map<String, Object> etag() {
+            return user();
+        }
+
+        @PostMapping("/echo")
+        public Map<String, Object> echo(@RequestBody Map<String, Object> body) {
+            return body;
+        }
+    }
+
+    @RestController
+    static class PlainController {
+
+        @GetMapping("/plain")
+        public Map<String, Object> plain() {
+            return Map.of("id", 42);
+        }
+
+        @PostMapping("/plain")
+        public Map<String, Object> plainEcho(@RequestBody Map<String, Object> body) {
+            return body;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        converters.add(new StringHttpMessageConverter());
+        converters.add(new MappingJackson2HttpMessageConverter(objectMapper));
+        binaryConverters.extend(converters);
+        mockMvc = MockMvcBuilders.standaloneSetup(new BinaryController(), new PlainController())
+                .setControllerAdvice(new AutoRespAdvice(objectMapper, binaryConverters))
+                .setMessageConverters(converters.toArray(new HttpMessageConverter[0]))
+                .setHandlerExceptionResolvers(new AutoRespExceptionResolver(objectMapper, binaryConverters))
+                .build();
+    }
+
+    private JsonNode perform(String path, ResultBinaryFormat format) throws Exception {
+        MediaType mediaType = format.getMediaTypes().get(0);
+        MockHttpServletResponse response = mockMvc.perform(get(path).accept(mediaType)).andReturn().getResponse();
+        assertTrue(mediaType.isCompatibleWith(MediaType.parseMediaType(response.getContentType())),
+                () -> format + " -> " + response.getContentType());
+        return new ObjectMapper(format.createFactory()).readTree(response.getContentAsByteArray());
+    }
+
+    @Test
+    @DisplayName("测试按Accept输出Smile、CBOR、MessagePack")
+    void testBinaryFormats() throws Exception {
+        for (ResultBinaryFormat format : ResultBinaryFormat.values()) {
+            JsonNode user = perform("/user", format);
+            assertEquals(200, user.get("status").asInt(), format.name());
+            assertEquals("TimeMachineLab", user.get("data").get("name").asText(), format.name());
+            assertTrue(user.has("timestamp"), format.name());
+
+            assertEquals("你好", perform("/string", format).get("data").asText(), format + "下的String返回值");
+
+            JsonNode error = perform("/error", format);
+            assertEquals(500, error.get("status").asInt(), format.name());
+            assertEquals("服务不可用", error.get("message").asText(), format.name());
+        }
+    }
+
+    @Test
+    @DisplayName("测试未指定或接受JSON时仍输出JSON")
+    void testJsonByDefault() throws Exception {
+        for (String accept : new String[]{null, "*/*", "application/json", "application/cbor;q=0.5, application/json"}) {
+            MockHttpServletResponse response = mockMvc.perform(accept == null ? get("/user") : get("/user").header("Accept", accept))
+                    .andReturn().getResponse();
+            assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(response.getContentType())),
+                    () -> accept + " -> " + response.getContentType());
+            assertEquals(42, objectMapper.readTree(response.getContentAsByteArray()).get("data").get("id").asInt());
+        }
+        assertNull(binaryConverters.negotiate("*/*"));
+        assertEquals(ResultBinaryFormat.CBOR, binaryConverters.negotiate("application/json;q=0.5, application/cbor").getFormat());
+    }
+
+    @Test
+    @DisplayName("测试自动配置把二进制转换器排在JSON之后并共用ResultSerializer")
+    void testAutoConfiguration() {
+        new WebApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(JacksonAutoConfiguration.class,
+                        HttpMessageConvertersAutoConfiguration.class, WebMvcAutoConfiguration.class,
+                        TmlWebResultAutoConfiguration.class))
+                .withPropertyValues("tml.web.result.binary-formats=cbor,msgpack")
+                .run(context -> {
+                    List<HttpMessageConverter<?>> converters = context.getBean(RequestMappingHandlerAdapter.class)
+                            .getMessageConverters();
+                    int json = -1;
+                    List<ResultBinaryFormat> formats = new ArrayList<>();
+                    for (int i = 0; i < converters.size(); i++) {
+                        HttpMessageConverter<?> converter = converters.get(i);
+                        if (converter instanceof MappingJackson2HttpMessageConverter && json < 0) {
+                            json = i;
+                        }
+                        if (converter instanceof ResultBinaryHttpMessageConverter) {
+                            assertTrue(json >= 0 && json < i, "二进制转换器应排在JSON之后");
+                            ResultBinaryHttpMessageConverter binary = (ResultBinaryHttpMessageConverter) converter;
+                            formats.add(binary.getFormat());
+                            assertInstanceOf(ResultSerializer.class, binary.getObjectMapper().getSerializerProviderInstance()
+                                    .findValueSerializer(Result.class), "应使用容器中注册的Module");
+                        }
+                    }
+                    assertEquals(Arrays.asList(ResultBinaryFormat.CBOR, ResultBinaryFormat.MSGPACK), formats);
+                });
+    }
+
+    @Test
+    @DisplayName("测试Vary: Accept与按格式区分的ETag")
+    void testVaryAndETag() throws Exception {
+        MediaType cbor = ResultBinaryFormat.CBOR.getMediaTypes().get(0);
+        for (String path : new String[]{"/user", "/string", "/error"}) {
+            assertEquals(Arrays.asList(HttpHeaders.ACCEPT),
+                    mockMvc.perform(get(path)).andReturn().getResponse().getHeaders(HttpHeaders.VARY), path);
+            assertEquals(Arrays.asList(HttpHeaders.ACCEPT),
+                    mockMvc.perform(get(path).accept(cbor)).andReturn().getResponse().getHeaders(HttpHeaders.VARY), path);
+        }
+
+        String json = mockMvc.perform(get("/etag")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String binary = mockMvc.perform(get("/etag").accept(cbor)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(json);
+        assertNotNull(binary);
+        assertNotEquals(json, binary, "JSON与二进制响应的ETag应不同");
+        assertEquals(200, mockMvc.perform(get("/etag").accept(cbor).header(HttpHeaders.IF_NONE_MATCH, json))
+                .andReturn().getResponse().getStatus(), "JSON的ETag不能命中二进制响应");
+        assertEquals(304, mockMvc.perform(get("/etag").accept(cbor).header(HttpHeaders.IF_NONE_MATCH, binary))
+                .andReturn().getResponse().getStatus());
+    }
+
+    @Test
+    @DisplayName("测试未标记@AutoResp的接口不协商二进制格式")
+    void testPlainHandler() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/plain").header(HttpHeaders.ACCEPT, "application/cbor, application/json;q=0.5"))
+                .andReturn().getResponse();
+        assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(response.getContentType())),
+                response::getContentType);
+        assertEquals(42, objectMapper.readTree(response.getContentAsByteArray()).get("id").asInt());
+        assertNull(response.getHeader(HttpHeaders.VARY));
+
+        // 测试中只注册了AutoRespExceptionResolver，406异常直接抛出
+        assertThrows(HttpMediaTypeNotAcceptableException.class,
+                () -> mockMvc.perform(get("/plain").accept(MediaType.parseMediaType("application/cbor"))),
+                "只接受二进制格式时应为406");
+
+        byte[] cbor = new ObjectMapper(ResultBinaryFormat.CBOR.createFactory()).writeValueAsBytes(Map.of("id", 7));
+        MediaType cborType = ResultBinaryFormat.CBOR.getMediaTypes().get(0);
+        assertThrows(HttpMediaTypeNotSupportedException.class,
+                () -> mockMvc.perform(post("/plain").contentType(cborType).content(cbor)),
+                "未标记@AutoResp的接口不接受二进制请求体，应为415");
+        assertEquals(7, objectMapper.readTree(mockMvc.perform(post("/echo").contentType(cborType).content(cbor))
+                .andReturn().getResponse().getContentAsByteArray()).get("data").get("id").asInt(), "@AutoResp接口可以读取二进制请求体");
+    }
+}
@@ -3,7 +3,10 @@ package io.github.timemachinelab.common.resp;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.timemachinelab.common.resp.result.Result;
 import io.github.timemachinelab.common.resp.result.ResultConfig;
+import io.github.timemachinelab.common.resp.result.ResultConfigHolder;
+import io.github.timemachinelab.common.resp.result.TraceContext;
 import io.github.timemachinelab.common.resp.result.TraceIdGenerateStrategy;
+import io.github.timemachinelab.util.time.CachedClock;
 import io.github.timemachinelab.util.time.TimeUtil.TimePrecision;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -25,6 +28,25 @@ class ResultConfigTest {
     
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    @Test
+    @DisplayName("测试关闭粗粒度时钟时停止全局缓存时钟")
+    void testCoarseClockToggle() {
+        ResultConfig previous = ResultConfigHolder.getConfig();
+        try {
+            ResultConfig enabled = new ResultConfig();
+            enabled.setCoarseClockEnabled(true);
+            enabled.setCoarseClockResolutionMillis(5);
+            ResultConfigHolder.setConfig(enabled);
+            assertNotNull(CachedClock.global(), "开启后应启动全局缓存时钟");
+            assertEquals(5, CachedClock.global().getResolutionMillis());
+
+            ResultConfigHolder.setConfig(new ResultConfig());
+            assertNull(CachedClock.global(), "关闭后应停止全局缓存时钟");
+        } finally {
+            ResultConfigHolder.setConfig(previous);
+        }
+    }
+
     @Nested
     @SpringBootTest
     @ActiveProfiles("test-trace-uuid")
@@ -55,6 +77,25 @@ class ResultConfigTest {
             String json = new ObjectMapper().writeValueAsString(result);
             assertTrue(json.contains("traceId"), "JSON应包含traceId字段");
         }
+
+        @Test
+        @DisplayName("测试traceId优先取自请求上下文且只生成一次")
+        void testTraceIdFromContext() throws Exception {
+            Result<String> generated = Result.success("test");
+            assertEquals(generated.getTraceId(), generated.getTraceId(), "多次读取应为同一个traceId");
+
+            TraceContext.setTraceId("upstream-trace-id");
+            try {
+                Result<String> result = Result.success("test");
+                String json = objectMapper.writeValueAsString(result);
+                assertTrue(json.contains("\"traceId\":\"upstream-trace-id\""), "应使用请求上下文中的traceId");
+            } finally {
+                TraceContext.clear();
+            }
+
+            Result<String> overridden = Result.success("test").withTraceId("custom-trace-id");
+            assertEquals("custom-trace-id", overridden.getTraceId(), "手动设置的traceId不应被覆盖");
+        }
         
         @Test
         @DisplayName("测试毫秒级时间戳精度")
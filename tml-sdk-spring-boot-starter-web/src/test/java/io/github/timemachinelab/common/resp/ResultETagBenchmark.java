@@ -0,0 +1,68 @@
+package io.github.timemachinelab.common.resp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.timemachinelab.common.resp.result.Result;
+import io.github.timemachinelab.common.resp.result.ResultETag;
+import io.github.timemachinelab.common.resp.result.ResultSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ETag计算（data写入哈希）与完整写出Result的开销对比，20条记录的列表
+ * 运行: 在IDE中执行main方法
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultETagBenchmark {
+
+    private static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(ResultSerializer.module())
+            .build();
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+
+    private final List<ResultFormatBenchmark.User> users = users();
+
+    @Benchmark
+    public String etag() {
+        return ResultETag.of(MAPPER, users);
+    }
+
+    @Benchmark
+    public int serialize() throws Exception {
+        out.reset();
+        MAPPER.writeValue(out, Result.success(users));
+        return out.size();
+    }
+
+    private static List<ResultFormatBenchmark.User> users() {
+        List<ResultFormatBenchmark.User> users = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            users.add(new ResultFormatBenchmark.User());
+        }
+        return users;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(ResultETagBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,245 @@
+package io.github.timemachinelab.common.resp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.timemachinelab.common.annotation.AutoResp;
+import io.github.timemachinelab.common.resp.result.AutoRespAdvice;
+import io.github.timemachinelab.common.resp.result.AutoRespETagInterceptor;
+import io.github.timemachinelab.common.resp.result.AutoRespExceptionResolver;
+import io.github.timemachinelab.common.resp.result.ResultETag;
+import io.github.timemachinelab.common.resp.result.ResultFields;
+import io.github.timemachinelab.common.resp.result.ResultSerializer;
+import io.github.timemachinelab.common.resp.result.ResultVersionSupplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * &#64;AutoResp的ETag与条件请求测试
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+@DisplayName("@AutoResp的ETag与条件请求测试")
+class ResultETagTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(ResultSerializer.module())
+            .build();
+
+    private final ETagController controller = new ETagController();
+
+    private final VersionController versionController = new VersionController();
+
+    private MockMvc mockMvc;
+
+    @RestController
+    @AutoResp(etag = true)
+    static class ETagController {
+
+        volatile String name = "TimeMachineLab";
+
+        @GetMapping("/config")
+        public Map<String, Object> config() {
+            Map<String, Object> config = new LinkedHashMap<>();
+            config.put("id", 1);
+            config.put("name", name);
+            return config;
+        }
+
+        @GetMapping("/text")
+        public String text() {
+            return name;
+        }
+
+        @PostMapping("/config")
+        public Map<String, Object> update() {
+            return config();
+        }
+
+        @GetMapping("/flaky")
+        public FlakyData flaky() {
+            return new FlakyData();
+        }
+    }
+
+    /**
+     * 计算ETag时正常序列化，转换器写出时抛出异常
+     */
+    public static class FlakyData {
+
+        private final AtomicInteger reads = new AtomicInteger();
+
+        public String getName() {
+            if (reads.incrementAndGet() > 1) {
+                throw new IllegalStateException("写出失败");
+            }
+            return "TimeMachineLab";
+        }
+    }
+
+    @RestController
+    @AutoResp
+    static class PlainController {
+
+        @GetMapping("/plain")
+        public Map<String, Object> plain() {
+            return Map.of("id", 1);
+        }
+    }
+
+    @RestController
+    @AutoResp(etag = true)
+    static class VersionController implements ResultVersionSupplier {
+
+        final AtomicInteger invocations = new AtomicInteger();
+
+        volatile long version = 1;
+
+        @Override
+        public Object resultVersion(Method method, HttpServletRequest request) {
+            return version;
+        }
+
+        @GetMapping("/dict")
+        public Map<String, Object> dict() {
+            invocations.incrementAndGet();
+            return Map.of("version", version);
+        }
+
+        @GetMapping("/dict/error")
+        public Map<String, Object> error() {
+            throw new IllegalStateException("字典加载失败");
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(controller, new PlainController(), versionController)
+                .setControllerAdvice(new AutoRespAdvice(objectMapper))
+                .setMessageConverters(new StringHttpMessageConverter(), new MappingJackson2HttpMessageConverter(objectMapper))
+                .setHandlerExceptionResolvers(new AutoRespExceptionResolver(objectMapper))
+                .addInterceptors(new AutoRespETagInterceptor())
+                .build();
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+
+    @Test
+    @DisplayName("测试按data生成ETag，If-None-Match命中时返回304")
+    void testDataETag() throws Exception {
+        MockHttpServletResponse first = perform(get("/config"));
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        assertEquals(200, first.getStatus());
+        assertNotNull(etag);
+        assertTrue(etag.startsWith("W/\""), etag);
+        assertEquals("TimeMachineLab", objectMapper.readTree(first.getContentAsByteArray()).get("data").get("name").asText());
+
+        Thread.sleep(2);
+        assertEquals(etag, perform(get("/config")).getHeader(HttpHeaders.ETAG), "timestamp、traceId不参与计算");
+
+        MockHttpServletResponse notModified = perform(get("/config").header(HttpHeaders.IF_NONE_MATCH, etag));
+        assertEquals(304, notModified.getStatus());
+        assertEquals(0, notModified.getContentLength());
+        assertEquals(etag, notModified.getHeader(HttpHeaders.ETAG));
+
+        String fieldsETag = perform(get("/config").param(ResultFields.PARAMETER, "id")).getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, fieldsETag, "按过滤后的data计算");
+
+        controller.name = "tml";
+        MockHttpServletResponse changed = perform(get("/config").header(HttpHeaders.IF_NONE_MATCH, etag));
+        assertEquals(200, changed.getStatus());
+        assertNotEquals(etag, changed.getHeader(HttpHeaders.ETAG));
+        controller.name = "TimeMachineLab";
+    }
+
+    @Test
+    @DisplayName("测试String返回值、非GET请求与未开启的接口")
+    void testScope() throws Exception {
+        String etag = perform(get("/text")).getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        assertEquals(304, perform(get("/text").header(HttpHeaders.IF_NONE_MATCH, etag)).getStatus());
+
+        MockHttpServletResponse post = perform(post("/config"));
+        assertEquals(200, post.getStatus());
+        assertNull(post.getHeader(HttpHeaders.ETAG));
+
+        assertNull(perform(get("/plain")).getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @DisplayName("测试ResultVersionSupplier命中时不执行处理器方法")
+    void testVersionSupplier() throws Exception {
+        MockHttpServletResponse first = perform(get("/dict"));
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        assertEquals(ResultETag.ofVersion(1L), etag);
+        assertEquals(1, versionController.invocations.get());
+
+        MockHttpServletResponse notModified = perform(get("/dict").header(HttpHeaders.IF_NONE_MATCH, etag));
+        assertEquals(304, notModified.getStatus());
+        assertEquals(0, notModified.getContentLength());
+        assertEquals(1, versionController.invocations.get(), "版本未变化时跳过处理器方法");
+
+        versionController.version = 2;
+        MockHttpServletResponse changed = perform(get("/dict").header(HttpHeaders.IF_NONE_MATCH, etag));
+        assertEquals(200, changed.getStatus());
+        assertEquals(ResultETag.ofVersion(2L), changed.getHeader(HttpHeaders.ETAG));
+        assertEquals(2, versionController.invocations.get());
+    }
+
+    @Test
+    @DisplayName("测试处理器方法或写出失败时错误结果不带ETag")
+    void testErrorWithoutETag() throws Exception {
+        versionController.version = 3;
+        MockHttpServletResponse error = perform(get("/dict/error"));
+        assertEquals(200, error.getStatus());
+        assertEquals(500, objectMapper.readTree(error.getContentAsByteArray()).get("status").asInt());
+        assertNull(error.getHeader(HttpHeaders.ETAG), "按版本生成的ETag不能随错误结果写出");
+        assertEquals(ResultETag.ofVersion(3L), perform(get("/dict")).getHeader(HttpHeaders.ETAG), "成功结果仍带版本ETag");
+
+        MockHttpServletResponse flaky = perform(get("/flaky"));
+        assertEquals(200, flaky.getStatus());
+        assertEquals(500, objectMapper.readTree(flaky.getContentAsByteArray()).get("status").asInt());
+        assertNull(flaky.getHeader(HttpHeaders.ETAG), "按data生成的ETag不能随错误结果写出");
+    }
+
+    @Test
+    @DisplayName("测试哈希对不同长度的data稳定且区分")
+    void testHash() {
+        Set<String> etags = new HashSet<>();
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            text.append((char) ('a' + i % 26));
+            String etag = ResultETag.of(objectMapper, Arrays.asList(text.toString(), i));
+            assertEquals(etag, ResultETag.of(objectMapper, Arrays.asList(text.toString(), i)));
+            assertEquals(20, etag.length());
+            etags.add(etag);
+        }
+        assertEquals(100, etags.size());
+    }
+}
@@ -0,0 +1,99 @@
+package io.github.timemachinelab.common.resp;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.github.timemachinelab.common.resp.result.Result;
+import io.github.timemachinelab.common.resp.result.ResultFields;
+import io.github.timemachinelab.common.resp.result.ResultSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 宽对象列表的完整输出与稀疏字段输出对比（含每次请求解析fields参数）
+ * 运行: 在IDE中执行main方法，先打印报文字节数，再运行JMH
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultFieldsBenchmark {
+
+    private static final String FIELDS = "id,name,avatar";
+
+    public static class Order {
+        public long id = 1234567890123L;
+        public String name = "TimeMachineLab";
+        public String avatar = "https://cdn.example.com/avatar/1234567890123.png";
+        public String email = "TimeMachineLab@gmail.com";
+        public String phone = "13800000000";
+        public String address = "Somewhere Road No.1, Room 1001";
+        public String city = "Hangzhou";
+        public String province = "Zhejiang";
+        public String zip = "310000";
+        public int age = 28;
+        public boolean active = true;
+        public double balance = 10086.5;
+        public double creditLimit = 50000;
+        public long createdAt = 1700000000000L;
+        public long updatedAt = 1700000000000L;
+        public String status = "PAID";
+        public String channel = "APP";
+        public String remark = "leave at the front door";
+        public List<String> tags = Arrays.asList("java", "web", "sdk");
+        public List<Long> itemIds = Arrays.asList(1L, 2L, 3L, 4L, 5L);
+    }
+
+    private static final ObjectWriter WRITER = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(ResultSerializer.module())
+            .build()
+            .writerFor(Result.class);
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(16384);
+
+    private final List<Order> orders = orders();
+
+    @Benchmark
+    public int full() throws Exception {
+        out.reset();
+        WRITER.writeValue(out, Result.success(orders));
+        return out.size();
+    }
+
+    @Benchmark
+    public int fields() throws Exception {
+        out.reset();
+        WRITER.writeValue(out, Result.success(ResultFields.parse(FIELDS).filter(orders)));
+        return out.size();
+    }
+
+    private static List<Order> orders() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            orders.add(new Order());
+        }
+        return orders;
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("full=" + WRITER.writeValueAsBytes(Result.success(orders())).length + "B\tfields="
+                + WRITER.writeValueAsBytes(Result.success(ResultFields.parse(FIELDS).filter(orders()))).length + "B");
+        new Runner(new OptionsBuilder().include(ResultFieldsBenchmark.class.getSimpleName()).build()).run();
+    }
+}
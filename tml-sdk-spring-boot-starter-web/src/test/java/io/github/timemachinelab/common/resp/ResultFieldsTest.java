@@ -0,0 +1,262 @@
+package io.github.timemachinelab.common.resp;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import io.github.timemachinelab.common.annotation.AutoResp;
+import io.github.timemachinelab.common.resp.result.AutoRespAdvice;
+import io.github.timemachinelab.common.resp.result.AutoRespExceptionResolver;
+import io.github.timemachinelab.common.resp.result.AutoRespHandlerMetadata;
+import io.github.timemachinelab.common.resp.result.Result;
+import io.github.timemachinelab.common.resp.result.ResultFields;
+import io.github.timemachinelab.common.resp.result.ResultSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * 稀疏字段测试
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+@DisplayName("稀疏字段测试")
+class ResultFieldsTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(ResultSerializer.module())
+            .build();
+
+    private MockMvc mockMvc;
+
+    public static class Profile {
+        public String avatar = "https://cdn.example.com/a.png";
+        public String bio = "hello";
+    }
+
+    public static class User {
+        public long id = 42;
+        @JsonProperty("nick")
+        public String name = "TimeMachineLab";
+        public String email = "TimeMachineLab@gmail.com";
+        public Profile profile = new Profile();
+        public List<String> tags = Arrays.asList("java", "web");
+    }
+
+    public static class Page {
+        public List<User> records = Arrays.asList(new User(), new User());
+        public long total = 2;
+    }
+
+    public static class AvatarSerializer extends StdSerializer<Profile> {
+
+        public AvatarSerializer() {
+            super(Profile.class);
+        }
+
+        @Override
+        public void serialize(Profile value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeString(value.avatar);
+        }
+    }
+
+    public static class Account {
+        public long id = 7;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        public Profile profile;
+        @JsonInclude(JsonInclude.Include.NON_EMPTY)
+        public List<User> friends = new ArrayList<>();
+        @JsonSerialize(using = AvatarSerializer.class)
+        public Profile card = new Profile();
+        public Profile backup;
+    }
+
+    @RestController
+    @AutoResp
+    static class FieldsController {
+
+        @GetMapping("/user")
+        public User user() {
+            return new User();
+        }
+
+        @GetMapping("/page")
+        @AutoResp(fields = {"total", "records.id", "records.profile.avatar"})
+        public Page page() {
+            return new Page();
+        }
+
+        @GetMapping("/map")
+        public Map<String, Object> map() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("id", 1);
+            map.put("user", new User());
+            map.put("secret", "s");
+            return map;
+        }
+
+        @GetMapping("/account")
+        public Account account() {
+            return new Account();
+        }
+
+        @GetMapping("/stream")
+        public Stream<User> stream() {
+            return Stream.of(new User(), new User(), new User());
+        }
+    }
+
+    @RestController
+    @AutoResp(fields = "id,nick")
+    static class DefaultFieldsController {
+
+        @GetMapping("/default")
+        public User defaultFields() {
+            return new User();
+        }
+
+        @GetMapping("/default/email")
+        @AutoResp(fields = "email")
+        public User email() {
+            return new User();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new FieldsController(), new DefaultFieldsController())
+                .setControllerAdvice(new AutoRespAdvice(objectMapper))
+                .setMessageConverters(new StringHttpMessageConverter(), new MappingJackson2HttpMessageConverter(objectMapper))
+                .setHandlerExceptionResolvers(new AutoRespExceptionResolver(objectMapper))
+                .build();
+    }
+
+    private JsonNode perform(String path, String fields) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(fields == null ? get(path) : get(path).param(ResultFields.PARAMETER, fields))
+                .andReturn().getResponse().getContentAsByteArray());
+    }
+
+    private static List<String> names(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        for (Iterator<String> it = node.fieldNames(); it.hasNext(); ) {
+            names.add(it.next());
+        }
+        return names;
+    }
+
+    @Test
+    @DisplayName("测试请求参数fields过滤data")
+    void testRequestFields() throws Exception {
+        JsonNode all = perform("/user", null).get("data");
+        assertEquals(Arrays.asList("id", "email", "profile", "tags", "nick"), names(all));
+
+        JsonNode result = perform("/user", "tags, nick,unknown,profile.avatar");
+        assertEquals(200, result.get("status").asInt());
+        assertTrue(result.has("timestamp"));
+        JsonNode data = result.get("data");
+        assertEquals(Arrays.asList("profile", "tags", "nick"), names(data), "与完整输出的属性顺序一致，@JsonProperty照常生效");
+        assertEquals(Arrays.asList("avatar"), names(data.get("profile")));
+        assertEquals("web", data.get("tags").get(1).asText());
+    }
+
+    @Test
+    @DisplayName("测试@AutoResp默认字段集与请求参数覆盖")
+    void testAnnotationFields() throws Exception {
+        assertEquals(Arrays.asList("id", "nick"), names(perform("/default", null).get("data")), "使用类上的默认字段集");
+        assertEquals(Arrays.asList("email"), names(perform("/default/email", null).get("data")), "方法上的值优先");
+        assertEquals(Arrays.asList("id", "tags"), names(perform("/default", "tags,id").get("data")), "请求参数优先");
+
+        JsonNode page = perform("/page", null).get("data");
+        assertEquals(Arrays.asList("records", "total"), names(page));
+        assertEquals(2, page.get("records").size());
+        JsonNode record = page.get("records").get(0);
+        assertEquals(Arrays.asList("id", "profile"), names(record), "集合中的每个元素按下级字段集过滤");
+        assertEquals(Arrays.asList("avatar"), names(record.get("profile")));
+    }
+
+    @Test
+    @DisplayName("测试Map与流式data的过滤")
+    void testMapAndStream() throws Exception {
+        JsonNode map = perform("/map", "id,user.id").get("data");
+        assertEquals(Arrays.asList("id", "user"), names(map));
+        assertEquals(Arrays.asList("id"), names(map.get("user")));
+
+        JsonNode stream = perform("/stream", "id").get("data");
+        assertEquals(3, stream.size());
+        for (JsonNode element : stream) {
+            assertEquals(Arrays.asList("id"), names(element));
+        }
+    }
+
+    @Test
+    @DisplayName("测试下级字段集保留属性的包含规则与序列化器")
+    void testNestedWriter() throws Exception {
+        JsonNode data = perform("/account", "id,profile.avatar,friends.id,card.bio,backup.bio").get("data");
+        assertEquals(Arrays.asList("id", "card", "backup"), names(data), "@JsonInclude排除的null值和空集合不输出");
+        assertEquals("https://cdn.example.com/a.png", data.get("card").asText(), "属性自带的序列化器整体输出");
+        assertTrue(data.get("backup").isNull());
+    }
+
+    @Test
+    @DisplayName("测试字段集解析与上限")
+    void testParse() throws Exception {
+        assertNull(ResultFields.parse(null));
+        assertNull(ResultFields.parse(" , ."));
+        assertEquals(ResultFields.of("a", "c"), ResultFields.parse("a.b, c ,a"), "写了a时a.b被忽略");
+        assertEquals(ResultFields.parse("a.b,a.c"), ResultFields.of("a.c", "a.b"));
+        assertNull(ResultFields.parse("a.b").getFields().get("a").getFields().get("b"));
+
+        StringBuilder spec = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            spec.append("f").append(i).append(',');
+        }
+        JsonNode result = perform("/user", spec.toString());
+        assertEquals(400, result.get("status").asInt());
+        assertEquals("tml.bad-request", result.get("code").asText());
+    }
+
+    @Test
+    @DisplayName("测试客户端传入的字段名不产生缓存")
+    void testFilterCache() throws Exception {
+        ResultFields annotated = AutoRespHandlerMetadata.forMethod(
+                DefaultFieldsController.class.getMethod("defaultFields"), DefaultFieldsController.class).getFields();
+        perform("/default", null);
+        perform("/default", null);
+        assertEquals(1, annotated.getCachedFilterCount(), "注解上的字段集每种类型只编译一次");
+        for (int i = 0; i < 100; i++) {
+            assertEquals(Arrays.asList("id"), names(perform("/default", "id,unknown" + i).get("data")));
+        }
+        assertEquals(1, annotated.getCachedFilterCount(), "请求参数的字段集不进入注解字段集的缓存");
+
+        ResultFields fields = ResultFields.parse("id,total,unknown");
+        JsonNode data = objectMapper.readTree(objectMapper.writeValueAsString(
+                Result.success(fields.filter(Arrays.asList(new User(), new Page(), new User()))))).get("data");
+        assertEquals(Arrays.asList("id"), names(data.get(0)));
+        assertEquals(Arrays.asList("total"), names(data.get(1)));
+        assertEquals(2, fields.getCachedFilterCount(), "同一字段集按Bean类型各编译一次");
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.timemachinelab.common.resp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.github.timemachinelab.common.resp.result.Result;
+import io.github.timemachinelab.common.resp.result.ResultBinaryFormat;
+import io.github.timemachinelab.common.resp.result.ResultSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result各编码格式的序列化吞吐与报文大小对比
+ * 运行: 在IDE中执行main方法，先打印各格式的报文字节数，再运行JMH
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultFormatBenchmark {
+
+    public static class User {
+        public long id = 1234567890123L;
+        public String name = "TimeMachineLab";
+        public String email = "TimeMachineLab@gmail.com";
+        public int age = 28;
+        public boolean active = true;
+        public double balance = 10086.5;
+        public List<String> tags = Arrays.asList("java", "web", "sdk");
+    }
+
+    /** 简单消息、单个对象、20条记录的列表 */
+    @Param({"message", "user", "page"})
+    public String payload;
+
+    @Param({"JSON", "SMILE", "CBOR", "MSGPACK"})
+    public String format;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+
+    private ObjectWriter writer;
+
+    private Result<?> result;
+
+    @Setup
+    public void setUp() {
+        writer = mapper(format).writerFor(Result.class);
+        result = payload(payload);
+    }
+
+    @Benchmark
+    public int serialize() throws Exception {
+        out.reset();
+        writer.writeValue(out, result);
+        return out.size();
+    }
+
+    private static ObjectMapper mapper(String format) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json().modulesToInstall(ResultSerializer.module());
+        if (!"JSON".equals(format)) {
+            builder.factory(ResultBinaryFormat.valueOf(format).createFactory());
+        }
+        return builder.build();
+    }
+
+    private static Result<?> payload(String payload) {
+        switch (payload) {
+            case "message":
+                return Result.success("ok").withTraceId("6f1c2a3b4d5e6f708192a3b4c5d6e7f8");
+            case "user":
+                return Result.success(new User()).withTraceId("6f1c2a3b4d5e6f708192a3b4c5d6e7f8");
+            default:
+                List<User> users = new ArrayList<>();
+                for (int i = 0; i < 20; i++) {
+                    users.add(new User());
+                }
+                return Result.success(users).withTraceId("6f1c2a3b4d5e6f708192a3b4c5d6e7f8");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (String payload : new String[]{"message", "user", "page"}) {
+            StringBuilder line = new StringBuilder(payload);
+            for (String format : new String[]{"JSON", "SMILE", "CBOR", "MSGPACK"}) {
+                line.append('\t').append(format).append('=')
+                        .append(mapper(format).writeValueAsBytes(payload(payload)).length).append('B');
+            }
+            System.out.println(line);
+        }
+        new Runner(new OptionsBuilder().include(ResultFormatBenchmark.class.getSimpleName()).build()).run();
+    }
+}
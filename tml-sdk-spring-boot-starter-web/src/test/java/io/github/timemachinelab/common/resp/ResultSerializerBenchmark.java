@@ -0,0 +1,91 @@
+package io.github.timemachinelab.common.resp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.github.timemachinelab.common.resp.result.Result;
+import io.github.timemachinelab.common.resp.result.ResultSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result序列化吞吐对比（默认Bean序列化 vs ResultSerializer，经String中转 vs 直接写字节）
+ * 运行: 在IDE中执行main方法
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultSerializerBenchmark {
+
+    public static class User {
+        public long id = 42;
+        public String name = "TimeMachineLab";
+        public List<String> tags = Arrays.asList("java", "web");
+    }
+
+    /** 预先解析根类型的序列化器，只比较Result本身的序列化开销 */
+    private final ObjectWriter bean = new ObjectMapper().writerFor(Result.class);
+
+    private final ObjectWriter fast = new ObjectMapper().registerModule(ResultSerializer.module()).writerFor(Result.class);
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+
+    private final Result<String> message = Result.success("ok").withTraceId("6f1c2a3b4d5e6f708192a3b4c5d6e7f8");
+
+    private final Result<User> user = Result.success(new User());
+
+    @Benchmark
+    public int beanMessage() throws Exception {
+        return write(bean, message);
+    }
+
+    @Benchmark
+    public int fastMessage() throws Exception {
+        return write(fast, message);
+    }
+
+    /** String返回值原来的路径：先生成JSON字符串，再由StringHttpMessageConverter编码成字节 */
+    @Benchmark
+    public int stringMessage() throws Exception {
+        out.reset();
+        out.write(fast.writeValueAsString(message).getBytes(StandardCharsets.UTF_8));
+        return out.size();
+    }
+
+    @Benchmark
+    public int beanUser() throws Exception {
+        return write(bean, user);
+    }
+
+    @Benchmark
+    public int fastUser() throws Exception {
+        return write(fast, user);
+    }
+
+    private int write(ObjectWriter writer, Result<?> result) throws Exception {
+        out.reset();
+        writer.writeValue(out, result);
+        return out.size();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(ResultSerializerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
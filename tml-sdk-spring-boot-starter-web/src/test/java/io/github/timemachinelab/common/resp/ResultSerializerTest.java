@@ -0,0 +1,112 @@
+package io.github.timemachinelab.common.resp;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.github.timemachinelab.common.resp.result.Result;
+import io.github.timemachinelab.common.resp.result.ResultSerializer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Result专用序列化器测试
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+@SpringBootTest
+@DisplayName("Result专用序列化器测试")
+class ResultSerializerTest {
+
+    @Autowired
+    private ObjectMapper springObjectMapper;
+
+    private final ObjectMapper bean = new ObjectMapper();
+
+    private final ObjectMapper fast = new ObjectMapper().registerModule(ResultSerializer.module());
+
+    public static class User {
+        public long id = 42;
+        public String name = "张三 \"quoted\"\n";
+        public List<String> tags = Arrays.asList("a", "b");
+    }
+
+    private static List<Result<?>> samples() {
+        Map<String, Object> nested = new LinkedHashMap<>();
+        nested.put("count", 3);
+        nested.put("empty", null);
+        return Arrays.asList(
+                Result.success(),
+                Result.success("hello"),
+                Result.success(123),
+                Result.success(new User()),
+                Result.success(Collections.singletonList(new User())),
+                Result.success(nested),
+                Result.success(Result.success("inner")),
+                Result.error("\u0001控制字符与\\转义"),
+                Result.error(null, null, null, null),
+                Result.success("traced").withTraceId("custom-trace-id"),
+                new Result.Builder<String>()
+                        .status(201)
+                        .code("CREATED")
+                        .message("ok")
+                        .data("x")
+                        .extension("executionTime", 150)
+                        .extension("cacheHit", true)
+                        .build());
+    }
+
+    private static Object serializerOf(ObjectMapper mapper) throws Exception {
+        return mapper.getSerializerProviderInstance().findValueSerializer(Result.class);
+    }
+
+    @Test
+    @DisplayName("测试输出与默认Bean序列化逐字节一致")
+    void testByteIdentical() throws Exception {
+        for (Result<?> result : samples()) {
+            String expected = bean.writeValueAsString(result);
+            assertEquals(expected, fast.writeValueAsString(result));
+            assertArrayEquals(bean.writeValueAsBytes(result), fast.writeValueAsBytes(result), expected);
+        }
+        List<Result<?>> list = samples();
+        assertEquals(bean.writeValueAsString(list), fast.writeValueAsString(list), "集合元素同样一致");
+    }
+
+    @Test
+    @DisplayName("测试改变输出的配置退回默认序列化器")
+    void testFallback() throws Exception {
+        ObjectMapper nonNullBean = JsonMapper.builder().serializationInclusion(JsonInclude.Include.NON_NULL).build();
+        ObjectMapper nonNullFast = JsonMapper.builder().serializationInclusion(JsonInclude.Include.NON_NULL)
+                .addModule(ResultSerializer.module()).build();
+        ObjectMapper sortedFast = JsonMapper.builder().enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+                .addModule(ResultSerializer.module()).build();
+        ObjectMapper sortedBean = JsonMapper.builder().enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY).build();
+
+        assertFalse(serializerOf(nonNullFast) instanceof ResultSerializer);
+        for (Result<?> result : samples()) {
+            assertEquals(nonNullBean.writeValueAsString(result), nonNullFast.writeValueAsString(result));
+            assertEquals(sortedBean.writeValueAsString(result), sortedFast.writeValueAsString(result));
+            assertEquals(bean.writerWithView(Object.class).writeValueAsString(result),
+                    fast.writerWithView(Object.class).writeValueAsString(result));
+        }
+    }
+
+    @Test
+    @DisplayName("测试自动配置注册到Spring的ObjectMapper")
+    void testAutoConfiguration() throws Exception {
+        assertInstanceOf(ResultSerializer.class, serializerOf(springObjectMapper));
+        Result<String> result = Result.success("spring");
+        assertTrue(springObjectMapper.writeValueAsString(result).startsWith("{\"status\":200,"));
+    }
+}
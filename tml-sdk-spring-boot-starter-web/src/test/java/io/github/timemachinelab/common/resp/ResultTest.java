@@ -3,6 +3,7 @@ package io.github.timemachinelab.common.resp;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.timemachinelab.common.resp.result.Result;
 import io.github.timemachinelab.common.resp.result.ResultConfig;
+import io.github.timemachinelab.common.resp.result.ResultConfigHolder;
 import io.github.timemachinelab.common.resp.result.TraceIdGenerateStrategy;
 import io.github.timemachinelab.util.time.TimeUtil.TimePrecision;
 import org.json.JSONObject;
@@ -11,6 +12,15 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -116,9 +126,62 @@ class ResultTest {
         
         assertEquals("value1", result.getExtensions().get("key1"));
         assertEquals("value2", result.getExtensions().get("key2"));
-        // 注意：withTraceId可能被配置覆盖
+        assertEquals("custom-trace-id", result.getTraceId());
     }
 
+    @Test
+    @DisplayName("测试扩展属性按需创建")
+    void testLazyExtensions() throws Exception {
+        Result<String> result = Result.success("data");
+        assertFalse(result.hasExtensions());
+        assertFalse(objectMapper.writeValueAsString(result).contains("extensions"), "空扩展属性不应序列化");
+        assertNotNull(result.getExtensions(), "没有扩展属性时也不应为null");
+        assertTrue(result.getExtensions().isEmpty());
+        assertFalse(objectMapper.writeValueAsString(result).contains("extensions"), "空扩展属性不应序列化");
+
+        result.getExtensions().put("key", "value");
+        assertTrue(result.hasExtensions());
+        assertEquals("value", result.getExtensions().get("key"), "getExtensions()返回的Map可直接修改");
+        assertTrue(objectMapper.writeValueAsString(result).contains("\"extensions\":{\"key\":\"value\"}"));
+        result.addExtension("key2", "value2");
+        assertEquals("value2", result.getExtensions().get("key2"));
+    }
+
+
+    @Test
+    @DisplayName("测试并发首次读取traceId时结果一致")
+    void testConcurrentTraceId() throws Exception {
+        ResultConfig previous = ResultConfigHolder.getConfig();
+        ResultConfig config = new ResultConfig();
+        config.setTraceEnabled(true);
+        ResultConfigHolder.setConfig(config);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 100; i++) {
+                Result<String> result = Result.success("data");
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<String>> futures = new ArrayList<>();
+                for (int t = 0; t < 4; t++) {
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        return result.getTraceId();
+                    }));
+                }
+                start.countDown();
+                Set<String> traceIds = new HashSet<>();
+                for (Future<String> future : futures) {
+                    traceIds.add(future.get());
+                }
+                assertEquals(1, traceIds.size(), "所有线程应读到同一个traceId");
+                assertEquals(result.getTraceId(), traceIds.iterator().next());
+            }
+            Result<String> overridden = Result.<String>success("data").withTraceId("custom");
+            assertEquals("custom", overridden.getTraceId());
+        } finally {
+            executor.shutdownNow();
+            ResultConfigHolder.setConfig(previous);
+        }
+    }
     
     @Test
     @DisplayName("测试时间戳生成")
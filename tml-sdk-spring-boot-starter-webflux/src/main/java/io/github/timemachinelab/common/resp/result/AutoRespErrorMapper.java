@@ -0,0 +1,32 @@
+package io.github.timemachinelab.common.resp.result;
+
+/**
+ * 响应式&#64;AutoResp的异常映射
+ * 在发出错误信号的线程（通常是事件循环线程）上同步调用，实现中不能有阻塞操作（IO、锁等待、block()等）
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+@FunctionalInterface
+public interface AutoRespErrorMapper {
+
+    /**
+     * @param ex 处理器方法抛出或发布者发出的异常
+     * @return 写回客户端的错误结果
+     */
+    Result<?> map(Throwable ex);
+
+    /**
+     * @return 与Servlet下AutoRespExceptionResolver一致的默认映射
+     */
+    static AutoRespErrorMapper defaults() {
+        return of(new ExceptionMappings());
+    }
+
+    /**
+     * @param mappings 异常映射表，查找结果按异常类型缓存，可以在事件循环线程上调用
+     */
+    static AutoRespErrorMapper of(ExceptionMappings mappings) {
+        return mappings::resolve;
+    }
+}
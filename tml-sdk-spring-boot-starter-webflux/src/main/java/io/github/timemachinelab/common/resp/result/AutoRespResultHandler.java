@@ -0,0 +1,198 @@
+package io.github.timemachinelab.common.resp.result;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import io.github.timemachinelab.common.annotation.AutoResp;
+import org.springframework.core.MethodClassKey;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ReactiveAdapter;
+import org.springframework.core.ReactiveAdapterRegistry;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.HandlerResult;
+import org.springframework.web.reactive.accept.RequestedContentTypeResolver;
+import org.springframework.web.reactive.result.method.annotation.ResponseBodyResultHandler;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 响应式&#64;AutoResp结果处理器
+ * 排在默认的ResponseBodyResultHandler之前，把&#64;AutoResp方法的返回值包装成Result：
+ * <ul>
+ *     <li>普通值、Mono：包装成Mono&lt;Result&gt;，按内容协商交给消息写入器</li>
+ *     <li>Flux：先写出Result信封的前半部分，再逐个元素写出data数组，最后写出信封的后半部分，
+ *     不在内存中汇总元素，背压由响应写出传递到上游</li>
+ * </ul>
+ * 错误信号在当前线程上交给{@link AutoRespErrorMapper}，不切换线程也不阻塞事件循环，
+ * ResponseStatusException原样向上传递，按其状态码响应；
+ * Flux在第一个元素之前出错时整个响应改写为错误结果，之后出错时响应已提交，只能中断连接
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+public class AutoRespResultHandler extends ResponseBodyResultHandler {
+
+    /** 默认的ResponseBodyResultHandler为100 */
+    public static final int ORDER = 99;
+
+    private static final MethodParameter MONO_RESULT = new MethodParameter(
+            ReflectionUtils.findMethod(AutoRespResultHandler.class, "monoResult"), -1);
+
+    private static final byte[] COMMA = {','};
+
+    private static final Map<MethodClassKey, Boolean> AUTO_RESP_CACHE = new ConcurrentReferenceHashMap<>(256);
+
+    private final ObjectMapper objectMapper;
+
+    private final AutoRespErrorMapper errorMapper;
+
+    public AutoRespResultHandler(List<HttpMessageWriter<?>> writers, RequestedContentTypeResolver resolver,
+                                 ReactiveAdapterRegistry registry, ObjectMapper objectMapper,
+                                 AutoRespErrorMapper errorMapper) {
+        super(writers, resolver, registry);
+        setOrder(ORDER);
+        this.objectMapper = objectMapper;
+        this.errorMapper = errorMapper;
+    }
+
+    /**
+     * 与Servlet的ResponseBodyAdvice一致，只处理&#64;ResponseBody方法，
+     * 普通&#64;Controller中返回视图名、Rendering的方法仍交给视图解析
+     */
+    @Override
+    public boolean supports(HandlerResult result) {
+        if (HttpEntity.class.isAssignableFrom(result.getReturnType().toClass())) {
+            return false;
+        }
+        return super.supports(result) && isAutoResp(result.getHandler());
+    }
+
+    /**
+     * 合并注解查找开销较大，按处理器方法和Controller类型缓存结果
+     */
+    static boolean isAutoResp(Object handler) {
+        if (!(handler instanceof HandlerMethod)) {
+            return false;
+        }
+        HandlerMethod handlerMethod = (HandlerMethod) handler;
+        MethodClassKey key = new MethodClassKey(handlerMethod.getMethod(), handlerMethod.getBeanType());
+        Boolean autoResp = AUTO_RESP_CACHE.get(key);
+        if (autoResp == null) {
+            autoResp = AnnotatedElementUtils.hasAnnotation(handlerMethod.getMethod(), AutoResp.class)
+                    || AnnotatedElementUtils.hasAnnotation(handlerMethod.getBeanType(), AutoResp.class);
+            AUTO_RESP_CACHE.put(key, autoResp);
+        }
+        return autoResp;
+    }
+
+    @Override
+    public Mono<Void> handleResult(ServerWebExchange exchange, HandlerResult result) {
+        Object value = result.getReturnValue();
+        ReactiveAdapter adapter = getAdapter(result);
+        if (value == null || adapter == null) {
+            return writeBody(Mono.just(wrap(value)), MONO_RESULT, exchange);
+        }
+        if (adapter.isMultiValue()) {
+            return writeStream(Flux.from(adapter.toPublisher(value)), exchange);
+        }
+        Mono<Result<?>> body = Mono.from(adapter.toPublisher(value))
+                .map(this::wrap)
+                .switchIfEmpty(Mono.fromSupplier(Result::success))
+                .onErrorResume(ex -> !(ex instanceof ResponseStatusException), ex -> Mono.just(errorMapper.map(ex)));
+        return writeBody(body, MONO_RESULT, exchange);
+    }
+
+    private Result<?> wrap(Object value) {
+        return value instanceof Result ? (Result<?>) value : Result.success(value);
+    }
+
+    private Mono<Void> writeStream(Flux<?> elements, ServerWebExchange exchange) {
+        Flux<byte[]> body = elements
+                .index((index, element) -> encode(element, index == 0))
+                .switchOnFirst((first, encoded) -> {
+                    if (first.isOnError()) {
+                        if (first.getThrowable() instanceof ResponseStatusException) {
+                            return Flux.error(first.getThrowable());
+                        }
+                        Result<?> error = errorMapper.map(first.getThrowable());
+                        return Mono.fromCallable(() -> objectMapper.writeValueAsBytes(error)).flux();
+                    }
+                    byte[][] envelope = envelope();
+                    return Flux.concat(Mono.just(envelope[0]), encoded, Mono.just(envelope[1]));
+                });
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(body.map(response.bufferFactory()::wrap));
+    }
+
+    private byte[] encode(Object element, boolean first) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        try {
+            if (!first) {
+                out.write(COMMA);
+            }
+            objectMapper.writeValue(out, element);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 用占位的data序列化一个Result，在占位处切开得到data数组之前和之后的字节，
+     * 信封其余部分与ObjectMapper的配置（字段包含规则、命名等）保持一致
+     */
+    private byte[][] envelope() {
+        byte[] bytes;
+        try {
+            bytes = objectMapper.writeValueAsBytes(Result.success(DataPlaceholder.INSTANCE));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // JSON文本中的NUL字符总会被转义，原始的0字节只可能来自占位符
+        int split = 0;
+        while (bytes[split] != 0) {
+            split++;
+        }
+        return new byte[][]{Arrays.copyOfRange(bytes, 0, split), Arrays.copyOfRange(bytes, split + 1, bytes.length)};
+    }
+
+    @SuppressWarnings("unused")
+    private static Mono<Result<?>> monoResult() {
+        return null;
+    }
+
+    private static final class DataPlaceholder implements JsonSerializable {
+
+        private static final DataPlaceholder INSTANCE = new DataPlaceholder();
+
+        @Override
+        public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeRawValue("[\u0000]");
+        }
+
+        @Override
+        public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+                throws IOException {
+            serialize(gen, serializers);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.timemachinelab.common.resp.result;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebExceptionHandler;
+import reactor.core.publisher.Mono;
+
+/**
+ * 响应式&#64;AutoResp异常处理器
+ * 处理器方法同步抛出等未进入{@link AutoRespResultHandler}的异常，
+ * 与Servlet下的AutoRespExceptionResolver一样以HTTP 200写回错误结果；
+ * ResponseStatusException（参数缺失或非法、不支持的媒体类型、无法协商等）交给后续处理器按其状态码响应，
+ * 与Servlet下DefaultHandlerExceptionResolver先于AutoRespExceptionResolver处理这些异常一致
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+public class AutoRespWebExceptionHandler implements WebExceptionHandler, Ordered {
+
+    /** 排在Spring Boot的DefaultErrorWebExceptionHandler（-1）之前 */
+    public static final int ORDER = -2;
+
+    private final ObjectMapper objectMapper;
+
+    private final AutoRespErrorMapper errorMapper;
+
+    public AutoRespWebExceptionHandler(ObjectMapper objectMapper, AutoRespErrorMapper errorMapper) {
+        this.objectMapper = objectMapper;
+        this.errorMapper = errorMapper;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Mono<Void> handle(ServerWebExchange exchange, Throwable ex) {
+        ServerHttpResponse response = exchange.getResponse();
+        Object handler = exchange.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (response.isCommitted() || ex instanceof ResponseStatusException
+                || !AutoRespResultHandler.isAutoResp(handler)) {
+            return Mono.error(ex);
+        }
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(errorMapper.map(ex));
+        } catch (JsonProcessingException writeEx) {
+            return Mono.error(ex);
+        }
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.timemachinelab.common.resp.result;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.timemachinelab.util.id.SegmentSource;
+import io.github.timemachinelab.util.time.CachedClock;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ReactiveAdapterRegistry;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.web.reactive.accept.RequestedContentTypeResolver;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties(TmlWebFluxResultProperties.class)
+public class TmlWebFluxResultAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public AutoRespErrorMapper autoRespErrorMapper(ExceptionMappings exceptionMappings) {
+        return AutoRespErrorMapper.of(exceptionMappings);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ExceptionMappings exceptionMappings(ObjectProvider<ExceptionMappingsCustomizer> customizers) {
+        ExceptionMappings mappings = new ExceptionMappings();
+        customizers.orderedStream().forEach(customizer -> customizer.customize(mappings));
+        return mappings;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public AutoRespResultHandler autoRespResultHandler(ServerCodecConfigurer serverCodecConfigurer,
+                                                       RequestedContentTypeResolver contentTypeResolver,
+                                                       ReactiveAdapterRegistry reactiveAdapterRegistry,
+                                                       ObjectMapper objectMapper,
+                                                       AutoRespErrorMapper errorMapper) {
+        return new AutoRespResultHandler(serverCodecConfigurer.getWriters(), contentTypeResolver,
+                reactiveAdapterRegistry, objectMapper, errorMapper);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public AutoRespWebExceptionHandler autoRespWebExceptionHandler(ObjectMapper objectMapper,
+                                                                   AutoRespErrorMapper errorMapper) {
+        return new AutoRespWebExceptionHandler(objectMapper, errorMapper);
+    }
+
+    @Bean
+    public SmartLifecycle tmlWebFluxResultConfigInitializer(TmlWebFluxResultProperties properties,
+                                                            ObjectProvider<SegmentSource> segmentSource) {
+        return new SmartLifecycle() {
+
+            private volatile boolean running;
+
+            @Override
+            public void start() {
+                segmentSource.ifAvailable(TraceIdGenerators::setSegmentSource);
+                ResultConfigHolder.setConfig(properties);
+                running = true;
+            }
+
+            @Override
+            public void stop() {
+                if (properties.isCoarseClockEnabled()) {
+                    CachedClock.stopGlobal();
+                }
+                running = false;
+            }
+
+            @Override
+            public boolean isRunning() {
+                return running;
+            }
+
+            @Override
+            public boolean isAutoStartup() {
+                return true;
+            }
+
+            @Override
+            public int getPhase() {
+                return Integer.MIN_VALUE;
+            }
+        };
+    }
+}
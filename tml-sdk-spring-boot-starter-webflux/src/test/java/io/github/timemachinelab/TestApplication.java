@@ -0,0 +1,18 @@
+package io.github.timemachinelab;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * 测试应用启动类
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+@SpringBootApplication
+public class TestApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(TestApplication.class, args);
+    }
+}
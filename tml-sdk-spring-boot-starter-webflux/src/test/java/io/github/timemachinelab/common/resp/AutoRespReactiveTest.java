@@ -0,0 +1,246 @@
+package io.github.timemachinelab.common.resp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.timemachinelab.TestApplication;
+import io.github.timemachinelab.common.annotation.AutoResp;
+import io.github.timemachinelab.common.resp.result.AutoRespErrorMapper;
+import io.github.timemachinelab.common.resp.result.Result;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Controller;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.reactive.result.view.Rendering;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 响应式&#64;AutoResp测试
+ *
+ * @author TimeMachineLab
+ * @version 1.0.0
+ */
+@SpringBootTest(classes = {TestApplication.class, AutoRespReactiveTest.Config.class},
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("响应式@AutoResp测试")
+class AutoRespReactiveTest {
+
+    private static final int ROWS = 5_000;
+
+    /** 记录错误映射所在的线程 */
+    private static final Set<String> MAPPER_THREADS = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        public ReactiveController reactiveController() {
+            return new ReactiveController();
+        }
+
+        @Bean
+        public ViewController viewController() {
+            return new ViewController();
+        }
+
+        @Bean
+        public AutoRespErrorMapper autoRespErrorMapper() {
+            AutoRespErrorMapper defaults = AutoRespErrorMapper.defaults();
+            return ex -> {
+                MAPPER_THREADS.add(Thread.currentThread().getName());
+                return defaults.map(ex);
+            };
+        }
+    }
+
+    @RestController
+    @AutoResp
+    static class ReactiveController {
+
+        @GetMapping("/mono")
+        public Mono<String> mono() {
+            return Mono.just("hello").delayElement(Duration.ofMillis(1));
+        }
+
+        @GetMapping("/empty")
+        public Mono<Void> empty() {
+            return Mono.empty();
+        }
+
+        @GetMapping("/plain")
+        public Map<String, Integer> plain() {
+            return Map.of("id", 1);
+        }
+
+        @GetMapping("/result")
+        public Mono<Result<String>> result() {
+            return Mono.just(Result.error("already wrapped"));
+        }
+
+        @GetMapping("/flux")
+        public Flux<Map<String, Integer>> flux() {
+            return Flux.range(0, ROWS).map(i -> Map.of("id", i));
+        }
+
+        @GetMapping("/flux-empty")
+        public Flux<Integer> fluxEmpty() {
+            return Flux.empty();
+        }
+
+        @GetMapping("/mono-error")
+        public Mono<String> monoError() {
+            return Mono.<String>error(new IllegalStateException("mono failed")).delaySubscription(Duration.ofMillis(1));
+        }
+
+        @GetMapping("/flux-error")
+        public Flux<Integer> fluxError() {
+            return Flux.error(new IllegalStateException("flux failed"));
+        }
+
+        @GetMapping("/throw")
+        public Mono<String> sync() {
+            throw new IllegalArgumentException("thrown");
+        }
+
+        @GetMapping("/param")
+        public Mono<Integer> param(@RequestParam int id) {
+            return Mono.just(id);
+        }
+
+        @GetMapping("/not-found")
+        public Mono<String> notFound() {
+            return Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND));
+        }
+
+        @GetMapping("/flux-not-found")
+        public Flux<Integer> fluxNotFound() {
+            return Flux.error(new ResponseStatusException(HttpStatus.NOT_FOUND));
+        }
+    }
+
+    /**
+     * 非&#64;ResponseBody的&#64;AutoResp控制器，返回值按视图处理
+     */
+    @Controller
+    @AutoResp
+    static class ViewController {
+
+        @GetMapping("/view/redirect")
+        public Rendering redirect() {
+            return Rendering.redirectTo("/mono").build();
+        }
+    }
+
+    private JsonNode get(String path) throws Exception {
+        byte[] body = webTestClient.get().uri(path).exchange()
+                .expectStatus().isOk()
+                .expectBody().returnResult().getResponseBody();
+        return objectMapper.readTree(body);
+    }
+
+    @Test
+    @DisplayName("测试Mono、普通值与已包装的Result")
+    void testMono() throws Exception {
+        JsonNode mono = get("/mono");
+        assertEquals(200, mono.get("status").asInt());
+        assertEquals("hello", mono.get("data").asText());
+        assertTrue(mono.has("timestamp"));
+
+        assertTrue(get("/empty").get("data").isNull(), "空Mono包装为data为null的成功结果");
+        assertEquals(1, get("/plain").get("data").get("id").asInt());
+        assertEquals("already wrapped", get("/result").get("message").asText(), "已是Result时不重复包装");
+    }
+
+    @Test
+    @DisplayName("测试Flux流式写出Result数组")
+    void testFlux() throws Exception {
+        JsonNode flux = get("/flux");
+        assertEquals(200, flux.get("status").asInt());
+        assertEquals(ROWS, flux.get("data").size());
+        assertEquals(ROWS - 1, flux.get("data").get(ROWS - 1).get("id").asInt());
+        assertTrue(flux.has("timestamp"), "数据之后的信封字段应完整写出");
+
+        JsonNode empty = get("/flux-empty");
+        assertTrue(empty.get("data").isArray());
+        assertEquals(0, empty.get("data").size());
+    }
+
+    @Test
+    @DisplayName("测试错误映射")
+    void testErrors() throws Exception {
+        for (String path : new String[]{"/mono-error", "/flux-error", "/throw"}) {
+            JsonNode error = get(path);
+            assertEquals(500, error.get("status").asInt(), path);
+            assertEquals("tml.error", error.get("code").asText(), path);
+        }
+        assertFalse(MAPPER_THREADS.isEmpty());
+        for (String thread : MAPPER_THREADS) {
+            assertTrue(thread.startsWith("reactor-http-") || thread.startsWith("parallel-"),
+                    "错误映射应在事件循环/发出错误的线程上执行: " + thread);
+        }
+    }
+
+    @Test
+    @DisplayName("测试ResponseStatusException按其状态码响应")
+    void testResponseStatus() throws Exception {
+        assertEquals(1, get("/param?id=1").get("data").asInt());
+        webTestClient.get().uri("/param").exchange().expectStatus().isBadRequest();
+        webTestClient.get().uri("/param?id=abc").exchange().expectStatus().isBadRequest();
+        webTestClient.get().uri("/not-found").exchange().expectStatus().isNotFound();
+        webTestClient.get().uri("/flux-not-found").exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("测试非@ResponseBody方法不包装")
+    void testView() {
+        webTestClient.get().uri("/view/redirect").exchange()
+                .expectStatus().is3xxRedirection()
+                .expectHeader().valueEquals(HttpHeaders.LOCATION, "/mono");
+    }
+
+    @Test
+    @DisplayName("测试并发负载")
+    void testLoad() {
+        int requests = 1_000;
+        AtomicInteger ok = new AtomicInteger();
+        WebTestClient client = webTestClient.mutate().responseTimeout(Duration.ofSeconds(30)).build();
+        Flux.range(0, requests)
+                .flatMap(i -> Mono.fromCallable(() -> {
+                    String path = i % 4 == 0 ? "/flux" : i % 4 == 1 ? "/mono" : i % 4 == 2 ? "/mono-error" : "/plain";
+                    byte[] body = client.get().uri(path).exchange()
+                            .expectStatus().isOk()
+                            .expectBody().returnResult().getResponseBody();
+                    JsonNode json = objectMapper.readTree(body);
+                    if (json.has("status") && json.has("timestamp")) {
+                        ok.incrementAndGet();
+                    }
+                    return json;
+                }).subscribeOn(reactor.core.scheduler.Schedulers.boundedElastic()), 64)
+                .blockLast(Duration.ofMinutes(2));
+        assertEquals(requests, ok.get(), "所有请求都应返回完整的Result");
+    }
+}